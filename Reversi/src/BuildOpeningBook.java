@@ -0,0 +1,43 @@
+import java.nio.file.Paths;
+
+import model.IReversi;
+import strategy.OpeningBook;
+import strategy.OpeningBookBuilder;
+
+import static java.lang.Integer.parseInt;
+
+/**
+ * Class that builds an opening book for one board on every processor and saves it to a file.
+ */
+public final class BuildOpeningBook {
+
+  /**
+   * Builds an opening book and saves it. The arguments are a board size, a board type as for
+   * Reversi, the number of plies the book covers, the file to save it to, and optionally the AI
+   * player type used to find each move, as for Reversi, which defaults to "pvs:1000".
+   * @param args main method arguments
+   * @throws IllegalArgumentException if there are too few arguments or any is invalid.
+   */
+  public static void main(String[] args) {
+    if (args.length < 4) {
+      throw new IllegalArgumentException(
+              "Usage: BuildOpeningBook <size> <board> <plies> <file> [player]");
+    }
+    int size = parseInt(args[0]);
+    if (size <= 1) {
+      throw new IllegalArgumentException("Invalid board size");
+    }
+    IReversi game = Reversi.createGame(args[1], size);
+    String player = args.length > 4 ? args[4] : "pvs:1000";
+    // checks the player type before any search starts
+    Reversi.createStrategy(player, null, 1);
+    // each worker has a processor to itself, so its player searches on one thread
+    OpeningBookBuilder builder = new OpeningBookBuilder(() -> Reversi.createStrategy(player,
+            null, 1), parseInt(args[2]), Runtime.getRuntime().availableProcessors());
+    long start = System.nanoTime();
+    OpeningBook book = builder.build(game);
+    book.write(Paths.get(args[3]));
+    System.out.printf("%d positions searched in %.1f s, written to %s%n", book.size(),
+            (System.nanoTime() - start) / 1e9, args[3]);
+  }
+}
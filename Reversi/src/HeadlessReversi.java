@@ -0,0 +1,38 @@
+import controller.HeadlessRunner;
+
+import static java.lang.Integer.parseInt;
+
+/**
+ * Class that runs games of Reversi between two AI players without any window, and prints a
+ * summary of the results.
+ */
+public final class HeadlessReversi {
+
+  // The number of games played when none is given.
+  private static final int DEFAULT_GAMES = 100;
+
+  /**
+   * Plays games between two AI players and prints one line of JSON summarizing them. The
+   * arguments are a board size, a board type as for Reversi, two AI player types as for
+   * Reversi, and optionally the number of games to play, which defaults to 100. The players
+   * swap colors every game, and the wins, draws and losses are counted for the first.
+   * @param args main method arguments
+   * @throws IllegalArgumentException if there are too few arguments or any is invalid.
+   */
+  public static void main(String[] args) {
+    if (args.length < 4) {
+      throw new IllegalArgumentException(
+              "Usage: HeadlessReversi <size> <board> <player> <player> [games]");
+    }
+    int size = parseInt(args[0]);
+    if (size <= 1) {
+      throw new IllegalArgumentException("Invalid board size");
+    }
+    int games = args.length > 4 ? parseInt(args[4]) : DEFAULT_GAMES;
+    // no reports, so that the summary is the only output
+    HeadlessRunner runner = new HeadlessRunner(() -> Reversi.createGame(args[1], size), args[2],
+            Reversi.createStrategy(args[2], null), args[3], Reversi.createStrategy(args[3], null));
+    runner.run(games);
+    System.out.println(runner.summary());
+  }
+}
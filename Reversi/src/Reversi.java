@@ -1,4 +1,11 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import controller.Controller;
+import model.BitboardHexReversi;
+import model.BitboardSquareReversi;
 import model.HexReversi;
 import model.IReversi;
 import model.ITile;
@@ -6,8 +13,20 @@ import model.SquareReversi;
 import player.AIPlayer;
 import player.HumanPlayer;
 import player.IReversiPlayer;
+import strategy.AlphaBeta;
 import strategy.AvoidAroundCorners;
+import strategy.BookStrategy;
+import strategy.EndgameSolver;
 import strategy.HighestScore;
+import strategy.IStrategy;
+import strategy.IterativeDeepening;
+import strategy.MonteCarlo;
+import strategy.MoveOrderer;
+import strategy.OpeningBook;
+import strategy.PrincipalVariation;
+import strategy.SearchBudget;
+import strategy.TranspositionTable;
+import strategy.WeightedEvaluator;
 import view.GraphicView;
 import view.HintFeature;
 import view.ShapePainter;
@@ -20,6 +39,10 @@ import static java.lang.Integer.parseInt;
  */
 public final class Reversi {
 
+  // The opening books read so far, by file, shared by every player made from them. Books never
+  // change once read, so players built for many games at once read each file only once.
+  private static final Map<Path, OpeningBook> BOOKS = new ConcurrentHashMap<>();
+
   /**
    * Launches a graphic view of a Reversi game.
    * @param args main method arguments
@@ -65,29 +88,82 @@ public final class Reversi {
     return game;
   }
 
-  private static IReversi createGame(String userInput, int size) {
+  // Returns a new game of the given board type ("hex", "bithex", "square" or "bitsquare") and
+  // size, at its starting position.
+  static IReversi createGame(String userInput, int size) {
     switch (userInput) {
       case "hex":
         return new HexReversi(size);
+      case "bithex":
+        return new BitboardHexReversi(size);
       case "square":
         return new SquareReversi(size);
+      case "bitsquare":
+        return new BitboardSquareReversi(size);
       default:
         throw new IllegalArgumentException("invalid board type");
     }
   }
 
   private static IReversiPlayer createPlayer(String userInput, IReversi model, ITile.State color) {
+    if (userInput.equals("human")) {
+      return new HumanPlayer(color);
+    }
+    return new AIPlayer(model, createStrategy(userInput, System.out), color);
+  }
+
+  // Returns a new strategy of the given player type, which reports each move it searches to the
+  // given output, if it reports moves at all, and searches on every processor if it can.
+  static IStrategy createStrategy(String userInput, Appendable report) {
+    return createStrategy(userInput, report, Runtime.getRuntime().availableProcessors());
+  }
+
+  // Returns a new strategy of the given player type, which reports each move it searches to the
+  // given output, if it reports moves at all, and searches on at most the given number of
+  // threads. Callers playing many games at once ask for one thread, so that the games do not
+  // compete for processors.
+  static IStrategy createStrategy(String userInput, Appendable report, int threads) {
+    // an alpha-beta player given a budget per move, such as "alphabeta:500" for half a second
+    if (userInput.startsWith("alphabeta:")) {
+      SearchBudget budget = SearchBudget.parse(userInput.substring("alphabeta:".length()));
+      return new IterativeDeepening(budget);
+    }
+    // a Monte Carlo player given a budget per move, such as "mcts:500" or "mcts:20000nodes"
+    if (userInput.startsWith("mcts:")) {
+      SearchBudget budget = SearchBudget.parse(userInput.substring("mcts:".length()));
+      return new MonteCarlo(budget, threads, System.nanoTime(), report);
+    }
+    // a principal variation search player given a budget per move, such as "pvs:500"
+    if (userInput.startsWith("pvs:")) {
+      SearchBudget budget = SearchBudget.parse(userInput.substring("pvs:".length()));
+      return new PrincipalVariation(budget, Integer.MAX_VALUE, WeightedEvaluator.standard(),
+              new TranspositionTable(16), report);
+    }
+    // a player that plays from an opening book while it can, such as "book:hex6.book:pvs:500"
+    // for a book saved by BuildOpeningBook, and otherwise plays as the player after the file
+    if (userInput.startsWith("book:")) {
+      String rest = userInput.substring("book:".length());
+      int split = rest.indexOf(':');
+      if (split < 0) {
+        throw new IllegalArgumentException("Invalid player type");
+      }
+      Path file = Paths.get(rest.substring(0, split)).toAbsolutePath().normalize();
+      return new BookStrategy(BOOKS.computeIfAbsent(file, OpeningBook::read),
+              createStrategy(rest.substring(split + 1), report, threads));
+    }
     switch (userInput) {
-      case "human":
-        return new HumanPlayer(color);
       case "highscore":
-        return new AIPlayer(model, new HighestScore(), color);
+        return new HighestScore();
       case "avoidcorners":
-        return new AIPlayer(model, new AvoidAroundCorners(), color);
+        return new AvoidAroundCorners();
       case "combo":
-        return new AIPlayer(model, new AvoidAroundCorners(new HighestScore()), color);
+        return new AvoidAroundCorners(new HighestScore());
+      case "endgame":
+        return new EndgameSolver(14, new AvoidAroundCorners(new HighestScore()), true);
+      case "alphabeta":
+        return new AlphaBeta(4, WeightedEvaluator.standard(), null, new MoveOrderer(), report);
       default:
         throw new IllegalArgumentException("Invalid player type");
     }
   }
-}
\ No newline at end of file
+}
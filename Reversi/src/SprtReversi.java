@@ -0,0 +1,48 @@
+import controller.SprtMatch;
+
+import static java.lang.Double.parseDouble;
+import static java.lang.Integer.parseInt;
+
+/**
+ * Class that tests whether one AI player is stronger than another by playing them against each
+ * other without any window, on every processor, until a sequential probability ratio test
+ * decides, and prints a summary of the result. As one game is played on each processor, players
+ * that would search on several threads search on one.
+ */
+public final class SprtReversi {
+
+  /**
+   * Plays a match and prints one line of JSON summarizing it. The arguments are a board size, a
+   * board type as for Reversi, the baseline and candidate AI player types as for Reversi, and
+   * optionally elo0, elo1, alpha, beta and the most games to play, which default to 0, 50, 0.05,
+   * 0.05 and 10000.
+   * @param args main method arguments
+   * @throws IllegalArgumentException if there are too few arguments or any is invalid.
+   */
+  public static void main(String[] args) {
+    if (args.length < 4) {
+      throw new IllegalArgumentException("Usage: SprtReversi <size> <board> <baseline> "
+              + "<candidate> [elo0 elo1 alpha beta games]");
+    }
+    int size = parseInt(args[0]);
+    if (size <= 1) {
+      throw new IllegalArgumentException("Invalid board size");
+    }
+    // checks the board and player types before any game starts
+    Reversi.createGame(args[1], size);
+    Reversi.createStrategy(args[2], null, 1);
+    Reversi.createStrategy(args[3], null, 1);
+    double elo0 = args.length > 4 ? parseDouble(args[4]) : 0;
+    double elo1 = args.length > 5 ? parseDouble(args[5]) : 50;
+    double alpha = args.length > 6 ? parseDouble(args[6]) : 0.05;
+    double beta = args.length > 7 ? parseDouble(args[7]) : 0.05;
+    int games = args.length > 8 ? parseInt(args[8]) : 10_000;
+    // each game has a processor to itself, so its players search on one thread
+    SprtMatch match = new SprtMatch(() -> Reversi.createGame(args[1], size),
+            () -> Reversi.createStrategy(args[2], null, 1),
+            () -> Reversi.createStrategy(args[3], null, 1), elo0, elo1, alpha, beta, games,
+            Runtime.getRuntime().availableProcessors());
+    match.run();
+    System.out.println(match.summary());
+  }
+}
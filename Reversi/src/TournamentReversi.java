@@ -0,0 +1,55 @@
+import java.util.List;
+
+import controller.PairingResult;
+import controller.Tournament;
+
+import static java.lang.Integer.parseInt;
+
+/**
+ * Class that runs a tournament between AI players without any window, on every processor, and
+ * prints a summary of the results. As one game is played on each processor, players that would
+ * search on several threads search on one.
+ */
+public final class TournamentReversi {
+
+  /**
+   * Plays a tournament and prints one line of JSON summarizing it. The arguments are a board
+   * size, a board type as for Reversi, the number of games each pairing plays, "roundrobin" for
+   * every player to play every other or "gauntlet" for the first player to play each of the
+   * rest, and two or more AI player types as for Reversi.
+   * @param args main method arguments
+   * @throws IllegalArgumentException if there are too few arguments or any is invalid.
+   */
+  public static void main(String[] args) {
+    if (args.length < 6) {
+      throw new IllegalArgumentException("Usage: TournamentReversi <size> <board> <games> "
+              + "roundrobin|gauntlet <player> <player> [player...]");
+    }
+    int size = parseInt(args[0]);
+    if (size <= 1) {
+      throw new IllegalArgumentException("Invalid board size");
+    }
+    // checks the board type and every player type before any game starts
+    Reversi.createGame(args[1], size);
+    Tournament tournament = new Tournament(() -> Reversi.createGame(args[1], size),
+            parseInt(args[2]), Runtime.getRuntime().availableProcessors());
+    for (int i = 4; i < args.length; i++) {
+      String spec = args[i];
+      Reversi.createStrategy(spec, null, 1);
+      // each game has a processor to itself, so its players search on one thread
+      tournament.register(spec, () -> Reversi.createStrategy(spec, null, 1));
+    }
+    List<PairingResult> results;
+    switch (args[3]) {
+      case "roundrobin":
+        results = tournament.roundRobin();
+        break;
+      case "gauntlet":
+        results = tournament.gauntlet(args[4]);
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid tournament type");
+    }
+    System.out.println(tournament.summary(results));
+  }
+}
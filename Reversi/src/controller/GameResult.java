@@ -0,0 +1,71 @@
+package controller;
+
+import model.ITile;
+
+/**
+ * Represents the result of one finished game played without a view: each color's final score,
+ * and how many moves each color made and how long it took to choose them.
+ */
+public final class GameResult {
+
+  // The final number of pieces of each color.
+  private final int blackScore;
+  private final int whiteScore;
+
+  // The number of moves each color made.
+  private final int blackMoves;
+  private final int whiteMoves;
+
+  // The total time each color took to choose its moves, in nanoseconds.
+  private final long blackNanos;
+  private final long whiteNanos;
+
+  // Constructs the result of a game from the final scores and each color's moves and time.
+  GameResult(int blackScore, int whiteScore, int blackMoves, int whiteMoves, long blackNanos,
+             long whiteNanos) {
+    this.blackScore = blackScore;
+    this.whiteScore = whiteScore;
+    this.blackMoves = blackMoves;
+    this.whiteMoves = whiteMoves;
+    this.blackNanos = blackNanos;
+    this.whiteNanos = whiteNanos;
+  }
+
+  /**
+   * Returns the color with more pieces at the end of the game.
+   * @return the winning color, or NONE for a draw.
+   */
+  public ITile.State getWinner() {
+    if (this.blackScore == this.whiteScore) {
+      return ITile.State.NONE;
+    }
+    return this.blackScore > this.whiteScore ? ITile.State.BLACK : ITile.State.WHITE;
+  }
+
+  /**
+   * Returns the final number of pieces of the given color.
+   * @param color BLACK or WHITE.
+   * @return the final score of that color.
+   */
+  public int getScore(ITile.State color) {
+    return color == ITile.State.BLACK ? this.blackScore : this.whiteScore;
+  }
+
+  /**
+   * Returns the number of moves the given color made, not counting passes.
+   * @param color BLACK or WHITE.
+   * @return the number of moves.
+   */
+  public int getMoves(ITile.State color) {
+    return color == ITile.State.BLACK ? this.blackMoves : this.whiteMoves;
+  }
+
+  /**
+   * Returns the total time the given color took to choose its moves.
+   * @param color BLACK or WHITE.
+   * @return the time in nanoseconds.
+   */
+  public long getMoveNanos(ITile.State color) {
+    return color == ITile.State.BLACK ? this.blackNanos : this.whiteNanos;
+  }
+}
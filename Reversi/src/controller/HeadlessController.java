@@ -0,0 +1,83 @@
+package controller;
+
+import model.CubeCoord;
+import model.IReversi;
+import model.ITile;
+import player.IReversiPlayer;
+
+/**
+ * Controls one player's side of a game of Reversi with no view, for games between AI players
+ * run without a display. It plays its player's turns just as a Controller does: the player passes
+ * when it has no legal move or cannot choose one, and the game ends when both players pass in a
+ * row. It also times how long the player takes to choose each move.
+ */
+final class HeadlessController implements ModelStatusListener, PlayerActionListener {
+
+  // The game being played.
+  private final IReversi model;
+
+  // The player being represented.
+  private final IReversiPlayer player;
+
+  // The number of moves the player has made.
+  private int moves;
+
+  // The total time the player has taken to choose its moves, in nanoseconds.
+  private long moveNanos;
+
+  /**
+   * Constructs a HeadlessController, subscribing it to the game and the player.
+   * @param game the game being played.
+   * @param player the player being represented.
+   */
+  HeadlessController(IReversi game, IReversiPlayer player) {
+    this.model = game;
+    this.model.subscribe(this);
+    this.player = player;
+    this.player.subscribe(this);
+  }
+
+  @Override
+  public void turnBegins(ITile.State whoseTurn) {
+    if (this.player.getColor() != whoseTurn || this.model.gameOver()) {
+      return;
+    }
+    if (!this.model.hasMoves(whoseTurn)) {
+      this.receivePass();
+      return;
+    }
+    long start = System.nanoTime();
+    try {
+      this.player.requestMove();
+      this.moveNanos += System.nanoTime() - start;
+      this.moves++;
+    } catch (IllegalStateException e) {
+      this.receivePass();
+    }
+  }
+
+  @Override
+  public void receiveMove(CubeCoord loc) {
+    this.model.move(loc, this.player.getColor());
+  }
+
+  @Override
+  public void receivePass() {
+    try {
+      this.model.pass();
+    } catch (IllegalStateException e) {
+      // both players have passed, which ends the game
+    }
+  }
+
+  // Returns the number of moves the player has made.
+  int getMoves() {
+    return this.moves;
+  }
+
+  // Returns the total time the player has taken to choose its moves, in nanoseconds. Since the
+  // next turn begins only after a move returns, this is the time spent choosing alone.
+  long getMoveNanos() {
+    return this.moveNanos;
+  }
+}
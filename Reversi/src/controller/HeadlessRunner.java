@@ -0,0 +1,207 @@
+package controller;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import model.CubeCoord;
+import model.IReversi;
+import model.ITile;
+import player.AIPlayer;
+import strategy.IStrategy;
+
+/**
+ * Plays games of Reversi between two strategies with no view, so that AI players can be compared
+ * on machines without a display. Each game is played on a new board, between two AIPlayers each
+ * represented by a HeadlessController, and the strategies swap colors from game to game, the
+ * first strategy playing black in the first game. The runner keeps count of the first strategy's
+ * wins, draws and losses and of the time taken, and summarizes them as one line of JSON.
+ * The strategies are kept from game to game, so one runner should play one match at a time.
+ */
+public final class HeadlessRunner {
+
+  // Makes the board of each game.
+  private final Supplier<IReversi> boards;
+
+  // The names of the strategies, used in the summary.
+  private final String firstName;
+  private final String secondName;
+
+  // The two strategies playing each other.
+  private final IStrategy first;
+  private final IStrategy second;
+
+  // The number of games played, and the first strategy's wins, draws and losses.
+  private int games;
+  private int wins;
+  private int draws;
+  private int losses;
+
+  // The number of moves each strategy has made, and the total time each took to choose them.
+  private long firstMoves;
+  private long secondMoves;
+  private long firstNanos;
+  private long secondNanos;
+
+  // The total time spent playing games, in nanoseconds.
+  private long elapsedNanos;
+
+  /**
+   * Constructs a HeadlessRunner for a match between the two given strategies.
+   * @param boards makes a new game, at its starting position, for each game played.
+   * @param firstName the name of the first strategy, used in the summary.
+   * @param first the first strategy.
+   * @param secondName the name of the second strategy, used in the summary.
+   * @param second the second strategy.
+   */
+  public HeadlessRunner(Supplier<IReversi> boards, String firstName, IStrategy first,
+                        String secondName, IStrategy second) {
+    this.boards = Objects.requireNonNull(boards);
+    this.firstName = Objects.requireNonNull(firstName);
+    this.first = Objects.requireNonNull(first);
+    this.secondName = Objects.requireNonNull(secondName);
+    this.second = Objects.requireNonNull(second);
+  }
+
+  /**
+   * Plays the given number of games, adding their results to the runner's counts.
+   * @param count the number of games to play.
+   * @throws IllegalArgumentException if the number of games is negative.
+   */
+  public void run(int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Cannot play a negative number of games.");
+    }
+    for (int i = 0; i < count; i++) {
+      // the first strategy plays black in even games and white in odd ones
+      boolean firstIsBlack = this.games % 2 == 0;
+      ITile.State firstColor = firstIsBlack ? ITile.State.BLACK : ITile.State.WHITE;
+      ITile.State secondColor = firstIsBlack ? ITile.State.WHITE : ITile.State.BLACK;
+      long start = System.nanoTime();
+      GameResult result = play(this.boards.get(), firstIsBlack ? this.first : this.second,
+              firstIsBlack ? this.second : this.first);
+      this.elapsedNanos += System.nanoTime() - start;
+      this.games++;
+      if (result.getWinner() == firstColor) {
+        this.wins++;
+      } else if (result.getWinner() == ITile.State.NONE) {
+        this.draws++;
+      } else {
+        this.losses++;
+      }
+      this.firstMoves += result.getMoves(firstColor);
+      this.secondMoves += result.getMoves(secondColor);
+      this.firstNanos += result.getMoveNanos(firstColor);
+      this.secondNanos += result.getMoveNanos(secondColor);
+    }
+  }
+
+  /**
+   * Plays one game to its end between the given strategies, with no view. A strategy that
+   * cannot choose a move passes, so the game may end while a color still has a legal move.
+   * @param game the game to play, at its starting position, with no subscribers.
+   * @param black the strategy playing black.
+   * @param white the strategy playing white.
+   * @return the result of the game.
+   */
+  public static GameResult play(IReversi game, IStrategy black, IStrategy white) {
+    HeadlessController blackSide = new HeadlessController(game,
+            new AIPlayer(game, black, ITile.State.BLACK));
+    HeadlessController whiteSide = new HeadlessController(game,
+            new AIPlayer(game, white, ITile.State.WHITE));
+    // the whole game is played before the first turn's announcement returns
+    game.startGame();
+    return new GameResult(game.calcScore(ITile.State.BLACK), game.calcScore(ITile.State.WHITE),
+            blackSide.getMoves(), whiteSide.getMoves(), blackSide.getMoveNanos(),
+            whiteSide.getMoveNanos());
+  }
+
+  // Plays the given number of random moves on the given game, the same ones for the same seed,
+  // so that games between strategies that always choose the same moves differ from each other.
+  // A player with no legal move passes, and the opening stops early if the game ends.
+  static void playOpening(IReversi game, int plies, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    for (int ply = 0; ply < plies && !game.gameOver(); ply++) {
+      ITile.State color = game.getActiveTurn();
+      List<CubeCoord> moves = game.getLegalMoves(color);
+      if (moves.isEmpty()) {
+        game.pass();
+      } else {
+        game.move(moves.get(random.nextInt(moves.size())), color);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of games played.
+   * @return the number of games.
+   */
+  public int getGames() {
+    return this.games;
+  }
+
+  /**
+   * Returns the number of games the first strategy won.
+   * @return the number of wins.
+   */
+  public int getWins() {
+    return this.wins;
+  }
+
+  /**
+   * Returns the number of games drawn.
+   * @return the number of draws.
+   */
+  public int getDraws() {
+    return this.draws;
+  }
+
+  /**
+   * Returns the number of games the first strategy lost.
+   * @return the number of losses.
+   */
+  public int getLosses() {
+    return this.losses;
+  }
+
+  /**
+   * Returns how many games were played per second of time spent playing.
+   * @return the games per second, or 0 if no games have been played.
+   */
+  public double getGamesPerSecond() {
+    return this.elapsedNanos == 0 ? 0 : this.games * 1e9 / this.elapsedNanos;
+  }
+
+  /**
+   * Returns the average time the given strategy took to choose a move.
+   * @param firstStrategy true for the first strategy, false for the second.
+   * @return the average move time in milliseconds, or 0 if it has made no moves.
+   */
+  public double getAverageMoveMillis(boolean firstStrategy) {
+    long moves = firstStrategy ? this.firstMoves : this.secondMoves;
+    long nanos = firstStrategy ? this.firstNanos : this.secondNanos;
+    return moves == 0 ? 0 : nanos / 1e6 / moves;
+  }
+
+  /**
+   * Returns a summary of the games played as one line of JSON, giving the names of the
+   * strategies, the first strategy's wins, draws and losses, the games per second and each
+   * strategy's average move time in milliseconds.
+   * @return the summary.
+   */
+  public String summary() {
+    return String.format(Locale.ROOT, "{\"first\":\"%s\",\"second\":\"%s\",\"games\":%d,"
+            + "\"wins\":%d,\"draws\":%d,\"losses\":%d,\"seconds\":%.3f,"
+            + "\"gamesPerSecond\":%.3f,\"firstMoveMillis\":%.3f,\"secondMoveMillis\":%.3f}",
+            escape(this.firstName), escape(this.secondName), this.games, this.wins, this.draws,
+            this.losses, this.elapsedNanos / 1e9, this.getGamesPerSecond(),
+            this.getAverageMoveMillis(true), this.getAverageMoveMillis(false));
+  }
+
+  // Returns the given text with the characters JSON strings cannot hold as they are escaped.
+  static String escape(String text) {
+    return text.replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+}
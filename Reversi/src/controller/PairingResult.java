@@ -0,0 +1,121 @@
+package controller;
+
+import java.util.Locale;
+
+/**
+ * Represents the combined results of the games two strategies played against each other in a
+ * tournament, counted for the first of the two.
+ */
+public final class PairingResult {
+
+  // The names of the two strategies.
+  private final String first;
+  private final String second;
+
+  // The first strategy's wins, draws and losses.
+  private int wins;
+  private int draws;
+  private int losses;
+
+  // The total number of pieces the first strategy finished with more than the second.
+  private long margin;
+
+  // Constructs the result of a pairing between the two named strategies, with no games yet.
+  PairingResult(String first, String second) {
+    this.first = first;
+    this.second = second;
+  }
+
+  // Adds a game to the pairing, in which the first strategy finished with the given number of
+  // pieces more than the second.
+  void add(int firstMargin) {
+    if (firstMargin > 0) {
+      this.wins++;
+    } else if (firstMargin == 0) {
+      this.draws++;
+    } else {
+      this.losses++;
+    }
+    this.margin += firstMargin;
+  }
+
+  /**
+   * Returns the name of the strategy the results are counted for.
+   * @return the first strategy's name.
+   */
+  public String getFirst() {
+    return this.first;
+  }
+
+  /**
+   * Returns the name of the first strategy's opponent.
+   * @return the second strategy's name.
+   */
+  public String getSecond() {
+    return this.second;
+  }
+
+  /**
+   * Returns the number of games the two strategies played.
+   * @return the number of games.
+   */
+  public int getGames() {
+    return this.wins + this.draws + this.losses;
+  }
+
+  /**
+   * Returns the number of games the first strategy won.
+   * @return the number of wins.
+   */
+  public int getWins() {
+    return this.wins;
+  }
+
+  /**
+   * Returns the number of games drawn.
+   * @return the number of draws.
+   */
+  public int getDraws() {
+    return this.draws;
+  }
+
+  /**
+   * Returns the number of games the first strategy lost.
+   * @return the number of losses.
+   */
+  public int getLosses() {
+    return this.losses;
+  }
+
+  /**
+   * Returns the first strategy's share of the points, counting a win as one point and a draw as
+   * half a point.
+   * @return the score, from 0 to 1, or 0.5 if no games have been played.
+   */
+  public double getScore() {
+    int games = this.getGames();
+    return games == 0 ? 0.5 : (this.wins + (this.draws / 2.0)) / games;
+  }
+
+  /**
+   * Returns the average number of pieces the first strategy finished with more than the second.
+   * @return the average margin, or 0 if no games have been played.
+   */
+  public double getAverageMargin() {
+    int games = this.getGames();
+    return games == 0 ? 0 : (double) this.margin / games;
+  }
+
+  /**
+   * Returns the results as one line of JSON.
+   * @return the results.
+   */
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT, "{\"first\":\"%s\",\"second\":\"%s\",\"games\":%d,"
+            + "\"wins\":%d,\"draws\":%d,\"losses\":%d,\"score\":%.3f,\"averageMargin\":%.2f}",
+            HeadlessRunner.escape(this.first), HeadlessRunner.escape(this.second),
+            this.getGames(), this.wins, this.draws, this.losses, this.getScore(),
+            this.getAverageMargin());
+  }
+}
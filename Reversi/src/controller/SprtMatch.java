@@ -0,0 +1,423 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import model.IReversi;
+import model.ITile;
+import strategy.IStrategy;
+
+/**
+ * Plays a match between a baseline strategy and a candidate, with no view, until a sequential
+ * probability ratio test (SPRT) decides whether the candidate is stronger. The test weighs two
+ * hypotheses about the candidate's Elo rating relative to the baseline: that it is elo0 (the
+ * candidate is no stronger), or that it is elo1 (the candidate is stronger). After each game
+ * the log-likelihood ratio (LLR) of the wins, draws and losses under the two hypotheses is
+ * found, where each hypothesis takes the chances of a win, a draw and a loss that best explain
+ * the results while giving its expected score (a generalized SPRT on the trinomial). The
+ * match stops as soon as the LLR falls below ln(beta / (1 - alpha)), accepting elo0, or rises
+ * above ln((1 - beta) / alpha), accepting elo1, so that a clear difference is decided in few
+ * games. Here alpha is the chance of wrongly accepting elo1 and beta the chance of wrongly
+ * accepting elo0.
+ * Games are played several at a time on a pool of threads made for each match, each on its own
+ * new board with new instances of both strategies. They are played in pairs from a shared random
+ * opening, with the candidate playing black in the first of each pair, so that strategies that
+ * always choose the same moves still play different games. Games still running when the test
+ * decides are finished before the match returns, but not counted. Half a win, half a draw and
+ * half a loss are added to the results when estimating the chances of each and the Elo, so that
+ * a match with no draws or no losses yet still has a finite estimate; the LLR itself counts only
+ * the games played, so a short run of one result cannot decide the match.
+ */
+public final class SprtMatch {
+
+  /**
+   * The outcome of a match.
+   */
+  public enum Verdict {
+    /** The test accepted that the candidate is stronger (elo1). */
+    STRONGER,
+    /** The test accepted that the candidate is no stronger (elo0). */
+    NOT_STRONGER,
+    /** The match reached its game limit before the test decided. */
+    UNDECIDED
+  }
+
+  // The z-score of a two-sided 95% confidence interval.
+  private static final double Z95 = 1.959964;
+
+  // Makes the board of each game.
+  private final Supplier<IReversi> boards;
+
+  // Make new instances of the two strategies for each game.
+  private final Supplier<IStrategy> baseline;
+  private final Supplier<IStrategy> candidate;
+
+  // The Elo differences of the two hypotheses.
+  private final double elo0;
+  private final double elo1;
+
+  // The LLRs at which the test accepts elo0 and elo1.
+  private final double lowerBound;
+  private final double upperBound;
+
+  // The most games the match plays.
+  private final int maxGames;
+
+  // The number of random moves opening each pair of games, and the seed of the first opening.
+  private final int openingPlies;
+  private final long seed;
+
+  // The number of games played at once.
+  private final int threads;
+
+  // The candidate's wins, draws and losses in the last match.
+  private int wins;
+  private int draws;
+  private int losses;
+
+  // The outcome of the last match, or null if none has been played.
+  private Verdict verdict;
+
+  // The time the last match took, in nanoseconds.
+  private long nanos;
+
+  /**
+   * Constructs an SprtMatch between the given strategies, opening each pair of games with a few
+   * random moves from a fixed seed.
+   * @param boards makes a new game, at its starting position, for each game played.
+   * @param baseline makes a new instance of the baseline strategy for each game, and may be
+   *                 called from any thread.
+   * @param candidate makes a new instance of the candidate strategy for each game, and may be
+   *                  called from any thread.
+   * @param elo0 the Elo difference of the candidate if it is no stronger.
+   * @param elo1 the Elo difference of the candidate if it is stronger.
+   * @param alpha the chance of accepting elo1 when elo0 is true.
+   * @param beta the chance of accepting elo0 when elo1 is true.
+   * @param maxGames the most games to play before giving up without a decision.
+   * @param threads the number of games played at once.
+   * @throws IllegalArgumentException if elo1 is not greater than elo0, alpha or beta is not
+   *         between 0 and 0.5, or the game limit or number of threads is less than 1.
+   */
+  public SprtMatch(Supplier<IReversi> boards, Supplier<IStrategy> baseline,
+                   Supplier<IStrategy> candidate, double elo0, double elo1, double alpha,
+                   double beta, int maxGames, int threads) {
+    this(boards, baseline, candidate, elo0, elo1, alpha, beta, maxGames, threads,
+            Tournament.DEFAULT_OPENING_PLIES, 0);
+  }
+
+  /**
+   * Constructs an SprtMatch between the given strategies, where each pair of games starts from
+   * its own opening of random moves.
+   * @param boards makes a new game, at its starting position, for each game played.
+   * @param baseline makes a new instance of the baseline strategy for each game, and may be
+   *                 called from any thread.
+   * @param candidate makes a new instance of the candidate strategy for each game, and may be
+   *                  called from any thread.
+   * @param elo0 the Elo difference of the candidate if it is no stronger.
+   * @param elo1 the Elo difference of the candidate if it is stronger.
+   * @param alpha the chance of accepting elo1 when elo0 is true.
+   * @param beta the chance of accepting elo0 when elo1 is true.
+   * @param maxGames the most games to play before giving up without a decision.
+   * @param threads the number of games played at once.
+   * @param openingPlies the number of random moves opening each pair of games.
+   * @param seed the seed of the first opening, from which the others follow.
+   * @throws IllegalArgumentException if elo1 is not greater than elo0, alpha or beta is not
+   *         between 0 and 0.5, the game limit or number of threads is less than 1, or the
+   *         number of opening moves is negative.
+   */
+  public SprtMatch(Supplier<IReversi> boards, Supplier<IStrategy> baseline,
+                   Supplier<IStrategy> candidate, double elo0, double elo1, double alpha,
+                   double beta, int maxGames, int threads, int openingPlies, long seed) {
+    if (!(elo1 > elo0)) {
+      throw new IllegalArgumentException("elo1 must be greater than elo0.");
+    }
+    if (!(alpha > 0 && alpha < 0.5 && beta > 0 && beta < 0.5)) {
+      throw new IllegalArgumentException("alpha and beta must be between 0 and 0.5.");
+    }
+    if (maxGames < 1 || threads < 1) {
+      throw new IllegalArgumentException("Must play at least one game on at least one thread.");
+    }
+    if (openingPlies < 0) {
+      throw new IllegalArgumentException("Cannot open with a negative number of moves.");
+    }
+    this.boards = Objects.requireNonNull(boards);
+    this.baseline = Objects.requireNonNull(baseline);
+    this.candidate = Objects.requireNonNull(candidate);
+    this.elo0 = elo0;
+    this.elo1 = elo1;
+    this.lowerBound = Math.log(beta / (1 - alpha));
+    this.upperBound = Math.log((1 - beta) / alpha);
+    this.maxGames = maxGames;
+    this.openingPlies = openingPlies;
+    this.seed = seed;
+    this.threads = threads;
+  }
+
+  /**
+   * Plays games until the test decides or the game limit is reached.
+   * @return the outcome of the match.
+   * @throws IllegalStateException if a game fails.
+   */
+  public Verdict run() {
+    this.wins = 0;
+    this.draws = 0;
+    this.losses = 0;
+    long start = System.nanoTime();
+    // the pool lives only as long as the match, so no games outlive it
+    ForkJoinPool pool = new ForkJoinPool(this.threads);
+    CompletionService<Integer> games = new ExecutorCompletionService<>(pool);
+    List<Future<Integer>> running = new ArrayList<>();
+    int started = 0;
+    // keeps every thread busy with a game, starting another as each one finishes
+    while (started < Math.min(this.maxGames, this.threads)) {
+      running.add(games.submit(this.game(started)));
+      started++;
+    }
+    this.verdict = Verdict.UNDECIDED;
+    try {
+      for (int played = 0; played < this.maxGames; played++) {
+        int margin = games.take().get();
+        if (margin > 0) {
+          this.wins++;
+        } else if (margin == 0) {
+          this.draws++;
+        } else {
+          this.losses++;
+        }
+        double llr = this.getLlr();
+        if (llr <= this.lowerBound) {
+          this.verdict = Verdict.NOT_STRONGER;
+          break;
+        } else if (llr >= this.upperBound) {
+          this.verdict = Verdict.STRONGER;
+          break;
+        }
+        if (started < this.maxGames) {
+          running.add(games.submit(this.game(started)));
+          started++;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while playing the match.");
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A game failed: " + e.getCause());
+    } finally {
+      // games not yet started are dropped, and those still running are finished but not counted
+      for (Future<Integer> game : running) {
+        game.cancel(false);
+      }
+      Tournament.stopPool(pool);
+    }
+    this.nanos = System.nanoTime() - start;
+    return this.verdict;
+  }
+
+  // Returns a game of the match, which returns how many pieces the candidate finished with more
+  // than the baseline. The candidate plays black in even games and white in odd ones, and each
+  // even game shares its opening with the odd game after it.
+  private Callable<Integer> game(int index) {
+    boolean candidateIsBlack = index % 2 == 0;
+    long opening = this.seed + (index / 2);
+    return () -> {
+      IStrategy theCandidate = this.candidate.get();
+      IStrategy theBaseline = this.baseline.get();
+      IReversi board = this.boards.get();
+      HeadlessRunner.playOpening(board, this.openingPlies, opening);
+      GameResult result = HeadlessRunner.play(board,
+              candidateIsBlack ? theCandidate : theBaseline,
+              candidateIsBlack ? theBaseline : theCandidate);
+      int margin = result.getScore(ITile.State.BLACK) - result.getScore(ITile.State.WHITE);
+      return candidateIsBlack ? margin : -margin;
+    };
+  }
+
+  /**
+   * Returns the log-likelihood ratio of the last match's results, where positive values favor
+   * the candidate being stronger.
+   * @return the LLR.
+   */
+  public double getLlr() {
+    return llr(this.wins, this.draws, this.losses, this.elo0, this.elo1);
+  }
+
+  // Returns the LLR of the given results between the hypotheses that the candidate's Elo
+  // difference is elo0 and that it is elo1. Under each hypothesis the chances of a win, a draw
+  // and a loss are those most likely to give the results among the chances whose expected score
+  // is the hypothesis's, and the LLR compares the likelihood of the results under the two.
+  static double llr(int wins, int draws, int losses, double elo0, double elo1) {
+    double[] results = {wins, draws, losses};
+    double games = wins + draws + losses + 1.5;
+    // half a game of each result is added, so that every result has some chance
+    double[] shares = new double[3];
+    for (int i = 0; i < 3; i++) {
+      shares[i] = (results[i] + 0.5) / games;
+    }
+    double[] chances0 = likeliestChances(shares, expectedScore(elo0));
+    double[] chances1 = likeliestChances(shares, expectedScore(elo1));
+    double llr = 0;
+    for (int i = 0; i < 3; i++) {
+      llr += results[i] * Math.log(chances1[i] / chances0[i]);
+    }
+    return llr;
+  }
+
+  // Returns the chances of a win, a draw and a loss closest to the given shares of each result,
+  // as measured by likelihood, whose expected score is the given score. The closest chances are
+  // each share divided by 1 + t * (the result's points - the score), for the one t at which the
+  // expected score is met, found by bisection.
+  private static double[] likeliestChances(double[] shares, double score) {
+    double[] offsets = {1 - score, 0.5 - score, -score};
+    // every divisor stays above zero between these
+    double low = -1 / offsets[0];
+    double high = -1 / offsets[2];
+    for (int step = 0; step < 100; step++) {
+      double middle = (low + high) / 2;
+      double excess = 0;
+      for (int i = 0; i < 3; i++) {
+        excess += shares[i] * offsets[i] / (1 + (middle * offsets[i]));
+      }
+      if (excess > 0) {
+        low = middle;
+      } else {
+        high = middle;
+      }
+    }
+    double t = (low + high) / 2;
+    double[] chances = new double[3];
+    for (int i = 0; i < 3; i++) {
+      chances[i] = shares[i] / (1 + (t * offsets[i]));
+    }
+    return chances;
+  }
+
+  /**
+   * Returns the LLR at or below which the test accepts that the candidate is no stronger.
+   * @return the lower bound.
+   */
+  public double getLowerBound() {
+    return this.lowerBound;
+  }
+
+  /**
+   * Returns the LLR at or above which the test accepts that the candidate is stronger.
+   * @return the upper bound.
+   */
+  public double getUpperBound() {
+    return this.upperBound;
+  }
+
+  /**
+   * Returns the estimated Elo difference of the candidate over the baseline in the last match.
+   * @return the Elo estimate.
+   */
+  public double getElo() {
+    return eloOf(this.getScore());
+  }
+
+  /**
+   * Returns the ends of the 95% confidence interval of the candidate's Elo difference over the
+   * baseline in the last match.
+   * @return the lower and upper ends of the interval.
+   */
+  public double[] getEloInterval() {
+    double score = this.getScore();
+    double deviation = Math.sqrt(this.getVariance() / this.smoothedGames());
+    return new double[] {eloOf(score - (Z95 * deviation)), eloOf(score + (Z95 * deviation))};
+  }
+
+  // Returns the number of games counted, with half a game of each result added.
+  private double smoothedGames() {
+    return this.wins + this.draws + this.losses + 1.5;
+  }
+
+  // Returns the candidate's share of the points, with half a game of each result added.
+  private double getScore() {
+    return (this.wins + 0.5 + ((this.draws + 0.5) / 2)) / this.smoothedGames();
+  }
+
+  // Returns the variance of the candidate's score in one game, with half a game of each result
+  // added, which is always above zero. It gives the width of the Elo interval.
+  private double getVariance() {
+    double win = (this.wins + 0.5) / this.smoothedGames();
+    double draw = (this.draws + 0.5) / this.smoothedGames();
+    double score = this.getScore();
+    return win + (draw / 4) - (score * score);
+  }
+
+  // Returns the expected score of a player with the given Elo difference over its opponent.
+  private static double expectedScore(double elo) {
+    return 1 / (1 + Math.pow(10, -elo / 400));
+  }
+
+  // Returns the Elo difference at which a player's expected score is the given score, kept just
+  // inside 0 and 1 so that it is finite.
+  private static double eloOf(double score) {
+    double clamped = Math.max(1e-6, Math.min(1 - 1e-6, score));
+    return -400 * Math.log10((1 / clamped) - 1);
+  }
+
+  /**
+   * Returns the number of games counted in the last match.
+   * @return the number of games.
+   */
+  public int getGames() {
+    return this.wins + this.draws + this.losses;
+  }
+
+  /**
+   * Returns the number of games the candidate won in the last match.
+   * @return the number of wins.
+   */
+  public int getWins() {
+    return this.wins;
+  }
+
+  /**
+   * Returns the number of games drawn in the last match.
+   * @return the number of draws.
+   */
+  public int getDraws() {
+    return this.draws;
+  }
+
+  /**
+   * Returns the number of games the candidate lost in the last match.
+   * @return the number of losses.
+   */
+  public int getLosses() {
+    return this.losses;
+  }
+
+  /**
+   * Returns the outcome of the last match.
+   * @return the verdict, or null if no match has been played.
+   */
+  public Verdict getVerdict() {
+    return this.verdict;
+  }
+
+  /**
+   * Returns a summary of the last match as one line of JSON, giving the verdict, the games
+   * counted, the candidate's wins, draws and losses, the LLR and its bounds, and the Elo
+   * estimate with its 95% confidence interval.
+   * @return the summary.
+   */
+  public String summary() {
+    double[] interval = this.getEloInterval();
+    return String.format(Locale.ROOT, "{\"verdict\":\"%s\",\"games\":%d,\"wins\":%d,"
+            + "\"draws\":%d,\"losses\":%d,\"llr\":%.3f,\"lowerBound\":%.3f,\"upperBound\":%.3f,"
+            + "\"elo\":%.1f,\"eloLow\":%.1f,\"eloHigh\":%.1f,\"seconds\":%.3f}", this.verdict,
+            this.getGames(), this.wins, this.draws, this.losses, this.getLlr(), this.lowerBound,
+            this.upperBound, this.getElo(), interval[0], interval[1], this.nanos / 1e9);
+  }
+}
@@ -0,0 +1,262 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import model.IReversi;
+import model.ITile;
+import strategy.IStrategy;
+
+/**
+ * Plays tournaments between registered strategies with no view, spreading the games over the
+ * threads of a work-stealing pool. Either every strategy plays every other (a round robin), or
+ * one strategy plays each of the others (a gauntlet). Each pairing plays a fixed number of
+ * games, in pairs from a shared random opening with each strategy playing black once, so that
+ * strategies that always choose the same moves still play different games. Every game is played
+ * on its own new board with new instances of both strategies, so that no two games share any
+ * state. The results are combined per pairing, along with the throughput of the whole
+ * tournament. The pool is made for each tournament and shut down when it ends.
+ */
+public final class Tournament {
+
+  // The number of random moves opening each pair of games when none is given.
+  static final int DEFAULT_OPENING_PLIES = 4;
+
+  // Makes the board of each game.
+  private final Supplier<IReversi> boards;
+
+  // The number of games each pairing plays.
+  private final int gamesPerPairing;
+
+  // The number of random moves opening each pair of games, and the seed of the first opening.
+  private final int openingPlies;
+  private final long seed;
+
+  // The number of games played at once.
+  private final int threads;
+
+  // Makes a new instance of each registered strategy, by name, in the order registered.
+  private final Map<String, Supplier<IStrategy>> strategies;
+
+  // The number of games played by the last tournament, and the time it took in nanoseconds.
+  private int games;
+  private long nanos;
+
+  /**
+   * Constructs a Tournament with no strategies registered, opening each pair of games with a few
+   * random moves from a fixed seed.
+   * @param boards makes a new game, at its starting position, for each game played.
+   * @param gamesPerPairing the number of games each pairing of strategies plays.
+   * @param threads the number of games played at once.
+   * @throws IllegalArgumentException if the number of games or threads is less than 1.
+   */
+  public Tournament(Supplier<IReversi> boards, int gamesPerPairing, int threads) {
+    this(boards, gamesPerPairing, threads, DEFAULT_OPENING_PLIES, 0);
+  }
+
+  /**
+   * Constructs a Tournament with no strategies registered. Each pair of games a pairing plays
+   * starts from its own opening of random moves, and every pairing plays the same openings in
+   * the same order.
+   * @param boards makes a new game, at its starting position, for each game played.
+   * @param gamesPerPairing the number of games each pairing of strategies plays.
+   * @param threads the number of games played at once.
+   * @param openingPlies the number of random moves opening each pair of games.
+   * @param seed the seed of the first opening, from which the others follow.
+   * @throws IllegalArgumentException if the number of games or threads is less than 1, or the
+   *         number of opening moves is negative.
+   */
+  public Tournament(Supplier<IReversi> boards, int gamesPerPairing, int threads,
+                    int openingPlies, long seed) {
+    if (gamesPerPairing < 1) {
+      throw new IllegalArgumentException("Each pairing must play at least one game.");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("Must play on at least one thread.");
+    }
+    if (openingPlies < 0) {
+      throw new IllegalArgumentException("Cannot open with a negative number of moves.");
+    }
+    this.boards = Objects.requireNonNull(boards);
+    this.gamesPerPairing = gamesPerPairing;
+    this.openingPlies = openingPlies;
+    this.seed = seed;
+    this.threads = threads;
+    this.strategies = new LinkedHashMap<>();
+  }
+
+  /**
+   * Registers a strategy to play in this tournament's matches.
+   * @param name the name the strategy's results are given under.
+   * @param strategy makes a new instance of the strategy for each game, and may be called from
+   *                 any thread.
+   * @throws IllegalArgumentException if a strategy is already registered under the name.
+   */
+  public void register(String name, Supplier<IStrategy> strategy) {
+    if (this.strategies.containsKey(name)) {
+      throw new IllegalArgumentException("A strategy named " + name + " is already registered.");
+    }
+    this.strategies.put(name, Objects.requireNonNull(strategy));
+  }
+
+  /**
+   * Plays every registered strategy against every other.
+   * @return the results of each pairing, in the order the strategies were registered.
+   * @throws IllegalStateException if fewer than two strategies are registered, or a game fails.
+   */
+  public List<PairingResult> roundRobin() {
+    List<String> names = new ArrayList<>(this.strategies.keySet());
+    List<PairingResult> pairings = new ArrayList<>();
+    for (int i = 0; i < names.size(); i++) {
+      for (int j = i + 1; j < names.size(); j++) {
+        pairings.add(new PairingResult(names.get(i), names.get(j)));
+      }
+    }
+    return this.play(pairings);
+  }
+
+  /**
+   * Plays the named strategy against every other registered strategy.
+   * @param challenger the name of the strategy that plays each of the others.
+   * @return the results of each pairing, counted for the challenger, in the order the opponents
+   *         were registered.
+   * @throws IllegalArgumentException if no strategy is registered under the name.
+   * @throws IllegalStateException if fewer than two strategies are registered, or a game fails.
+   */
+  public List<PairingResult> gauntlet(String challenger) {
+    if (!this.strategies.containsKey(challenger)) {
+      throw new IllegalArgumentException("No strategy named " + challenger + " is registered.");
+    }
+    List<PairingResult> pairings = new ArrayList<>();
+    for (String name : this.strategies.keySet()) {
+      if (!name.equals(challenger)) {
+        pairings.add(new PairingResult(challenger, name));
+      }
+    }
+    return this.play(pairings);
+  }
+
+  // Plays the games of the given pairings on the pool, adding each game's result to its
+  // pairing, and returns the pairings.
+  private List<PairingResult> play(List<PairingResult> pairings) {
+    if (pairings.isEmpty()) {
+      throw new IllegalStateException("A tournament needs at least two strategies.");
+    }
+    // one task per game, so that idle threads steal single games rather than whole pairings
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (PairingResult pairing : pairings) {
+      Supplier<IStrategy> first = this.strategies.get(pairing.getFirst());
+      Supplier<IStrategy> second = this.strategies.get(pairing.getSecond());
+      for (int game = 0; game < this.gamesPerPairing; game++) {
+        boolean firstIsBlack = game % 2 == 0;
+        // each opening is played twice in a row, once with each strategy as black
+        long opening = this.seed + (game / 2);
+        tasks.add(() -> {
+          IStrategy one = first.get();
+          IStrategy two = second.get();
+          IReversi board = this.boards.get();
+          HeadlessRunner.playOpening(board, this.openingPlies, opening);
+          GameResult result = HeadlessRunner.play(board, firstIsBlack ? one : two,
+                  firstIsBlack ? two : one);
+          int margin = result.getScore(ITile.State.BLACK) - result.getScore(ITile.State.WHITE);
+          return firstIsBlack ? margin : -margin;
+        });
+      }
+    }
+    long start = System.nanoTime();
+    // the pool lives only as long as the tournament, so no Tournament holds idle threads
+    ForkJoinPool pool = new ForkJoinPool(this.threads);
+    List<Future<Integer>> results;
+    try {
+      results = pool.invokeAll(tasks);
+    } finally {
+      stopPool(pool);
+    }
+    this.nanos = System.nanoTime() - start;
+    this.games = tasks.size();
+    // the results are combined on this thread, once every game has finished
+    for (int i = 0; i < results.size(); i++) {
+      try {
+        pairings.get(i / this.gamesPerPairing).add(results.get(i).get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while playing the tournament.");
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("A game failed: " + e.getCause());
+      }
+    }
+    return pairings;
+  }
+
+  // Shuts down the given pool and waits for the games still running on it to finish.
+  static void stopPool(ExecutorService pool) {
+    pool.shutdown();
+    try {
+      pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      pool.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Returns the number of games played by the last tournament.
+   * @return the number of games, or 0 if no tournament has been played.
+   */
+  public int getGames() {
+    return this.games;
+  }
+
+  /**
+   * Returns how many games the last tournament played per second.
+   * @return the games per second, or 0 if no tournament has been played.
+   */
+  public double getGamesPerSecond() {
+    return this.nanos == 0 ? 0 : this.games * 1e9 / this.nanos;
+  }
+
+  /**
+   * Returns how many games the last tournament played per second on each of its threads.
+   * @return the games per second per thread, or 0 if no tournament has been played.
+   */
+  public double getGamesPerSecondPerCore() {
+    return this.getGamesPerSecond() / this.threads;
+  }
+
+  /**
+   * Returns the number of games played at once.
+   * @return the number of threads.
+   */
+  public int getThreads() {
+    return this.threads;
+  }
+
+  /**
+   * Returns a summary of the last tournament as one line of JSON, giving the games played, the
+   * games per second in total and per thread, and the results of each of the given pairings.
+   * @param pairings the pairings returned by the tournament.
+   * @return the summary.
+   */
+  public String summary(List<PairingResult> pairings) {
+    StringBuilder out = new StringBuilder();
+    out.append(String.format(Locale.ROOT, "{\"games\":%d,\"threads\":%d,\"seconds\":%.3f,"
+            + "\"gamesPerSecond\":%.3f,\"gamesPerSecondPerCore\":%.3f,\"pairings\":[",
+            this.games, this.getThreads(), this.nanos / 1e9, this.getGamesPerSecond(),
+            this.getGamesPerSecondPerCore()));
+    for (int i = 0; i < pairings.size(); i++) {
+      out.append(i == 0 ? "" : ",").append(pairings.get(i));
+    }
+    return out.append("]}").toString();
+  }
+}
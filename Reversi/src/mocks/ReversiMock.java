@@ -5,9 +5,11 @@ import java.util.List;
 import java.util.Map;
 
 import controller.ModelStatusListener;
+import model.BoardLayout;
 import model.CubeCoord;
 import model.HexTile;
 import model.IReversi;
+import model.ISearchableReversi;
 import model.ITile;
 
 /**
@@ -80,6 +82,61 @@ public class ReversiMock implements IReversi {
     return tiles;
   }
 
+  // the mock has no board to find legal moves on, so every tile it was given is a candidate, and
+  // flipCount decides which ones score.
+  @Override
+  public List<CubeCoord> getLegalMoves(ITile.State color) {
+    return this.getEmptyTiles();
+  }
+
+  @Override
+  public int countLegalMoves(ITile.State color) {
+    return this.tilesToEval.size();
+  }
+
+  @Override
+  public List<CubeCoord> getFrontier() {
+    return this.getEmptyTiles();
+  }
+
+  @Override
+  public int getLegalMoves(ITile.State color, int[] out) {
+    return 0;
+  }
+
+  // the mock has no position to hash.
+  @Override
+  public long getHash() {
+    return 0;
+  }
+
+  // the mock has no board to search on.
+  @Override
+  public ISearchableReversi copyForSearch() {
+    return null;
+  }
+
+  // the mock has no board, so it has no layout or tile ids.
+  @Override
+  public BoardLayout getLayout() {
+    return null;
+  }
+
+  @Override
+  public ITile.State getStateAt(int id) {
+    return ITile.State.NONE;
+  }
+
+  @Override
+  public int flipCount(int id, ITile.State color) {
+    return ILLEGAL_MOVE;
+  }
+
+  @Override
+  public boolean isLegalMove(int id, ITile.State color) {
+    return false;
+  }
+
   @Override
   public List<CubeCoord> getCorners() {
     return this.corners;
@@ -97,6 +154,15 @@ public class ReversiMock implements IReversi {
     return valid;
   }
 
+  // returns one less than the score of a move at this cube-coord, since the score counts the
+  // placed piece as well as the flipped ones.
+  @Override
+  public int flipCount(CubeCoord cube, ITile.State color) {
+    int flips = this.tilesToEval.get(cube) - 1;
+    log.add("Results of move would flip " + flips + " tiles.");
+    return flips > 0 ? flips : ILLEGAL_MOVE;
+  }
+
   @Override
   public int calcScore(ITile.State color) {
     return 0;
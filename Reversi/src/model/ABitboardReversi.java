@@ -0,0 +1,780 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import controller.ModelStatusListener;
+
+/**
+ * Represents an abstract game of Reversi whose board is stored as bitboards rather than as an
+ * array of tiles. The tile at row r and column c of the 2D board representation (the same
+ * representation used by AReversi) is stored at bit (r * width) + c, spread across as many
+ * 64-bit words as the board needs. Each color is one set of bits, so legal moves and flips are
+ * computed with shifts and masks instead of walking tile objects.
+ * Moving one tile in a direction is a fixed shift of the bits. Before shifting, bits are masked
+ * with the tiles that have a neighbor in that direction, so no shift ever wraps around an edge of
+ * the board or lands on a buffer space.
+ */
+public abstract class ABitboardReversi implements IReversi, ISearchableReversi {
+
+  // The layout of the board, giving each tile's id and shared coordinates.
+  private final BoardLayout layout;
+
+  // The number of rows and columns of the 2D representation of the board.
+  protected final int width;
+
+  // The number of excess spaces + 1 before the tiles begin in the first row of the board.
+  protected final int buffer;
+
+  // The number of 64-bit words used to store one color.
+  protected final int words;
+
+  // The bits of all tiles that exist on the board.
+  private final long[] valid;
+
+  // For each direction, the bits of all tiles whose neighbor in that direction exists.
+  private final long[][] hasNeighbor;
+
+  // For each direction, the difference in bit index between a tile and its neighbor.
+  private final int[] shifts;
+
+  // The id of the tile at each bit, or -1 for bits that are not tiles.
+  private final int[] bitIds;
+
+  // The amount the hash changes by when the piece at each bit is flipped.
+  private final long[] flipKeys;
+
+  // The tiles holding black pieces.
+  private final long[] black;
+
+  // The tiles holding white pieces.
+  private final long[] white;
+
+  // Scratch words used by move generation, so that no arrays are created per query.
+  private final long[] scratchRun;
+  private final long[] scratchShift;
+  private final long[] scratchMoves;
+
+  // the color of the player who last played.
+  private ITile.State lastWent;
+
+  // Whether the last move was a pass.
+  private boolean justPassed;
+
+  // Delivers the start of each turn to the Controllers subscribed to messages from this game.
+  private final TurnScheduler turns;
+
+  // The hash of the current position, as described by BoardLayout, and whether it has been found
+  // yet. It is first found on demand, once the subclass has finished placing the starting pieces.
+  private long hash;
+  private boolean hashKnown;
+
+  // The pieces before each move or pass made for a search that has not been undone, as the black
+  // words followed by the white words, with the turn state from before it. Copying the words
+  // back is cheaper than finding which pieces a move flipped.
+  private final long[] savedBits;
+  private final ITile.State[] savedLastWent;
+  private final boolean[] savedJustPassed;
+  private final boolean[] savedPass;
+  private final long[] savedHash;
+
+  // The number of moves and passes made for a search that have not been undone.
+  private int frames;
+
+  /**
+   * Sets up an empty bitboard game. Subclasses place the starting pieces.
+   * @param layout the layout of the board, giving the 2D board representation.
+   * @param rneighbors the row offsets of a tile's neighbors.
+   * @param cneighbors the column offsets of a tile's neighbors, in the same order.
+   */
+  protected ABitboardReversi(BoardLayout layout, int[] rneighbors, int[] cneighbors) {
+    int width = layout.width();
+    this.layout = layout;
+    this.width = width;
+    this.buffer = layout.buffer();
+    this.words = ((width * width) + 63) / 64;
+    this.valid = new long[this.words];
+    this.hasNeighbor = new long[rneighbors.length][this.words];
+    this.shifts = new int[rneighbors.length];
+    for (int r = 0; r < width; r++) {
+      for (int c = 0; c < width; c++) {
+        if (this.validTile(r, c)) {
+          setBit(this.valid, this.bitAt(r, c));
+          // records every direction in which this tile has a neighbor
+          for (int dir = 0; dir < rneighbors.length; dir++) {
+            if (this.validTile(r + rneighbors[dir], c + cneighbors[dir])) {
+              setBit(this.hasNeighbor[dir], this.bitAt(r, c));
+            }
+          }
+        }
+      }
+    }
+    for (int dir = 0; dir < rneighbors.length; dir++) {
+      this.shifts[dir] = (rneighbors[dir] * width) + cneighbors[dir];
+    }
+    this.bitIds = new int[width * width];
+    this.flipKeys = new long[width * width];
+    for (int bit = 0; bit < this.bitIds.length; bit++) {
+      this.bitIds[bit] = layout.id(bit / width, bit % width);
+      if (this.bitIds[bit] >= 0) {
+        this.flipKeys[bit] = layout.flipKey(this.bitIds[bit]);
+      }
+    }
+    this.black = new long[this.words];
+    this.white = new long[this.words];
+    this.scratchRun = new long[this.words];
+    this.scratchShift = new long[this.words];
+    this.scratchMoves = new long[this.words];
+    this.lastWent = ITile.State.BLACK;
+    this.justPassed = false;
+    this.turns = new TurnScheduler();
+    // every move fills a tile and no two passes are made in a row, which bounds the frames
+    int maxFrames = (2 * layout.size()) + 2;
+    this.savedBits = new long[maxFrames * 2 * this.words];
+    this.savedLastWent = new ITile.State[maxFrames];
+    this.savedJustPassed = new boolean[maxFrames];
+    this.savedPass = new boolean[maxFrames];
+    this.savedHash = new long[maxFrames];
+  }
+
+  /**
+   * Constructs a copy of the given game for a search, which shares nothing that either game can
+   * change. The copy has no subscribers and nothing to undo.
+   * @param other the game being copied.
+   */
+  protected ABitboardReversi(ABitboardReversi other) {
+    this.layout = other.layout;
+    this.width = other.width;
+    this.buffer = other.buffer;
+    this.words = other.words;
+    this.valid = other.valid;
+    this.hasNeighbor = other.hasNeighbor;
+    this.shifts = other.shifts;
+    this.bitIds = other.bitIds;
+    this.flipKeys = other.flipKeys;
+    this.black = other.black.clone();
+    this.white = other.white.clone();
+    this.scratchRun = new long[this.words];
+    this.scratchShift = new long[this.words];
+    this.scratchMoves = new long[this.words];
+    this.lastWent = other.lastWent;
+    this.justPassed = other.justPassed;
+    this.turns = new TurnScheduler();
+    this.savedBits = new long[other.savedBits.length];
+    this.savedLastWent = new ITile.State[other.savedLastWent.length];
+    this.savedJustPassed = new boolean[other.savedJustPassed.length];
+    this.savedPass = new boolean[other.savedPass.length];
+    this.savedHash = new long[other.savedHash.length];
+    this.hash = other.hash;
+    this.hashKnown = other.hashKnown;
+  }
+
+  /**
+   * Determines whether there is a tile at the given coordinates of the board.
+   * @param r the r-coordinate being evaluated
+   * @param c the c-coordinate being evaluated
+   * @return whether the coordinates are valid
+   */
+  protected boolean validTile(int r, int c) {
+    return !(c < 0 || r < 0 || c >= this.width || r >= this.width
+        || (c + r < (this.buffer - 1)) || (c + r >= (2 * this.width) - this.buffer));
+  }
+
+  // Returns the bit index of the tile with the given id.
+  private int bitOf(int id) {
+    return this.bitAt(this.layout.row(id), this.layout.col(id));
+  }
+
+  // Returns the bit index of the tile at the given row and column.
+  protected int bitAt(int r, int c) {
+    return (r * this.width) + c;
+  }
+
+  /**
+   * Places a piece of the given color at the given row and column, without any rule checks.
+   * Used by subclasses to set up the starting pieces.
+   * @param r the row of the piece.
+   * @param c the column of the piece.
+   * @param color the color of the piece.
+   */
+  protected void place(int r, int c, ITile.State color) {
+    int bit = this.bitAt(r, c);
+    clearBit(this.black, bit);
+    clearBit(this.white, bit);
+    if (color != ITile.State.NONE) {
+      setBit(this.bitsOf(color), bit);
+    }
+  }
+
+  /**
+   * Copies the pieces of the given board, in its 2D array state, onto this game and makes it the
+   * given color's turn. Used by subclasses constructing a game from an existing board.
+   * @param madeBoard the board state.
+   * @param whoseTurn whose turn it is in that board state.
+   * @throws IllegalArgumentException if the board is not the size of this game's board.
+   */
+  protected void load(ITile[][] madeBoard, ITile.State whoseTurn) {
+    if (madeBoard.length != this.width) {
+      throw new IllegalArgumentException("Invalid board size.");
+    }
+    for (int r = 0; r < this.width; r++) {
+      for (int c = 0; c < this.width; c++) {
+        if (this.validTile(r, c)) {
+          this.place(r, c, madeBoard[r][c].getState());
+        }
+      }
+    }
+    this.lastWent = this.flip(whoseTurn);
+  }
+
+  @Override
+  public void move(CubeCoord cube, ITile.State color)
+          throws IllegalStateException, IllegalArgumentException {
+    if (color == this.lastWent) {
+      throw new IllegalArgumentException("Not your turn!");
+    }
+    if (this.gameOver()) {
+      throw new IllegalStateException("Cannot do a move when the game is over.");
+    }
+    if (color == ITile.State.NONE) {
+      throw new IllegalArgumentException("Cannot play as empty board.");
+    }
+    int bit = this.checkedTile(cube);
+    if (this.stateOf(bit) != ITile.State.NONE) {
+      throw new IllegalStateException("Cannot place a tile on top of another.");
+    }
+    if (this.flipLines(bit, color, true) == 0) {
+      throw new IllegalStateException("Invalid move.");
+    }
+    this.placeAndHash(bit, color);
+    this.lastWent = color;
+    this.justPassed = false;
+    this.notifyTurnChange();
+  }
+
+  @Override
+  public void makeMove(int id, ITile.State color) throws IllegalArgumentException {
+    if (color == this.lastWent) {
+      throw new IllegalArgumentException("Not your turn!");
+    }
+    if (this.flipCount(id, color) == ILLEGAL_MOVE) {
+      throw new IllegalArgumentException("Invalid move.");
+    }
+    this.pushFrame(false);
+    int bit = this.bitOf(id);
+    this.flipLines(bit, color, true);
+    this.placeAndHash(bit, color);
+    this.lastWent = color;
+    this.justPassed = false;
+  }
+
+  @Override
+  public void unmakeMove() throws IllegalStateException {
+    if (this.frames == 0 || this.savedPass[this.frames - 1]) {
+      throw new IllegalStateException("No move to undo.");
+    }
+    this.popFrame();
+  }
+
+  @Override
+  public void makePass() throws IllegalStateException {
+    if (this.justPassed) {
+      throw new IllegalStateException("Game over!");
+    }
+    this.pushFrame(true);
+    this.hash ^= this.layout.turnKey();
+    this.lastWent = this.flip(this.lastWent);
+    this.justPassed = true;
+  }
+
+  @Override
+  public void unmakePass() throws IllegalStateException {
+    if (this.frames == 0 || !this.savedPass[this.frames - 1]) {
+      throw new IllegalStateException("No pass to undo.");
+    }
+    this.popFrame();
+  }
+
+  @Override
+  public long getHash() {
+    if (!this.hashKnown) {
+      this.hash = this.layout.hashOf(this);
+      this.hashKnown = true;
+    }
+    return this.hash;
+  }
+
+  @Override
+  public int getSearchDepth() {
+    return this.frames;
+  }
+
+  // Places a piece of the given color on the given bit after its flips were applied, and brings
+  // the hash up to date for the placed piece and the change of turn.
+  private void placeAndHash(int bit, ITile.State color) {
+    setBit(this.bitsOf(color), bit);
+    this.hash ^= this.layout.key(this.bitIds[bit], color) ^ this.layout.turnKey();
+  }
+
+  // Saves the pieces and turn state before a move or pass made for a search.
+  private void pushFrame(boolean pass) {
+    this.getHash();
+    int at = this.frames * 2 * this.words;
+    System.arraycopy(this.black, 0, this.savedBits, at, this.words);
+    System.arraycopy(this.white, 0, this.savedBits, at + this.words, this.words);
+    this.savedLastWent[this.frames] = this.lastWent;
+    this.savedJustPassed[this.frames] = this.justPassed;
+    this.savedPass[this.frames] = pass;
+    this.savedHash[this.frames] = this.hash;
+    this.frames++;
+  }
+
+  // Puts back the pieces and turn state saved by the most recent pushFrame.
+  private void popFrame() {
+    this.frames--;
+    int at = this.frames * 2 * this.words;
+    System.arraycopy(this.savedBits, at, this.black, 0, this.words);
+    System.arraycopy(this.savedBits, at + this.words, this.white, 0, this.words);
+    this.lastWent = this.savedLastWent[this.frames];
+    this.justPassed = this.savedJustPassed[this.frames];
+    this.hash = this.savedHash[this.frames];
+  }
+
+  @Override
+  public void pass() throws IllegalStateException {
+    if (!this.justPassed) {
+      this.hash ^= this.layout.turnKey();
+      this.lastWent = this.flip(this.lastWent);
+      this.justPassed = true;
+      this.notifyTurnChange();
+    } else {
+      throw new IllegalStateException("Game over!");
+    }
+  }
+
+  @Override
+  public void startGame() {
+    this.notifyTurnChange();
+  }
+
+  @Override
+  public void notifyTurnChange() {
+    ITile.State turn = this.flip(this.lastWent);
+    this.turns.announce(turn);
+  }
+
+  @Override
+  public void subscribe(ModelStatusListener c) {
+    this.turns.subscribe(c);
+  }
+
+  @Override
+  public List<ITile> returnResultsOfMove(CubeCoord cube, ITile.State color) {
+    if (color == ITile.State.NONE) {
+      throw new IllegalArgumentException("Cannot play as empty board.");
+    }
+    int bit = this.checkedBit(cube);
+    if (!this.touchesColor(bit, this.flip(color))) {
+      throw new IllegalStateException("Invalid move.");
+    }
+    int flipped = this.flipLines(bit, color, false);
+    // the sandwiched tiles, followed by the still-empty tile being placed
+    List<ITile> out = new ArrayList<>();
+    for (int tile = 0; tile < flipped; tile++) {
+      out.add(new HexTile(this.flip(color)));
+    }
+    out.add(new HexTile(ITile.State.NONE));
+    return out;
+  }
+
+  @Override
+  public int flipCount(CubeCoord cube, ITile.State color) {
+    return this.flipCount(this.layout.id(cube), color);
+  }
+
+  @Override
+  public int flipCount(int id, ITile.State color) {
+    if (color == ITile.State.NONE || id < 0 || id >= this.layout.size()
+            || this.stateOf(this.bitOf(id)) != ITile.State.NONE) {
+      return ILLEGAL_MOVE;
+    }
+    int flips = this.flipLines(this.bitOf(id), color, false);
+    return flips > 0 ? flips : ILLEGAL_MOVE;
+  }
+
+  @Override
+  public int calcScore(ITile.State color) {
+    int score = 0;
+    for (int word = 0; word < this.words; word++) {
+      if (color == ITile.State.NONE) {
+        score += Long.bitCount(this.valid[word] & ~(this.black[word] | this.white[word]));
+      } else {
+        score += Long.bitCount(this.bitsOf(color)[word]);
+      }
+    }
+    return score;
+  }
+
+  @Override
+  public ITile.State getStateAt(CubeCoord cube) throws IllegalArgumentException {
+    return this.stateOf(this.checkedTile(cube));
+  }
+
+  @Override
+  public ITile.State getStateAt(int id) throws IllegalArgumentException {
+    if (id < 0 || id >= this.layout.size()) {
+      throw new IllegalArgumentException("No tile there.");
+    }
+    return this.stateOf(this.bitOf(id));
+  }
+
+  @Override
+  public BoardLayout getLayout() {
+    return this.layout;
+  }
+
+  @Override
+  public Boolean gameOver() {
+    return !this.hasMoves(ITile.State.WHITE) && !this.hasMoves(ITile.State.BLACK);
+  }
+
+  @Override
+  public ITile[][] duplicate() {
+    ITile[][] copy = new ITile[this.width][this.width];
+    for (int r = 0; r < this.width; r++) {
+      for (int c = 0; c < this.width; c++) {
+        // buffer areas are left null, as in AReversi
+        if (this.validTile(r, c)) {
+          copy[r][c] = new HexTile(this.stateOf(this.bitAt(r, c)));
+        }
+      }
+    }
+    return copy;
+  }
+
+  @Override
+  public boolean isLegalMove(CubeCoord move, ITile.State color) {
+    return this.flipCount(move, color) > 0;
+  }
+
+  @Override
+  public boolean isLegalMove(int id, ITile.State color) {
+    return this.flipCount(id, color) > 0;
+  }
+
+  @Override
+  public boolean hasMoves(ITile.State color) {
+    if (color == ITile.State.NONE) {
+      return false;
+    }
+    long[] moves = this.legalMoves(color);
+    for (int word = 0; word < this.words; word++) {
+      if (moves[word] != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public List<CubeCoord> getLegalMoves(ITile.State color) {
+    List<CubeCoord> out = new ArrayList<>();
+    if (color == ITile.State.NONE) {
+      return out;
+    }
+    // the whole set is a handful of shifts away, so it is found fresh rather than maintained
+    this.addCoords(this.legalMoves(color), out);
+    return out;
+  }
+
+  @Override
+  public List<CubeCoord> getFrontier() {
+    long[] occupied = this.scratchRun;
+    long[] near = this.scratchMoves;
+    for (int word = 0; word < this.words; word++) {
+      occupied[word] = this.black[word] | this.white[word];
+      near[word] = 0;
+    }
+    // every tile one step from a piece, in any direction, that is itself empty
+    for (int dir = 0; dir < this.shifts.length; dir++) {
+      this.shift(occupied, dir, this.scratchShift);
+      for (int word = 0; word < this.words; word++) {
+        near[word] |= this.scratchShift[word];
+      }
+    }
+    for (int word = 0; word < this.words; word++) {
+      near[word] &= this.valid[word] & ~occupied[word];
+    }
+    List<CubeCoord> out = new ArrayList<>();
+    this.addCoords(near, out);
+    return out;
+  }
+
+  // Adds the coordinates of every tile whose bit is set to the given list, in order of bit.
+  private void addCoords(long[] bits, List<CubeCoord> out) {
+    for (int word = 0; word < this.words; word++) {
+      long left = bits[word];
+      while (left != 0) {
+        int bit = (word * 64) + Long.numberOfTrailingZeros(left);
+        left &= left - 1;
+        out.add(this.layout.coord(this.layout.id(bit / this.width, bit % this.width)));
+      }
+    }
+  }
+
+  @Override
+  public int getLegalMoves(ITile.State color, int[] out) {
+    if (color == ITile.State.NONE) {
+      return 0;
+    }
+    long[] moves = this.legalMoves(color);
+    int count = 0;
+    for (int word = 0; word < this.words; word++) {
+      long left = moves[word];
+      while (left != 0) {
+        int bit = (word * 64) + Long.numberOfTrailingZeros(left);
+        left &= left - 1;
+        out[count++] = this.layout.id(bit / this.width, bit % this.width);
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public int countLegalMoves(ITile.State color) {
+    if (color == ITile.State.NONE) {
+      return 0;
+    }
+    long[] moves = this.legalMoves(color);
+    int count = 0;
+    for (int word = 0; word < this.words; word++) {
+      count += Long.bitCount(moves[word]);
+    }
+    return count;
+  }
+
+  @Override
+  public ITile.State getActiveTurn() {
+    return this.flip(this.lastWent);
+  }
+
+  @Override
+  public int getBuffer() {
+    return this.buffer;
+  }
+
+  /**
+   * Computes the set of all legal moves for the given color at once, by flooding each direction
+   * from the given color's pieces across runs of the opposing color. The result is only valid
+   * until the next query, since it lives in a scratch array.
+   * @param color the color whose moves are being computed.
+   * @return the bits of all empty tiles the given color could play on.
+   */
+  protected long[] legalMoves(ITile.State color) {
+    long[] own = this.bitsOf(color);
+    long[] opp = this.bitsOf(this.flip(color));
+    long[] moves = this.scratchMoves;
+    if (this.words == 1) {
+      moves[0] = this.singleWordMoves(own[0], opp[0]);
+      return moves;
+    }
+    long[] run = this.scratchRun;
+    long[] next = this.scratchShift;
+    for (int word = 0; word < this.words; word++) {
+      moves[word] = 0;
+    }
+    for (int dir = 0; dir < this.shifts.length; dir++) {
+      // the opposing pieces directly next to one of our pieces
+      this.shift(own, dir, run);
+      boolean any = false;
+      for (int word = 0; word < this.words; word++) {
+        run[word] &= opp[word];
+        any |= run[word] != 0;
+      }
+      // extend the runs of opposing pieces until they stop growing
+      boolean grew = any;
+      while (grew) {
+        grew = false;
+        this.shift(run, dir, next);
+        for (int word = 0; word < this.words; word++) {
+          long extended = run[word] | (next[word] & opp[word]);
+          grew |= extended != run[word];
+          run[word] = extended;
+        }
+      }
+      if (any) {
+        // the empty tiles just past a run can be played on
+        this.shift(run, dir, next);
+        for (int word = 0; word < this.words; word++) {
+          moves[word] |= next[word] & this.valid[word] & ~(own[word] | opp[word]);
+        }
+      }
+    }
+    return moves;
+  }
+
+  // Computes the legal moves for a board that fits in a single word.
+  private long singleWordMoves(long own, long opp) {
+    long empty = this.valid[0] & ~(own | opp);
+    long moves = 0;
+    for (int dir = 0; dir < this.shifts.length; dir++) {
+      long mask = this.hasNeighbor[dir][0];
+      int shift = this.shifts[dir];
+      long run = shiftWord(own & mask, shift) & opp;
+      long grown = run;
+      do {
+        run = grown;
+        grown = run | (shiftWord(run & mask, shift) & opp);
+      } while (grown != run);
+      moves |= shiftWord(run & mask, shift) & empty;
+    }
+    return moves;
+  }
+
+  /**
+   * Counts the pieces that a piece of the given color placed on the given bit would flip, walking
+   * outward in every direction. If apply is true, the sandwiched pieces are flipped as well.
+   * @param bit the bit of the tile being played on.
+   * @param color the color of the placed piece.
+   * @param apply whether the sandwiched pieces should actually be flipped.
+   * @return the number of pieces flipped.
+   */
+  private int flipLines(int bit, ITile.State color, boolean apply) {
+    long[] own = this.bitsOf(color);
+    long[] opp = this.bitsOf(this.flip(color));
+    int total = 0;
+    for (int dir = 0; dir < this.shifts.length; dir++) {
+      int at = bit;
+      int run = 0;
+      // keep going while there is a neighbor holding an opposing piece
+      while (testBit(this.hasNeighbor[dir], at)) {
+        at += this.shifts[dir];
+        if (!testBit(opp, at)) {
+          break;
+        }
+        run++;
+      }
+      // the sandwich only counts if it is closed by one of our own pieces
+      if (run > 0 && testBit(own, at)) {
+        total += run;
+        if (apply) {
+          for (int step = 1; step <= run; step++) {
+            int flipped = bit + (step * this.shifts[dir]);
+            clearBit(opp, flipped);
+            setBit(own, flipped);
+            this.hash ^= this.flipKeys[flipped];
+          }
+        }
+      }
+    }
+    return total;
+  }
+
+  // Determines whether the tile at the given bit has a neighbor of the given color.
+  private boolean touchesColor(int bit, ITile.State color) {
+    long[] pieces = this.bitsOf(color);
+    for (int dir = 0; dir < this.shifts.length; dir++) {
+      if (testBit(this.hasNeighbor[dir], bit) && testBit(pieces, bit + this.shifts[dir])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Shifts the given bits one tile in the given direction, dropping any that would leave the
+   * board, and writes the result into dest.
+   * @param src the bits being shifted.
+   * @param dir the index of the direction.
+   * @param dest the array the shifted bits are written to.
+   */
+  private void shift(long[] src, int dir, long[] dest) {
+    long[] mask = this.hasNeighbor[dir];
+    int amount = this.shifts[dir];
+    int wordShift = Math.abs(amount) >>> 6;
+    int bitShift = Math.abs(amount) & 63;
+    for (int word = 0; word < this.words; word++) {
+      long out = 0;
+      if (amount > 0) {
+        // moving towards higher bits pulls from lower words
+        int from = word - wordShift;
+        if (from >= 0) {
+          out = (src[from] & mask[from]) << bitShift;
+          if (bitShift != 0 && from > 0) {
+            out |= (src[from - 1] & mask[from - 1]) >>> (64 - bitShift);
+          }
+        }
+      } else {
+        // moving towards lower bits pulls from higher words
+        int from = word + wordShift;
+        if (from < this.words) {
+          out = (src[from] & mask[from]) >>> bitShift;
+          if (bitShift != 0 && from + 1 < this.words) {
+            out |= (src[from + 1] & mask[from + 1]) << (64 - bitShift);
+          }
+        }
+      }
+      dest[word] = out;
+    }
+  }
+
+  // Shifts a single word left by a positive amount or right by a negative amount.
+  private static long shiftWord(long bits, int amount) {
+    return amount > 0 ? bits << amount : bits >>> -amount;
+  }
+
+  // Returns the bit of the given coordinates, or throws if it is not an empty tile on the board.
+  private int checkedBit(CubeCoord cube) throws IllegalArgumentException {
+    int bit = this.checkedTile(cube);
+    if (this.stateOf(bit) != ITile.State.NONE) {
+      throw new IllegalArgumentException("Invalid tile position.");
+    }
+    return bit;
+  }
+
+  // Returns the bit of the given coordinates, or throws if there is no tile there.
+  private int checkedTile(CubeCoord cube) throws IllegalArgumentException {
+    int r = cube.getAsRow(this.buffer);
+    int c = cube.getAsCol(this.buffer);
+    if (!this.validTile(r, c)) {
+      throw new IllegalArgumentException("No tile there.");
+    }
+    return this.bitAt(r, c);
+  }
+
+  // Returns the color of the piece at the given bit.
+  protected ITile.State stateOf(int bit) {
+    if (testBit(this.black, bit)) {
+      return ITile.State.BLACK;
+    } else if (testBit(this.white, bit)) {
+      return ITile.State.WHITE;
+    }
+    return ITile.State.NONE;
+  }
+
+  // Returns the bits holding the given color.
+  private long[] bitsOf(ITile.State color) {
+    return color == ITile.State.BLACK ? this.black : this.white;
+  }
+
+  // Returns the opposite of the given color (black -> white, white -> black).
+  protected ITile.State flip(ITile.State col) {
+    if (col == ITile.State.BLACK) {
+      return ITile.State.WHITE;
+    } else {
+      return ITile.State.BLACK;
+    }
+  }
+
+  private static boolean testBit(long[] bits, int bit) {
+    return (bits[bit >>> 6] & (1L << bit)) != 0;
+  }
+
+  private static void setBit(long[] bits, int bit) {
+    bits[bit >>> 6] |= 1L << bit;
+  }
+
+  private static void clearBit(long[] bits, int bit) {
+    bits[bit >>> 6] &= ~(1L << bit);
+  }
+}
@@ -1,6 +1,7 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import controller.ModelStatusListener;
@@ -8,10 +9,10 @@ import controller.ModelStatusListener;
 /**
  * Represents an abstract game of Reversi with no particular board shape.
  */
-public abstract class AReversi implements IReversi {
+public abstract class AReversi implements IReversi, ISearchableReversi {
 
-  // the actual representation of the game board
-  protected final ITile[][] board;
+  // the actual representation of the game board, as one byte per tile
+  protected final ByteBoard board;
 
   // The number of excess spaces + 1 before the tiles begin in the first row of the board.
   protected final int buffer;
@@ -22,8 +23,11 @@ public abstract class AReversi implements IReversi {
   // Whether the last move was a pass.
   private boolean justPassed;
 
-  // The Controllers subscribed to messages from this game.
-  private final List<ModelStatusListener> subs;
+  // Whether calcScore checks the board's running piece counts against a full count.
+  private boolean checkCounts;
+
+  // Delivers the start of each turn to the Controllers subscribed to messages from this game.
+  private final TurnScheduler turns;
 
   // The differences in column-indices between a tile and its neighbors, starting at the top
   // left neighbor and moving clockwise.
@@ -33,6 +37,56 @@ public abstract class AReversi implements IReversi {
   // neighbor and moving clockwise.
   protected final List<Integer> rneighbors;
 
+  // The id of each tile's neighbor in each direction, or -1 if there is none, indexed by
+  // (id * number of directions) + direction.
+  private final int[] neighbors;
+
+  // Scratch space holding the length of the sandwich found in each direction by the last call
+  // to countFlips, so that a move can be applied without building any lists.
+  private final int[] runs;
+
+  // The empty tiles on which each color could legally move, kept up to date move by move.
+  private final IdSet blackMoves;
+  private final IdSet whiteMoves;
+
+  // The empty tiles next to at least one piece, which are the only tiles that could ever be
+  // legal moves, kept up to date move by move.
+  private final IdSet frontier;
+
+  // Whether the sets of legal moves, the frontier and the hash describe the board. They are first
+  // found on demand, once the subclass has finished setting up the starting pieces.
+  private boolean movesKnown;
+
+  // The hash of the current position, as described by BoardLayout, kept up to date along with
+  // the legal moves.
+  private long hash;
+
+  // Scratch space holding the ids of the tiles changed by the last move, in order of change.
+  private final int[] changed;
+
+  // The number of tiles changed by the last move.
+  private int changedCount;
+
+  // Scratch space for the empty tiles whose legality must be checked again after a move, with a
+  // mark on each one so that no tile is checked twice.
+  private final int[] stale;
+  private final boolean[] marked;
+
+  // The ids of the tiles changed by each move made for a search, stacked move after move with
+  // the played tile last, and the number of ids in use.
+  private int[] undoTiles;
+  private int undoTop;
+
+  // For each move or pass made for a search that has not been undone: where its tiles start in
+  // undoTiles, or -1 for a pass, and the turn state from before it.
+  private final int[] frameStarts;
+  private final ITile.State[] frameLastWent;
+  private final boolean[] frameJustPassed;
+  private final long[] frameHash;
+
+  // The number of moves and passes made for a search that have not been undone.
+  private int frames;
+
   /**
    * Sets up this abstract reversi game.
    * @param size the size of the game.
@@ -42,9 +96,24 @@ public abstract class AReversi implements IReversi {
     this.buffer = determineBuffer(size);
     this.justPassed = false;
     this.lastWent = ITile.State.BLACK;
-    this.subs = new ArrayList<>();
+    this.turns = new TurnScheduler();
     this.cneighbors = getCNeighbors();
     this.rneighbors = getRNeighbors();
+    this.neighbors = this.findNeighbors();
+    this.runs = new int[this.rneighbors.size()];
+    this.blackMoves = new IdSet(this.board.size());
+    this.whiteMoves = new IdSet(this.board.size());
+    this.frontier = new IdSet(this.board.size());
+    this.movesKnown = false;
+    this.changed = new int[this.board.size()];
+    this.stale = new int[this.board.size()];
+    this.marked = new boolean[this.board.size()];
+    // every move fills a tile and no two passes are made in a row, which bounds the frames
+    this.undoTiles = new int[this.board.size()];
+    this.frameStarts = new int[(2 * this.board.size()) + 2];
+    this.frameLastWent = new ITile.State[this.frameStarts.length];
+    this.frameJustPassed = new boolean[this.frameStarts.length];
+    this.frameHash = new long[this.frameStarts.length];
   }
 
   /**
@@ -57,9 +126,67 @@ public abstract class AReversi implements IReversi {
     this.buffer = determineBuffer((madeBoard.length + 1) / 2);
     this.justPassed = false;
     this.lastWent = this.flip(whoseTurn);
-    this.subs = new ArrayList<>();
+    this.turns = new TurnScheduler();
     this.cneighbors = getCNeighbors();
     this.rneighbors = getRNeighbors();
+    this.neighbors = this.findNeighbors();
+    this.runs = new int[this.rneighbors.size()];
+    this.blackMoves = new IdSet(this.board.size());
+    this.whiteMoves = new IdSet(this.board.size());
+    this.frontier = new IdSet(this.board.size());
+    this.movesKnown = false;
+    this.changed = new int[this.board.size()];
+    this.stale = new int[this.board.size()];
+    this.marked = new boolean[this.board.size()];
+    // every move fills a tile and no two passes are made in a row, which bounds the frames
+    this.undoTiles = new int[this.board.size()];
+    this.frameStarts = new int[(2 * this.board.size()) + 2];
+    this.frameLastWent = new ITile.State[this.frameStarts.length];
+    this.frameJustPassed = new boolean[this.frameStarts.length];
+    this.frameHash = new long[this.frameStarts.length];
+  }
+
+  /**
+   * Constructs a copy of the given game for a search, which shares nothing that either game can
+   * change. The copy has no subscribers and nothing to undo.
+   * @param other the game being copied.
+   */
+  protected AReversi(AReversi other) {
+    this.board = other.board.copy();
+    this.buffer = other.buffer;
+    this.justPassed = other.justPassed;
+    this.lastWent = other.lastWent;
+    this.turns = new TurnScheduler();
+    this.cneighbors = other.cneighbors;
+    this.rneighbors = other.rneighbors;
+    this.neighbors = other.neighbors;
+    this.runs = new int[other.runs.length];
+    this.blackMoves = new IdSet(other.blackMoves);
+    this.whiteMoves = new IdSet(other.whiteMoves);
+    this.frontier = new IdSet(other.frontier);
+    this.movesKnown = other.movesKnown;
+    this.hash = other.hash;
+    this.changed = new int[this.board.size()];
+    this.stale = new int[this.board.size()];
+    this.marked = new boolean[this.board.size()];
+    this.undoTiles = new int[this.board.size()];
+    this.frameStarts = new int[other.frameStarts.length];
+    this.frameLastWent = new ITile.State[this.frameStarts.length];
+    this.frameJustPassed = new boolean[this.frameStarts.length];
+    this.frameHash = new long[this.frameStarts.length];
+  }
+
+  // builds the table of every tile's neighbors, in the order of the neighbor offset lists.
+  private int[] findNeighbors() {
+    int dirs = this.rneighbors.size();
+    int[] out = new int[this.board.size() * dirs];
+    for (int id = 0; id < this.board.size(); id++) {
+      for (int dir = 0; dir < dirs; dir++) {
+        out[(id * dirs) + dir] = this.board.id(this.board.row(id) + this.rneighbors.get(dir),
+                this.board.col(id) + this.cneighbors.get(dir));
+      }
+    }
+    return out;
   }
 
   /**
@@ -67,11 +194,11 @@ public abstract class AReversi implements IReversi {
    * and not in the IReversi interface as they should not be accessible outside the models
    * themselves - they are private methods shared by all versions of Reversi.
    */
-  // creates a board with the start-of-game tiles in place.
-  protected abstract ITile[][] createValidBoard(int size) throws IllegalArgumentException;
+  // creates an empty board of the given size.
+  protected abstract ByteBoard createValidBoard(int size) throws IllegalArgumentException;
 
   // creates a board using the given board state.
-  protected abstract ITile[][] createValidBoard(ITile[][] madeBoard)
+  protected abstract ByteBoard createValidBoard(ITile[][] madeBoard)
           throws IllegalArgumentException;
 
   // determines the buffer to be used for this game's board representation.
@@ -89,26 +216,26 @@ public abstract class AReversi implements IReversi {
     if (color == this.lastWent) {
       throw new IllegalArgumentException("Not your turn!");
     }
-    int r = cube.getAsRow(this.buffer);
-    int c = cube.getAsCol(this.buffer);
+    int id = this.board.id(cube.getAsRow(this.buffer), cube.getAsCol(this.buffer));
     if (this.gameOver()) {
       throw new IllegalStateException("Cannot do a move when the game is over.");
     }
     if (color == ITile.State.NONE) {
       throw new IllegalArgumentException("Cannot play as empty board.");
     }
-    if (this.validTile(r, c) && this.board[r][c].getState() != ITile.State.NONE) {
+    if (id < 0) {
+      throw new IllegalArgumentException("Invalid tile position.");
+    }
+    if (this.board.get(id) != ITile.State.NONE) {
       throw new IllegalStateException("Cannot place a tile on top of another.");
     }
-    // gets the list of all tiles that would be affected by the move
-    List<ITile> toFlip = this.moveResults(cube, color);
-    if (toFlip.size() <= 1) {
+    // finds the sandwich in every direction, then flips them in place
+    if (this.countFlips(id, color) == 0) {
       throw new IllegalStateException("Invalid move.");
     }
-    // flips all the affected tiles to the color of the placed piece.
-    for (ITile tile : toFlip) {
-      tile.setState(color);
-    }
+    this.applyFlips(id, color);
+    this.updateMoves(this.changed, 0, this.changedCount);
+    this.hash ^= this.board.layout().turnKey();
     this.lastWent = color;
     this.justPassed = false;
     this.notifyTurnChange();
@@ -117,6 +244,7 @@ public abstract class AReversi implements IReversi {
   @Override
   public void pass() throws IllegalStateException {
     if (!this.justPassed) {
+      this.hash ^= this.board.layout().turnKey();
       this.lastWent = this.flip(this.lastWent);
       this.justPassed = true;
       this.notifyTurnChange();
@@ -125,6 +253,90 @@ public abstract class AReversi implements IReversi {
     }
   }
 
+  @Override
+  public void makeMove(int id, ITile.State color) throws IllegalArgumentException {
+    if (color == this.lastWent) {
+      throw new IllegalArgumentException("Not your turn!");
+    }
+    if (color == ITile.State.NONE || id < 0 || id >= this.board.size()
+            || !this.movesOf(color).contains(id)) {
+      throw new IllegalArgumentException("Invalid move.");
+    }
+    this.pushFrame(this.undoTop);
+    this.countFlips(id, color);
+    this.applyFlips(id, color);
+    // remembers the changed tiles, growing the stack only when a search first goes this deep
+    if (this.undoTop + this.changedCount > this.undoTiles.length) {
+      this.undoTiles = Arrays.copyOf(this.undoTiles,
+              Math.max(2 * this.undoTiles.length, this.undoTop + this.changedCount));
+    }
+    System.arraycopy(this.changed, 0, this.undoTiles, this.undoTop, this.changedCount);
+    this.undoTop += this.changedCount;
+    this.updateMoves(this.changed, 0, this.changedCount);
+    this.hash ^= this.board.layout().turnKey();
+    this.lastWent = color;
+    this.justPassed = false;
+  }
+
+  @Override
+  public void unmakeMove() throws IllegalStateException {
+    if (this.frames == 0 || this.frameStarts[this.frames - 1] < 0) {
+      throw new IllegalStateException("No move to undo.");
+    }
+    this.frames--;
+    int from = this.frameStarts[this.frames];
+    int placed = this.undoTiles[this.undoTop - 1];
+    // the flipped pieces go back to the color opposing the piece that was placed
+    ITile.State flipped = this.flip(this.board.get(placed));
+    for (int i = from; i < this.undoTop - 1; i++) {
+      this.board.set(this.undoTiles[i], flipped);
+    }
+    this.board.set(placed, ITile.State.NONE);
+    this.updateMoves(this.undoTiles, from, this.undoTop);
+    this.undoTop = from;
+    this.lastWent = this.frameLastWent[this.frames];
+    this.justPassed = this.frameJustPassed[this.frames];
+    this.hash = this.frameHash[this.frames];
+  }
+
+  @Override
+  public void makePass() throws IllegalStateException {
+    if (this.justPassed) {
+      throw new IllegalStateException("Game over!");
+    }
+    this.pushFrame(-1);
+    this.hash ^= this.board.layout().turnKey();
+    this.lastWent = this.flip(this.lastWent);
+    this.justPassed = true;
+  }
+
+  @Override
+  public void unmakePass() throws IllegalStateException {
+    if (this.frames == 0 || this.frameStarts[this.frames - 1] >= 0) {
+      throw new IllegalStateException("No pass to undo.");
+    }
+    this.frames--;
+    this.lastWent = this.frameLastWent[this.frames];
+    this.justPassed = this.frameJustPassed[this.frames];
+    this.hash = this.frameHash[this.frames];
+  }
+
+  @Override
+  public int getSearchDepth() {
+    return this.frames;
+  }
+
+  // Remembers the turn state before a move or pass made for a search, with where the move's
+  // changed tiles will start in the undo stack, or -1 for a pass.
+  private void pushFrame(int start) {
+    this.ensureKnown();
+    this.frameStarts[this.frames] = start;
+    this.frameLastWent[this.frames] = this.lastWent;
+    this.frameJustPassed[this.frames] = this.justPassed;
+    this.frameHash[this.frames] = this.hash;
+    this.frames++;
+  }
+
   @Override
   public void startGame() {
     this.notifyTurnChange();
@@ -133,14 +345,12 @@ public abstract class AReversi implements IReversi {
   @Override
   public void notifyTurnChange() {
     ITile.State turn = this.flip(this.lastWent);
-    for (ModelStatusListener sub : subs) {
-      sub.turnBegins(turn);
-    }
+    this.turns.announce(turn);
   }
 
   @Override
   public void subscribe(ModelStatusListener c) {
-    this.subs.add(c);
+    this.turns.subscribe(c);
   }
 
   @Override
@@ -148,13 +358,235 @@ public abstract class AReversi implements IReversi {
     // gets the list of tiles affected by the move
     List<ITile> tiles = this.moveResults(cube, moveColor);
     List<ITile> out = new ArrayList<>();
-    // duplicates the tiles and adds them to a new list
+    // duplicates the tiles and adds them to a new list, detached from this game's board
     for (ITile tile : tiles) {
       out.add(new HexTile(tile.getState()));
     }
     return out;
   }
 
+  /**
+   * Counts the pieces that would be flipped by a piece of the given color placed on the empty
+   * tile with the given id, recording the length of the sandwich in each direction so that
+   * applyFlips can make the move. Never throws and never allocates.
+   * @param id the id of the empty tile being played on.
+   * @param color the color of the piece being placed.
+   * @return the number of pieces that would be flipped, which is 0 if the move is not legal.
+   */
+  protected int countFlips(int id, ITile.State color) {
+    ITile.State oppCol = this.flip(color);
+    int dirs = this.runs.length;
+    int total = 0;
+    for (int dir = 0; dir < dirs; dir++) {
+      int run = 0;
+      int at = this.neighbors[(id * dirs) + dir];
+      // walk over the opposing pieces in this direction
+      while (at >= 0 && this.board.get(at) == oppCol) {
+        run++;
+        at = this.neighbors[(at * dirs) + dir];
+      }
+      // the run is only a sandwich if it is closed by a piece of the placed color
+      if (at < 0 || this.board.get(at) != color) {
+        run = 0;
+      }
+      this.runs[dir] = run;
+      total += run;
+    }
+    return total;
+  }
+
+  /**
+   * Places a piece of the given color on the tile with the given id and flips the sandwiches
+   * found by the last call to countFlips for that tile and color.
+   * @param id the id of the tile being played on.
+   * @param color the color of the piece being placed.
+   */
+  private void applyFlips(int id, ITile.State color) {
+    BoardLayout layout = this.board.layout();
+    int dirs = this.runs.length;
+    this.changedCount = 0;
+    for (int dir = 0; dir < dirs; dir++) {
+      int at = id;
+      for (int step = 0; step < this.runs[dir]; step++) {
+        at = this.neighbors[(at * dirs) + dir];
+        this.board.set(at, color);
+        this.hash ^= layout.flipKey(at);
+        this.changed[this.changedCount++] = at;
+      }
+    }
+    this.board.set(id, color);
+    this.hash ^= layout.key(id, color);
+    this.changed[this.changedCount++] = id;
+  }
+
+  /**
+   * Brings the sets of legal moves and the frontier up to date after the given tiles changed,
+   * whether by a move or by undoing one. The last of the tiles must be the one played on, which
+   * is the only tile whose emptiness changed, so only it and its neighbors can join or leave the
+   * frontier. A changed tile can only affect the legality of an empty tile whose line to it is
+   * filled with pieces, so only the first empty tile past each changed tile in every direction,
+   * and the played tile itself, are checked again.
+   * @param tiles the array holding the ids of the changed tiles.
+   * @param from the index of the first changed tile in the array.
+   * @param to the index just past the played tile in the array.
+   */
+  private void updateMoves(int[] tiles, int from, int to) {
+    if (!this.movesKnown) {
+      this.findAllMoves();
+      return;
+    }
+    int dirs = this.runs.length;
+    int placed = tiles[to - 1];
+    boolean emptied = this.board.get(placed) == ITile.State.NONE;
+    this.frontier.set(placed, emptied && this.touchesPiece(placed));
+    for (int dir = 0; dir < dirs; dir++) {
+      int next = this.neighbors[(placed * dirs) + dir];
+      if (next >= 0 && this.board.get(next) == ITile.State.NONE) {
+        this.frontier.set(next, this.touchesPiece(next));
+      }
+    }
+    int staleCount = 0;
+    if (emptied) {
+      this.marked[placed] = true;
+      this.stale[staleCount++] = placed;
+    }
+    for (int i = from; i < to; i++) {
+      int id = tiles[i];
+      for (int dir = 0; dir < dirs; dir++) {
+        int at = this.neighbors[(id * dirs) + dir];
+        while (at >= 0 && this.board.get(at) != ITile.State.NONE) {
+          at = this.neighbors[(at * dirs) + dir];
+        }
+        if (at >= 0 && !this.marked[at]) {
+          this.marked[at] = true;
+          this.stale[staleCount++] = at;
+        }
+      }
+    }
+    // a tile that was just played on is no longer a move for either color
+    if (!emptied) {
+      this.blackMoves.remove(placed);
+      this.whiteMoves.remove(placed);
+    }
+    for (int i = 0; i < staleCount; i++) {
+      int id = this.stale[i];
+      this.marked[id] = false;
+      this.blackMoves.set(id, this.countFlips(id, ITile.State.BLACK) > 0);
+      this.whiteMoves.set(id, this.countFlips(id, ITile.State.WHITE) > 0);
+    }
+  }
+
+  // Finds the frontier by checking every empty tile of the board, then the legal moves of both
+  // colors by checking every tile of the frontier, then the hash of the position.
+  private void findAllMoves() {
+    this.blackMoves.clear();
+    this.whiteMoves.clear();
+    this.frontier.clear();
+    for (int id = 0; id < this.board.size(); id++) {
+      if (this.board.get(id) == ITile.State.NONE && this.touchesPiece(id)) {
+        this.frontier.add(id);
+      }
+    }
+    for (int i = 0; i < this.frontier.size(); i++) {
+      int id = this.frontier.get(i);
+      this.blackMoves.set(id, this.countFlips(id, ITile.State.BLACK) > 0);
+      this.whiteMoves.set(id, this.countFlips(id, ITile.State.WHITE) > 0);
+    }
+    this.hash = this.board.layout().hashOf(this);
+    this.movesKnown = true;
+  }
+
+  // Returns whether the tile with the given id has a piece of either color next to it.
+  private boolean touchesPiece(int id) {
+    int dirs = this.runs.length;
+    for (int dir = 0; dir < dirs; dir++) {
+      int next = this.neighbors[(id * dirs) + dir];
+      if (next >= 0 && this.board.get(next) != ITile.State.NONE) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Finds the legal moves, the frontier and the hash, if they have not been found yet.
+  private void ensureKnown() {
+    if (!this.movesKnown) {
+      this.findAllMoves();
+    }
+  }
+
+  // Returns the set of legal moves of the given color, which must not be NONE.
+  private IdSet movesOf(ITile.State color) {
+    this.ensureKnown();
+    return color == ITile.State.BLACK ? this.blackMoves : this.whiteMoves;
+  }
+
+  @Override
+  public List<CubeCoord> getLegalMoves(ITile.State color) {
+    List<CubeCoord> out = new ArrayList<>();
+    if (color == ITile.State.NONE) {
+      return out;
+    }
+    IdSet moves = this.movesOf(color);
+    for (int i = 0; i < moves.size(); i++) {
+      int id = moves.get(i);
+      out.add(this.board.layout().coord(id));
+    }
+    return out;
+  }
+
+  @Override
+  public int getLegalMoves(ITile.State color, int[] out) {
+    if (color == ITile.State.NONE) {
+      return 0;
+    }
+    IdSet moves = this.movesOf(color);
+    for (int i = 0; i < moves.size(); i++) {
+      out[i] = moves.get(i);
+    }
+    return moves.size();
+  }
+
+  @Override
+  public int countLegalMoves(ITile.State color) {
+    if (color == ITile.State.NONE) {
+      return 0;
+    }
+    return this.movesOf(color).size();
+  }
+
+  @Override
+  public long getHash() {
+    this.ensureKnown();
+    return this.hash;
+  }
+
+  @Override
+  public List<CubeCoord> getFrontier() {
+    this.ensureKnown();
+    List<CubeCoord> out = new ArrayList<>();
+    for (int i = 0; i < this.frontier.size(); i++) {
+      int id = this.frontier.get(i);
+      out.add(this.board.layout().coord(id));
+    }
+    return out;
+  }
+
+  @Override
+  public int flipCount(CubeCoord cube, ITile.State color) {
+    return this.flipCount(this.board.layout().id(cube), color);
+  }
+
+  @Override
+  public int flipCount(int id, ITile.State color) {
+    if (id < 0 || id >= this.board.size() || color == ITile.State.NONE
+            || this.board.get(id) != ITile.State.NONE) {
+      return ILLEGAL_MOVE;
+    }
+    int flips = this.countFlips(id, color);
+    return flips > 0 ? flips : ILLEGAL_MOVE;
+  }
+
   /**
    * Returns a list of all tiles that would be affected by a piece placed at the given coordinates.
    *
@@ -165,7 +597,7 @@ public abstract class AReversi implements IReversi {
   protected List<ITile> moveResults(CubeCoord cube, ITile.State moveColor) {
     int r = cube.getAsRow(this.buffer);
     int c = cube.getAsCol(this.buffer);
-    if (!this.validTile(r, c) || this.board[r][c].getState() != ITile.State.NONE) {
+    if (!this.validTile(r, c) || this.board.get(r, c) != ITile.State.NONE) {
       throw new IllegalArgumentException("Invalid tile position.");
     }
     // gets the color of tile that would be flipped
@@ -185,7 +617,7 @@ public abstract class AReversi implements IReversi {
       }
     }
     // adds the tile being placed to the list of affected tiles
-    toFlip.add(this.board[r][c]);
+    toFlip.add(this.board.tile(this.board.id(r, c)));
     return toFlip;
   }
 
@@ -203,21 +635,21 @@ public abstract class AReversi implements IReversi {
     List<ITile> toFlip = new ArrayList<>();
     // keep going until you hit a tile of the given color
     while (c >= 0 && r >= 0 &&
-            c <= (this.board.length - 1) && r <= (this.board.length - 1)) {
+            c <= (this.board.width() - 1) && r <= (this.board.width() - 1)) {
       c += dirc;
       r += dirr;
       // if the next tile in the given direction exists:
       if (this.validTile(r, c)) {
-        ITile tile = this.board[r][c];
+        ITile.State state = this.board.get(r, c);
         // if it is the color we are searching for, the sandwich is complete
-        if (tile.getState() == endState) {
+        if (state == endState) {
           return toFlip;
           // if it is an empty tile, no sandwich exists in that direction
-        } else if (tile.getState() == ITile.State.NONE) {
+        } else if (state == ITile.State.NONE) {
           break;
         }
         // otherwise add the tile to the list of affected and keep searching for the end
-        toFlip.add(tile);
+        toFlip.add(this.board.tile(this.board.id(r, c)));
       }
     }
     // if the edge is reached without hitting a tile, return empty list.
@@ -226,58 +658,75 @@ public abstract class AReversi implements IReversi {
 
   @Override
   public int calcScore(ITile.State color) {
-    int score = 0;
-    // iterate over the entire board
-    for (int r = 0; r < board.length; r++) {
-      for (int c = 0; c < board.length; c++) {
-        // if the tile exists and is the color being searched for, increase score
-        try {
-          if (this.board[r][c].getState() == color) {
-            score++;
-          }
-        } catch (NullPointerException e) {
-          // do nothing, tile doesnt exist
-        }
-      }
+    // the board keeps its piece counts up to date as tiles change, so nothing is scanned
+    int score = this.board.count(color);
+    if (this.checkCounts && score != this.board.scan(color)) {
+      throw new IllegalStateException("Piece count for " + color + " is out of date.");
     }
     return score;
   }
 
+  /**
+   * Turns on or off a consistency check for testing, in which every call to calcScore also
+   * counts the pieces of the board one by one and throws if the running count disagrees.
+   * @param check whether scores should be checked.
+   */
+  void setCountChecks(boolean check) {
+    this.checkCounts = check;
+  }
+
   @Override
   public ITile.State getStateAt(CubeCoord cube) throws IllegalArgumentException {
     int r = cube.getAsRow(this.buffer);
     int c = cube.getAsCol(this.buffer);
     if (this.validTile(r, c)) {
-      return this.board[r][c].getState();
+      return this.board.get(r, c);
     }
     throw new IllegalArgumentException("No tile there.");
   }
 
+  @Override
+  public ITile.State getStateAt(int id) throws IllegalArgumentException {
+    if (id < 0 || id >= this.board.size()) {
+      throw new IllegalArgumentException("No tile there.");
+    }
+    return this.board.get(id);
+  }
+
+  @Override
+  public BoardLayout getLayout() {
+    return this.board.layout();
+  }
+
+  @Override
+  public ITile[][] duplicate() {
+    // copying the bytes is enough to detach the copy from this game
+    return this.board.copy().toArray();
+  }
+
   @Override
   public boolean isLegalMove(CubeCoord move, ITile.State color) {
-    try {
-      return this.returnResultsOfMove(move, color).size() > 1;
-    } catch (IllegalStateException e) {
+    return this.flipCount(move, color) > 0;
+  }
+
+  @Override
+  public boolean isLegalMove(int id, ITile.State color) {
+    if (id < 0 || id >= this.board.size() || color == ITile.State.NONE) {
       return false;
     }
+    return this.movesOf(color).contains(id);
   }
 
   @Override
   public boolean hasMoves(ITile.State color) {
-    for (int r = 0; r < this.board.length; r++) {
-      for (int c = 0; c < this.board.length; c++) {
-        // check if there is a valid move at that location
-        try {
-          CubeCoord location = new CubeCoord(r, c, this.buffer, true);
-          if (this.isLegalMove(location, color)) {
-            return true;
-          }
-        } catch (Exception ignored) {
-          // exception means move is invalid
-        }
-      }
-    }
-    return false;
+    return this.countLegalMoves(color) > 0;
+  }
+
+  @Override
+  public Boolean gameOver() {
+    // the game is over when neither color has a legal move left
+    return this.countLegalMoves(ITile.State.WHITE) == 0
+            && this.countLegalMoves(ITile.State.BLACK) == 0;
   }
 
   // Returns the opposite of the given color (black -> white, white -> black).
@@ -301,8 +750,7 @@ public abstract class AReversi implements IReversi {
    * @return whether the coordinates are valid
    */
   protected boolean validTile(int r, int c) {
-    return !(c < 0 || r < 0 || c >= this.board.length || r >= this.board.length
-        || (c + r < (this.buffer - 1)) || (c + r >= (2 * this.board.length) - this.buffer));
+    return this.board.id(r, c) >= 0;
   }
 
   /**
@@ -321,7 +769,7 @@ public abstract class AReversi implements IReversi {
       int cloc = c + this.cneighbors.get(num);
       int rloc = r + this.rneighbors.get(num);
       // if there is a tile of the needed color there, add its neighbor index to the output
-      if (this.validTile(rloc, cloc) && this.board[rloc][cloc].getState() == color) {
+      if (this.validTile(rloc, cloc) && this.board.get(rloc, cloc) == color) {
         out.add(num);
       }
     }
@@ -0,0 +1,100 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents a game of hexagonal Reversi stored as bitboards. Plays by exactly the same rules as
+ * HexReversi and uses the same cubic coordinates. The axial q/r grid is laid out as the same
+ * (2*size)-1 by (2*size)-1 array used by HexReversi, with the buffer spaces kept as bits that are
+ * never set, so each of the six hex directions is a fixed shift: 1 along a row, the row width
+ * along a column, and the row width - 1 along the remaining diagonal. Boards up to size 4 fit in
+ * a single 64-bit word per color; larger boards use an array of words.
+ */
+public class BitboardHexReversi extends ABitboardReversi {
+
+  /**
+   * Constructs a game of hexagonal Reversi.
+   *
+   * @param size the number of rings of tiles of the board.
+   * @throws IllegalArgumentException if the size is less than 2.
+   */
+  public BitboardHexReversi(int size) {
+    super(BoardLayout.hex(size), new int[] {-1, -1, 0, 1, 1, 0},
+            new int[] {0, 1, 1, 0, -1, -1});
+    this.makeInitialRing();
+  }
+
+  /**
+   * Constructs a game of hexagonal Reversi with the given board and turn state.
+   * @param board the current board, in the 2D array state used by HexReversi.
+   * @param whoseTurn which colors turn it is
+   */
+  public BitboardHexReversi(ITile[][] board, ITile.State whoseTurn) {
+    super(BoardLayout.hex((Objects.requireNonNull(board).length + 1) / 2),
+            new int[] {-1, -1, 0, 1, 1, 0}, new int[] {0, 1, 1, 0, -1, -1});
+    this.load(board, whoseTurn);
+  }
+
+  // Constructs a copy of the given game for a search.
+  protected BitboardHexReversi(BitboardHexReversi other) {
+    super(other);
+  }
+
+  @Override
+  public ISearchableReversi copyForSearch() {
+    return new BitboardHexReversi(this);
+  }
+
+  /**
+   * Sets up a ring of 6 game pieces in the second ring of the board, starting at the top left
+   * neighbor of the center tile and moving clockwise, as in HexReversi.
+   */
+  private void makeInitialRing() {
+    int center = (this.width / 2);
+    this.place(center - 1, center, ITile.State.BLACK);
+    this.place(center - 1, center + 1, ITile.State.WHITE);
+    this.place(center, center + 1, ITile.State.BLACK);
+    this.place(center + 1, center, ITile.State.WHITE);
+    this.place(center + 1, center - 1, ITile.State.BLACK);
+    this.place(center, center - 1, ITile.State.WHITE);
+  }
+
+  @Override
+  public boolean isHex() {
+    return true;
+  }
+
+  @Override
+  public int getBoardSize() {
+    return this.buffer;
+  }
+
+  @Override
+  public List<CubeCoord> getEmptyTiles() {
+    BoardLayout layout = this.getLayout();
+    List<CubeCoord> validMoves = new ArrayList<>();
+    // ids count row by row, so this is the same order as walking r and then q
+    for (int id = 0; id < layout.size(); id++) {
+      if (this.stateOf(this.bitAt(layout.row(id), layout.col(id))) == ITile.State.NONE) {
+        validMoves.add(layout.coord(id));
+      }
+    }
+    return validMoves;
+  }
+
+  @Override
+  public List<CubeCoord> getCorners() {
+    List<CubeCoord> corners = new ArrayList<>();
+    int max = this.getBoardSize() - 1;
+    int neg = -1 * max;
+    corners.add(new CubeCoord(0, neg, max, false));
+    corners.add(new CubeCoord(0, max, neg, false));
+    corners.add(new CubeCoord(neg, 0, max, false));
+    corners.add(new CubeCoord(max, 0, neg, false));
+    corners.add(new CubeCoord(neg, max, 0, false));
+    corners.add(new CubeCoord(max, neg, 0, false));
+    return corners;
+  }
+}
@@ -0,0 +1,90 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents a standard game of Reversi on a square board, stored as bitboards. Plays by exactly
+ * the same rules as SquareReversi and uses the same coordinates, but boards up to 8x8 keep each
+ * color in a single 64-bit word, and larger boards keep each color in an array of words packed
+ * row by row.
+ */
+public class BitboardSquareReversi extends ABitboardReversi {
+
+  /**
+   * Constructs a square game of Reversi with the given size. The size must be an even number.
+   * @param size the size of the board.
+   * @throws IllegalArgumentException if the size is not an even number greater than 1.
+   */
+  public BitboardSquareReversi(int size) {
+    super(BoardLayout.square(size), new int[] {-1, 0, 1, 1, 1, 0, -1, -1},
+            new int[] {1, 1, 1, 0, -1, -1, -1, 0});
+    this.startupTiles();
+  }
+
+  /**
+   * Constructs a square game of Reversi with the given board and turn state.
+   * @param board the current board, in the 2D array state used by SquareReversi.
+   * @param whoseTurn which colors turn it is
+   * @throws IllegalArgumentException if the board is not a valid size.
+   */
+  public BitboardSquareReversi(ITile[][] board, ITile.State whoseTurn) {
+    super(BoardLayout.square(Objects.requireNonNull(board).length),
+            new int[] {-1, 0, 1, 1, 1, 0, -1, -1}, new int[] {1, 1, 1, 0, -1, -1, -1, 0});
+    this.load(board, whoseTurn);
+  }
+
+  // Constructs a copy of the given game for a search.
+  protected BitboardSquareReversi(BitboardSquareReversi other) {
+    super(other);
+  }
+
+  @Override
+  public ISearchableReversi copyForSearch() {
+    return new BitboardSquareReversi(this);
+  }
+
+  // adds the four tiles at the center of the board needed for a new game.
+  private void startupTiles() {
+    int center = (this.width / 2) - 1;
+    this.place(center, center, ITile.State.BLACK);
+    this.place(center, center + 1, ITile.State.WHITE);
+    this.place(center + 1, center, ITile.State.WHITE);
+    this.place(center + 1, center + 1, ITile.State.BLACK);
+  }
+
+  @Override
+  public int getBoardSize() {
+    return this.width;
+  }
+
+  @Override
+  public boolean isHex() {
+    return false;
+  }
+
+  @Override
+  public List<CubeCoord> getEmptyTiles() {
+    List<CubeCoord> validMoves = new ArrayList<>();
+    for (int r = 0; r < this.width; r++) {
+      for (int q = 0; q < this.width; q++) {
+        if (this.stateOf(this.bitAt(q, r)) == ITile.State.NONE) {
+          validMoves.add(this.getLayout().coord(this.getLayout().id(q, r)));
+        }
+      }
+    }
+    return validMoves;
+  }
+
+  @Override
+  public List<CubeCoord> getCorners() {
+    List<CubeCoord> corners = new ArrayList<>();
+    int max = this.getBoardSize() - 1;
+    corners.add(new CubeCoord(0, 0, 1, false));
+    corners.add(new CubeCoord(0, max, 1, false));
+    corners.add(new CubeCoord(max, max, 1, false));
+    corners.add(new CubeCoord(max, 0, 1, false));
+    return corners;
+  }
+}
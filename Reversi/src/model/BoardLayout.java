@@ -0,0 +1,357 @@
+package model;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the fixed geometry of a board of one shape and size: which spaces of the 2D board
+ * representation are tiles, the dense int id given to each tile, and a single shared CubeCoord
+ * for each tile. Ids count row by row through the 2D representation, skipping buffer spaces, and
+ * are the ids used by ByteBoard and by the int-id methods of ReadOnlyReversi.
+ * Layouts never change after construction, so one instance of each shape and size is shared by
+ * every game, copy and view of that shape and size.
+ * Each layout also holds the random keys used to hash positions (Zobrist hashing): one key for
+ * each color on each tile, and one for black being the player to move. A position's hash is the
+ * exclusive or of the keys of its pieces and, if it is black's turn, the turn key. The keys are
+ * drawn from a fixed seed for each shape and size, so hashes are the same from run to run.
+ * A layout also knows the symmetries of its board, the rotations and reflections that map the
+ * board onto itself: 8 for a square board and 12 for a hexagonal one. Positions that are
+ * symmetries of each other share one canonical hash, the least of their hashes under every
+ * symmetry.
+ */
+public final class BoardLayout {
+
+  // The layouts already built, keyed by size.
+  private static final Map<Integer, BoardLayout> HEX_LAYOUTS = new ConcurrentHashMap<>();
+  private static final Map<Integer, BoardLayout> SQUARE_LAYOUTS = new ConcurrentHashMap<>();
+
+  // Whether the board is hexagonal.
+  private final boolean hex;
+
+  // The number of rows and columns of the 2D representation of the board.
+  private final int width;
+
+  // The number of excess spaces + 1 before the tiles begin in the first row of the board.
+  private final int buffer;
+
+  // The id of the tile at each (row * width) + column, or -1 for buffer spaces.
+  private final int[] ids;
+
+  // The row and column of each tile, indexed by id.
+  private final int[] rows;
+  private final int[] cols;
+
+  // The shared coordinates of each tile, indexed by id.
+  private final CubeCoord[] coords;
+
+  // The hash key of a black piece on each tile at (2 * id), and of a white piece at (2 * id) + 1.
+  private final long[] keys;
+
+  // The hash key of black being the player to move.
+  private final long turnKey;
+
+  // The id of the tile each tile is moved to by each symmetry of the board, and the id of the
+  // tile moved onto each tile, indexed by symmetry and then by id. Symmetry 0 is the identity.
+  private final int[][] images;
+  private final int[][] preimages;
+
+  // Builds the layout of a board whose 2D representation is width by width, where the spaces for
+  // which (r + c) falls outside the range given by the buffer are not tiles.
+  private BoardLayout(boolean hex, int width, int buffer) {
+    this.hex = hex;
+    this.width = width;
+    this.buffer = buffer;
+    this.ids = new int[width * width];
+    int count = 0;
+    for (int r = 0; r < width; r++) {
+      for (int c = 0; c < width; c++) {
+        boolean exists = (c + r >= (buffer - 1)) && (c + r < (2 * width) - buffer);
+        this.ids[(r * width) + c] = exists ? count++ : -1;
+      }
+    }
+    this.rows = new int[count];
+    this.cols = new int[count];
+    this.coords = new CubeCoord[count];
+    for (int loc = 0; loc < this.ids.length; loc++) {
+      int id = this.ids[loc];
+      if (id >= 0) {
+        this.rows[id] = loc / width;
+        this.cols[id] = loc % width;
+        this.coords[id] = new CubeCoord(this.rows[id], this.cols[id], buffer, true);
+      }
+    }
+    SplittableRandom keyGen = new SplittableRandom((hex ? 0x6865780000L : 0x7371750000L) + width);
+    this.keys = new long[2 * count];
+    for (int key = 0; key < this.keys.length; key++) {
+      this.keys[key] = keyGen.nextLong();
+    }
+    this.turnKey = keyGen.nextLong();
+    this.images = new int[hex ? 12 : 8][count];
+    this.preimages = new int[this.images.length][count];
+    for (int sym = 0; sym < this.images.length; sym++) {
+      for (int id = 0; id < count; id++) {
+        int image = hex ? this.hexImage(sym, id) : this.squareImage(sym, id);
+        this.images[sym][id] = image;
+        this.preimages[sym][image] = id;
+      }
+    }
+  }
+
+  // Returns the tile the given tile of a hexagonal board is moved to by the given symmetry: a
+  // rotation by (sym / 2) sixths of a turn, after a reflection across the q axis if sym is odd.
+  private int hexImage(int sym, int id) {
+    CubeCoord here = this.coords[id];
+    int q = here.getQ();
+    int r = here.getR();
+    int s = here.getS();
+    if (sym % 2 == 1) {
+      int swap = r;
+      r = s;
+      s = swap;
+    }
+    for (int turn = 0; turn < sym / 2; turn++) {
+      int oldQ = q;
+      q = -r;
+      r = -s;
+      s = -oldQ;
+    }
+    return this.id(new CubeCoord(q, r, s, false));
+  }
+
+  // Returns the tile the given tile of a square board is moved to by the given symmetry: a
+  // rotation by (sym / 2) quarters of a turn, after a reflection across the vertical axis if
+  // sym is odd.
+  private int squareImage(int sym, int id) {
+    int last = this.width - 1;
+    int r = this.rows[id];
+    int c = sym % 2 == 1 ? last - this.cols[id] : this.cols[id];
+    for (int turn = 0; turn < sym / 2; turn++) {
+      int oldR = r;
+      r = c;
+      c = last - oldR;
+    }
+    return this.id(r, c);
+  }
+
+  /**
+   * Returns the layout of a hexagonal board with the given number of rings.
+   * @param size the number of rings of the board.
+   * @return the shared layout.
+   * @throws IllegalArgumentException if the size is less than 2.
+   */
+  public static BoardLayout hex(int size) throws IllegalArgumentException {
+    if (size <= 1) {
+      throw new IllegalArgumentException("Invalid board size.");
+    }
+    return HEX_LAYOUTS.computeIfAbsent(size, s -> new BoardLayout(true, (2 * s) - 1, s));
+  }
+
+  /**
+   * Returns the layout of a square board with the given side length.
+   * @param size the number of rows and columns of the board, which must be even.
+   * @return the shared layout.
+   * @throws IllegalArgumentException if the size is not an even number greater than 1.
+   */
+  public static BoardLayout square(int size) throws IllegalArgumentException {
+    if (size <= 1 || size % 2 != 0) {
+      throw new IllegalArgumentException("Invalid board size.");
+    }
+    return SQUARE_LAYOUTS.computeIfAbsent(size, s -> new BoardLayout(false, s, 1));
+  }
+
+  /**
+   * Returns whether this is the layout of a hexagonal board.
+   * @return true if the board is hexagonal, false if it is square.
+   */
+  public boolean isHex() {
+    return this.hex;
+  }
+
+  /**
+   * Returns the number of tiles on the board, which is one more than the largest id.
+   * @return the number of tiles.
+   */
+  public int size() {
+    return this.rows.length;
+  }
+
+  /**
+   * Returns the number of rows and columns of the 2D representation of the board.
+   * @return the width of the 2D representation.
+   */
+  public int width() {
+    return this.width;
+  }
+
+  /**
+   * Returns the buffer of the 2D representation of the board, as given by ReadOnlyReversi.
+   * @return the buffer.
+   */
+  public int buffer() {
+    return this.buffer;
+  }
+
+  /**
+   * Returns the id of the tile at the given row and column of the 2D representation.
+   * @param r the row.
+   * @param c the column.
+   * @return the id, or -1 if there is no tile there.
+   */
+  public int id(int r, int c) {
+    if (r < 0 || c < 0 || r >= this.width || c >= this.width) {
+      return -1;
+    }
+    return this.ids[(r * this.width) + c];
+  }
+
+  /**
+   * Returns the id of the tile at the given coordinates.
+   * @param cube the cubic coordinates of the tile.
+   * @return the id, or -1 if there is no tile there.
+   */
+  public int id(CubeCoord cube) {
+    return this.id(cube.getAsRow(this.buffer), cube.getAsCol(this.buffer));
+  }
+
+  /**
+   * Returns the shared coordinates of the tile with the given id.
+   * @param id the id of the tile.
+   * @return the coordinates of the tile.
+   */
+  public CubeCoord coord(int id) {
+    return this.coords[id];
+  }
+
+  /**
+   * Returns the row of the 2D representation holding the tile with the given id.
+   * @param id the id of the tile.
+   * @return the row.
+   */
+  public int row(int id) {
+    return this.rows[id];
+  }
+
+  /**
+   * Returns the column of the 2D representation holding the tile with the given id.
+   * @param id the id of the tile.
+   * @return the column.
+   */
+  public int col(int id) {
+    return this.cols[id];
+  }
+
+  /**
+   * Returns the hash key of a piece of the given color on the tile with the given id.
+   * @param id the id of the tile.
+   * @param color the color of the piece.
+   * @return the key, which is 0 for NONE.
+   */
+  public long key(int id, ITile.State color) {
+    switch (color) {
+      case BLACK:
+        return this.keys[2 * id];
+      case WHITE:
+        return this.keys[(2 * id) + 1];
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Returns what a hash changes by when the piece on the tile with the given id is flipped, which
+   * is the same whichever color it is flipped to.
+   * @param id the id of the tile.
+   * @return the exclusive or of the tile's black and white keys.
+   */
+  public long flipKey(int id) {
+    return this.keys[2 * id] ^ this.keys[(2 * id) + 1];
+  }
+
+  /**
+   * Returns the hash key of black being the player to move.
+   * @return the turn key.
+   */
+  public long turnKey() {
+    return this.turnKey;
+  }
+
+  /**
+   * Returns the number of symmetries of the board, including the identity.
+   * @return 12 for a hexagonal board, or 8 for a square one.
+   */
+  public int symmetries() {
+    return this.images.length;
+  }
+
+  /**
+   * Returns the tile the given tile is moved to by the given symmetry of the board.
+   * @param symmetry the symmetry, from 0 (the identity) to symmetries() - 1.
+   * @param id the id of the tile.
+   * @return the id of the tile it is moved to.
+   */
+  public int image(int symmetry, int id) {
+    return this.images[symmetry][id];
+  }
+
+  /**
+   * Returns the tile moved onto the given tile by the given symmetry of the board, undoing
+   * image.
+   * @param symmetry the symmetry, from 0 (the identity) to symmetries() - 1.
+   * @param id the id of the tile.
+   * @return the id of the tile moved onto it.
+   */
+  public int preimage(int symmetry, int id) {
+    return this.preimages[symmetry][id];
+  }
+
+  /**
+   * Computes the hash the given game's position would have if every piece were moved by the
+   * given symmetry of the board. The game must have this layout.
+   * @param game the game being hashed.
+   * @param symmetry the symmetry, from 0 (the identity) to symmetries() - 1.
+   * @return the hash of the moved position.
+   */
+  public long hashOf(ReadOnlyReversi game, int symmetry) {
+    int[] image = this.images[symmetry];
+    long hash = game.getActiveTurn() == ITile.State.BLACK ? this.turnKey : 0;
+    for (int id = 0; id < this.size(); id++) {
+      hash ^= this.key(image[id], game.getStateAt(id));
+    }
+    return hash;
+  }
+
+  /**
+   * Returns the symmetry of the board under which the given game's position has its canonical
+   * hash, the least of its hashes under every symmetry. Positions that are symmetries of each
+   * other have the same canonical hash. The game must have this layout.
+   * @param game the game being hashed.
+   * @return the symmetry giving the least hash, the lowest if several do.
+   */
+  public int canonicalSymmetry(ReadOnlyReversi game) {
+    int best = 0;
+    long least = this.hashOf(game, 0);
+    for (int sym = 1; sym < this.images.length; sym++) {
+      long hash = this.hashOf(game, sym);
+      if (hash < least) {
+        least = hash;
+        best = sym;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Computes the hash of the given game's position from scratch, by combining the keys of every
+   * piece on its board and of the player to move. The game must have this layout.
+   * @param game the game being hashed.
+   * @return the hash of the game's position.
+   */
+  public long hashOf(ReadOnlyReversi game) {
+    long hash = game.getActiveTurn() == ITile.State.BLACK ? this.turnKey : 0;
+    for (int id = 0; id < this.size(); id++) {
+      hash ^= this.key(id, game.getStateAt(id));
+    }
+    return hash;
+  }
+}
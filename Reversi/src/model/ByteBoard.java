@@ -0,0 +1,201 @@
+package model;
+
+/**
+ * Represents the tiles of a Reversi board as a flat array of bytes, one per tile, rather than as
+ * a 2D array of tile objects. Each tile's byte is found by the tile's dense id, as given by the
+ * board's BoardLayout. Layouts never change, so copies of a board share one and only copy the
+ * bytes. ITiles are only created as lightweight views of a single byte, for callers that need
+ * them. The number of tiles in each state is kept up to date as tiles are set, so it never needs
+ * to be counted.
+ */
+final class ByteBoard {
+
+  // The byte stored for each state.
+  private static final byte NONE = 0;
+  private static final byte BLACK = 1;
+  private static final byte WHITE = 2;
+
+  // The state represented by each byte, indexed by the byte.
+  private static final ITile.State[] STATES = {ITile.State.NONE, ITile.State.BLACK,
+      ITile.State.WHITE};
+
+  // The geometry of the board, giving the id of each tile.
+  private final BoardLayout layout;
+
+  // The state of each tile, indexed by id.
+  private final byte[] states;
+
+  // The number of tiles in each state, indexed by the state's byte.
+  private final int[] counts;
+
+  /**
+   * Constructs an empty board with the given layout.
+   * @param layout the geometry of the board.
+   */
+  ByteBoard(BoardLayout layout) {
+    this.layout = layout;
+    this.states = new byte[layout.size()];
+    this.counts = new int[STATES.length];
+    this.counts[NONE] = layout.size();
+  }
+
+  // Constructs a copy of the given board, sharing its layout.
+  private ByteBoard(ByteBoard other) {
+    this.layout = other.layout;
+    this.states = other.states.clone();
+    this.counts = other.counts.clone();
+  }
+
+  /**
+   * Constructs a board holding the states of the given 2D array of tiles.
+   * @param tiles the board state, with null at every buffer space.
+   * @param layout the geometry of the board, which must match the array.
+   * @return the new board.
+   */
+  static ByteBoard from(ITile[][] tiles, BoardLayout layout) {
+    ByteBoard out = new ByteBoard(layout);
+    for (int id = 0; id < out.size(); id++) {
+      out.set(id, tiles[layout.row(id)][layout.col(id)].getState());
+    }
+    return out;
+  }
+
+  /**
+   * Returns a copy of this board. Only the state bytes are copied.
+   * @return the copy.
+   */
+  ByteBoard copy() {
+    return new ByteBoard(this);
+  }
+
+  // Returns the geometry of this board.
+  BoardLayout layout() {
+    return this.layout;
+  }
+
+  // Returns the number of rows and columns of the 2D representation of this board.
+  int width() {
+    return this.layout.width();
+  }
+
+  // Returns the number of tiles on this board.
+  int size() {
+    return this.states.length;
+  }
+
+  // Returns the id of the tile at the given row and column, or -1 if there is no tile there.
+  int id(int r, int c) {
+    return this.layout.id(r, c);
+  }
+
+  // Returns the row of the tile with the given id.
+  int row(int id) {
+    return this.layout.row(id);
+  }
+
+  // Returns the column of the tile with the given id.
+  int col(int id) {
+    return this.layout.col(id);
+  }
+
+  // Returns the state of the tile with the given id.
+  ITile.State get(int id) {
+    return STATES[this.states[id]];
+  }
+
+  // Returns the state of the tile at the given row and column, which must exist.
+  ITile.State get(int r, int c) {
+    return this.get(this.layout.id(r, c));
+  }
+
+  // Sets the state of the tile with the given id, updating the counts of both states involved.
+  void set(int id, ITile.State state) {
+    byte next = toByte(state);
+    this.counts[this.states[id]]--;
+    this.counts[next]++;
+    this.states[id] = next;
+  }
+
+  // Sets the state of the tile at the given row and column, which must exist.
+  void set(int r, int c, ITile.State state) {
+    this.set(this.layout.id(r, c), state);
+  }
+
+  // Returns the number of tiles in the given state, as kept up to date by set.
+  int count(ITile.State state) {
+    return this.counts[toByte(state)];
+  }
+
+  // Returns the number of tiles in the given state by checking every tile.
+  int scan(ITile.State state) {
+    byte wanted = toByte(state);
+    int found = 0;
+    for (byte tile : this.states) {
+      if (tile == wanted) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Returns an ITile that reads and writes the tile with the given id of this board.
+   * @param id the id of the tile.
+   * @return a view of the tile.
+   */
+  ITile tile(int id) {
+    return new TileView(this, id);
+  }
+
+  /**
+   * Returns this board in its 2D array state, as views of this board's tiles, with null at every
+   * buffer space.
+   * @return the 2D array of tiles.
+   */
+  ITile[][] toArray() {
+    ITile[][] out = new ITile[this.width()][this.width()];
+    for (int id = 0; id < this.size(); id++) {
+      out[this.row(id)][this.col(id)] = this.tile(id);
+    }
+    return out;
+  }
+
+  // Returns the byte representing the given state.
+  private static byte toByte(ITile.State state) {
+    switch (state) {
+      case BLACK:
+        return BLACK;
+      case WHITE:
+        return WHITE;
+      default:
+        return NONE;
+    }
+  }
+
+  /**
+   * Represents a single tile of a ByteBoard. Holds no state of its own.
+   */
+  private static final class TileView implements ITile {
+
+    // The board holding this tile's state.
+    private final ByteBoard board;
+
+    // The id of this tile on its board.
+    private final int id;
+
+    private TileView(ByteBoard board, int id) {
+      this.board = board;
+      this.id = id;
+    }
+
+    @Override
+    public State getState() {
+      return this.board.get(this.id);
+    }
+
+    @Override
+    public void setState(State newState) {
+      this.board.set(this.id, newState);
+    }
+  }
+}
@@ -112,20 +112,7 @@ public class CubeCoord {
 
   @Override
   public int hashCode() {
-    StringBuilder num = new StringBuilder();
-    appendNum(this.q, num);
-    appendNum(this.r, num);
-    appendNum(this.s, num);
-    return Integer.parseInt(num.toString());
+    // arithmetic rather than built from strings, so that hashing never allocates
+    return (((this.q * 31) + this.r) * 31) + this.s;
   }
-
-  // Squares the given value if it is negative, then appends it to the given string builder.
-  private void appendNum(int val, StringBuilder sb) {
-    if (val < 0) {
-      sb.append(val * val);
-    } else {
-      sb.append(val);
-    }
-  }
-
 }
\ No newline at end of file
@@ -26,7 +26,6 @@ public class HexReversi extends AReversi {
    */
   public HexReversi(int size) {
     super(size);
-    this.fillWithTiles();
     this.makeInitialRing();
   }
 
@@ -39,18 +38,25 @@ public class HexReversi extends AReversi {
     super(board, whoseTurn);
   }
 
+  // Constructs a copy of the given game for a search.
+  protected HexReversi(HexReversi other) {
+    super(other);
+  }
+
   @Override
-  protected ITile[][] createValidBoard(int size) {
-    if (size <= 1) {
-      throw new IllegalArgumentException("Invalid board size.");
-    }
-    return new ITile[(2 * size) - 1][(2 * size) - 1];
+  public ISearchableReversi copyForSearch() {
+    return new HexReversi(this);
+  }
+
+  @Override
+  protected ByteBoard createValidBoard(int size) {
+    return new ByteBoard(BoardLayout.hex(size));
   }
 
   @Override
-  protected ITile[][] createValidBoard(ITile[][] madeBoard) {
+  protected ByteBoard createValidBoard(ITile[][] madeBoard) {
     Objects.requireNonNull(madeBoard);
-    return madeBoard;
+    return ByteBoard.from(madeBoard, BoardLayout.hex((madeBoard.length + 1) / 2));
   }
 
   @Override
@@ -69,21 +75,6 @@ public class HexReversi extends AReversi {
   }
 
 
-  /**
-   * Fills the board with empty tiles based on a 2D representation of a hex board.
-   */
-  private void fillWithTiles() {
-    // loops over all rows and columns
-    for (int r = 0; r < board.length; r++) {
-      for (int c = 0; c < board.length; c++) {
-        // determines whether the coordinates correspond to a buffer area
-        if ((r + c >= (this.buffer - 1)) && (r + c < (2 * this.board.length) - buffer)) {
-          this.board[r][c] = new HexTile();
-        }
-      }
-    }
-  }
-
   /**
    * Sets up a ring of 6 game pieces in the second ring of the board, starting at the top left
    * neighbor of the center tile and moving clockwise, as shown. Tiles alternate black and white.
@@ -92,65 +83,13 @@ public class HexReversi extends AReversi {
    *       X O
    */
   private void makeInitialRing() {
-    int center = (this.board.length / 2);
-    this.board[center - 1][center].setState(ITile.State.BLACK);
-    this.board[center - 1][center + 1].setState(ITile.State.WHITE);
-    this.board[center][center + 1].setState(ITile.State.BLACK);
-    this.board[center + 1][center].setState(ITile.State.WHITE);
-    this.board[center + 1][center - 1].setState(ITile.State.BLACK);
-    this.board[center][center - 1].setState(ITile.State.WHITE);
-  }
-
-  @Override
-  public Boolean gameOver() {
-    List<ITile> tiles;
-    // iterate over all tiles
-    for (int r = 0; r < board.length; r++) {
-      for (int c = 0; c < board.length; c++) {
-        // only take tiles that exist and are empty
-        if ((r + c >= (this.buffer - 1))
-                && (r + c < (2 * this.board.length) - buffer)
-                && this.getStateAt(new CubeCoord(r, c, this.buffer, true))
-                    == ITile.State.NONE) {
-          CubeCoord cube = new CubeCoord(r, c, this.buffer, true);
-          // check the results of a valid white move, and catch if it is an invalid move
-          try {
-            tiles = this.returnResultsOfMove(cube, ITile.State.WHITE);
-            if (tiles.size() > 1) {
-              return false;
-            }
-          } catch (IllegalStateException | IllegalArgumentException e) {
-            // do nothing - exception means there is no valid white move at this tile.
-          }
-          // check the results of a valid black move, and catch if it is an invalid move
-          try {
-            tiles = this.returnResultsOfMove(cube, ITile.State.BLACK);
-            if (tiles.size() > 1) {
-              return false;
-            }
-          } catch (IllegalStateException | IllegalArgumentException e) {
-            // do nothing - exception means there is no valid black move at this tile.
-          }
-        }
-      }
-    }
-    // if no moves found, return true for game over.
-    return true;
-  }
-
-  @Override
-  public ITile[][] duplicate() {
-    ITile[][] copy = new ITile[(2 * this.buffer) - 1][(2 * this.buffer) - 1];
-    for (int r = 0; r < copy.length; r++) {
-      for (int c = 0; c < copy.length; c++) {
-        // determines whether the coordinates correspond to a buffer area
-        if ((r + c >= (this.buffer - 1)) && (r + c < (2 * copy.length) - buffer)) {
-          CubeCoord location = new CubeCoord(r, c, this.buffer, true);
-          copy[r][c] = new HexTile(this.getStateAt(location));
-        }
-      }
-    }
-    return copy;
+    int center = (this.board.width() / 2);
+    this.board.set(center - 1, center, ITile.State.BLACK);
+    this.board.set(center - 1, center + 1, ITile.State.WHITE);
+    this.board.set(center, center + 1, ITile.State.BLACK);
+    this.board.set(center + 1, center, ITile.State.WHITE);
+    this.board.set(center + 1, center - 1, ITile.State.BLACK);
+    this.board.set(center, center - 1, ITile.State.WHITE);
   }
 
   @Override
@@ -179,7 +118,7 @@ public class HexReversi extends AReversi {
       int cloc = c + this.cneighbors.get(num);
       int rloc = r + this.rneighbors.get(num);
       // if there is a tile of the needed color there, add its neighbor index to the output
-      if (this.validTile(rloc, cloc) && this.board[rloc][cloc].getState() == color) {
+      if (this.validTile(rloc, cloc) && this.board.get(rloc, cloc) == color) {
         out.add(num);
       }
     }
@@ -188,17 +127,11 @@ public class HexReversi extends AReversi {
 
   @Override
   public List<CubeCoord> getEmptyTiles() {
-    int size = this.getBoardSize();
     List<CubeCoord> validMoves = new ArrayList<>();
-    for (int r = -size + 1; r < size; r++) {
-      for (int q = -size + 1; q < size; q++) {
-        int s = 0 - r - q;
-        if (Math.abs(s) <= size - 1) {
-          CubeCoord here = new CubeCoord(q, r, s, false);
-          if (this.getStateAt(here) == ITile.State.NONE) {
-            validMoves.add(here);
-          }
-        }
+    // ids count row by row, so this is the same order as walking r and then q
+    for (int id = 0; id < this.board.size(); id++) {
+      if (this.board.get(id) == ITile.State.NONE) {
+        validMoves.add(this.board.layout().coord(id));
       }
     }
     return validMoves;
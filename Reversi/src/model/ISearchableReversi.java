@@ -0,0 +1,47 @@
+package model;
+
+/**
+ * Represents a game of Reversi that a search can walk forwards and backwards through, one move at
+ * a time, on a single board. Every move and pass made can be undone in reverse order, which puts
+ * back the board, the turn, the scores and the legal moves exactly as they were. Nothing is
+ * allocated once the undo stack has grown to the depth of the search, and no listeners are told
+ * of any move, so a search copy can be walked through millions of positions.
+ */
+public interface ISearchableReversi extends ReadOnlyReversi {
+
+  /**
+   * Places a piece of the given color on the tile with the given id, flipping every sandwiched
+   * piece, and remembers the move so that it can be undone.
+   * @param id the id of the tile, as given by getLayout.
+   * @param color the color of the piece being placed, whose turn it must be.
+   * @throws IllegalArgumentException if it is not the given color's turn, or the move is not
+   *         one of that color's legal moves.
+   */
+  void makeMove(int id, ITile.State color) throws IllegalArgumentException;
+
+  /**
+   * Undoes the most recent move made by makeMove.
+   * @throws IllegalStateException if nothing has been made, or the most recent change was a
+   *         pass.
+   */
+  void unmakeMove() throws IllegalStateException;
+
+  /**
+   * Passes the turn to the other player, and remembers the pass so that it can be undone.
+   * @throws IllegalStateException if the last change was also a pass, which ends the game.
+   */
+  void makePass() throws IllegalStateException;
+
+  /**
+   * Undoes the most recent pass made by makePass.
+   * @throws IllegalStateException if nothing has been made, or the most recent change was a
+   *         move.
+   */
+  void unmakePass() throws IllegalStateException;
+
+  /**
+   * Returns the number of moves and passes made that have not been undone.
+   * @return the depth of the undo stack.
+   */
+  int getSearchDepth();
+}
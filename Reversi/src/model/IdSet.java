@@ -0,0 +1,90 @@
+package model;
+
+/**
+ * Represents a set of tile ids that can be added to, removed from, checked and listed in constant
+ * time without allocating. Members are kept in no particular order.
+ */
+final class IdSet {
+
+  // The ids in this set, packed at the front of the array.
+  private final int[] members;
+
+  // The index of each id in members, or -1 for ids not in this set.
+  private final int[] positions;
+
+  // The number of ids in this set.
+  private int size;
+
+  /**
+   * Constructs an empty set able to hold the ids 0 (inclusive) to capacity (exclusive).
+   * @param capacity the number of possible ids.
+   */
+  IdSet(int capacity) {
+    this.members = new int[capacity];
+    this.positions = new int[capacity];
+    for (int id = 0; id < capacity; id++) {
+      this.positions[id] = -1;
+    }
+    this.size = 0;
+  }
+
+  // Constructs a copy of the given set.
+  IdSet(IdSet other) {
+    this.members = other.members.clone();
+    this.positions = other.positions.clone();
+    this.size = other.size;
+  }
+
+  // Returns whether the given id is in this set.
+  boolean contains(int id) {
+    return this.positions[id] >= 0;
+  }
+
+  // Adds the given id to this set, if it is not already there.
+  void add(int id) {
+    if (this.positions[id] < 0) {
+      this.positions[id] = this.size;
+      this.members[this.size] = id;
+      this.size++;
+    }
+  }
+
+  // Removes the given id from this set, if it is there, by moving the last member into its place.
+  void remove(int id) {
+    int at = this.positions[id];
+    if (at >= 0) {
+      this.size--;
+      int last = this.members[this.size];
+      this.members[at] = last;
+      this.positions[last] = at;
+      this.positions[id] = -1;
+    }
+  }
+
+  // Adds the given id if present is true, or removes it otherwise.
+  void set(int id, boolean present) {
+    if (present) {
+      this.add(id);
+    } else {
+      this.remove(id);
+    }
+  }
+
+  // Returns the number of ids in this set.
+  int size() {
+    return this.size;
+  }
+
+  // Returns the id at the given index, from 0 (inclusive) to size (exclusive).
+  int get(int index) {
+    return this.members[index];
+  }
+
+  // Removes every id from this set.
+  void clear() {
+    for (int index = 0; index < this.size; index++) {
+      this.positions[this.members[index]] = -1;
+    }
+    this.size = 0;
+  }
+}
@@ -9,6 +9,11 @@ import java.util.List;
  */
 public interface ReadOnlyReversi {
 
+  /**
+   * The value returned by flipCount for a move that is not legal.
+   */
+  int ILLEGAL_MOVE = -1;
+
   /**
    * Returns a copy of the list of tiles that would be affected by a placed piece. Shares knowledge
    * of the effects of a move without the risk of alteration.
@@ -18,6 +23,27 @@ public interface ReadOnlyReversi {
    */
   List<ITile> returnResultsOfMove(CubeCoord cube, ITile.State color);
 
+  /**
+   * Returns the number of pieces that would be flipped by a piece of the given color placed at the
+   * given coordinates, without creating any tiles. Unlike returnResultsOfMove, the placed piece
+   * itself is not counted, and nothing is thrown for an illegal move.
+   * @param cube the cubic coordinates of the piece to be placed.
+   * @param color the color of the piece being placed.
+   * @return the number of pieces flipped, or ILLEGAL_MOVE if the move is not legal, including
+   *         when there is no empty tile at the given coordinates.
+   */
+  int flipCount(CubeCoord cube, ITile.State color);
+
+  /**
+   * Returns the number of pieces that would be flipped by a piece of the given color placed on the
+   * tile with the given id, as flipCount does for coordinates.
+   * @param id the id of the tile, as given by getLayout.
+   * @param color the color of the piece being placed.
+   * @return the number of pieces flipped, or ILLEGAL_MOVE if the move is not legal, including
+   *         when there is no tile with the given id.
+   */
+  int flipCount(int id, ITile.State color);
+
   /**
    * Calculate the score, based on the color given.
    * @param color the color of the pieces being counted.
@@ -33,6 +59,21 @@ public interface ReadOnlyReversi {
    */
   ITile.State getStateAt(CubeCoord cube) throws IllegalArgumentException;
 
+  /**
+   * Returns the state of the tile with the given id, or throws if there is no such tile.
+   * @param id the id of the tile, as given by getLayout.
+   * @return the state of the tile.
+   * @throws IllegalArgumentException if there is no tile with the given id
+   */
+  ITile.State getStateAt(int id) throws IllegalArgumentException;
+
+  /**
+   * Returns the layout of this game's board, which gives every tile a dense int id and a shared
+   * CubeCoord. The ids are those taken and returned by the int-id methods of this interface.
+   * @return the board layout.
+   */
+  BoardLayout getLayout();
+
   /**
    * Determines whether the game is over, which occurs when neither player has any valid moves left.
    * @return whether the game is over.
@@ -45,12 +86,28 @@ public interface ReadOnlyReversi {
    */
   int getBoardSize();
 
+  /**
+   * Returns the 64-bit hash of the current position, which combines the pieces on the board with
+   * the player to move, as described by BoardLayout. The model keeps it up to date as pieces are
+   * placed and flipped and turns pass, so reading it costs nothing. Equal positions of the same
+   * layout always have equal hashes.
+   * @return the hash of the position.
+   */
+  long getHash();
+
   /**
    * Returns a copy of the board.
    * @return a copy of the board, in its 2D array state.
    */
   ITile[][] duplicate();
 
+  /**
+   * Returns a copy of this game that a search can make and undo moves on, detached from this game
+   * so that nothing done to the copy affects it.
+   * @return the search copy, in the same state as this game.
+   */
+  ISearchableReversi copyForSearch();
+
   /**
    * Determines whether the given coordinate is a valid move for the given color.
    * @param move The location of the attemped move.
@@ -59,12 +116,45 @@ public interface ReadOnlyReversi {
    */
   boolean isLegalMove(CubeCoord move, ITile.State color);
 
+  /**
+   * Determines whether the tile with the given id is a valid move for the given color.
+   * @param id the id of the tile, as given by getLayout.
+   * @param color The color of the player attempting a move.
+   * @return boolean representing whether the move is valid.
+   */
+  boolean isLegalMove(int id, ITile.State color);
+
   /**
    * Determines whether the given player has a possible move.
    * @return whether there is a move to be made
    */
   boolean hasMoves(ITile.State color);
 
+  /**
+   * Returns the locations of every legal move for the given color, in no particular order. The
+   * model keeps these up to date as moves are made rather than searching the board for them.
+   * @param color the color of the player whose moves are wanted.
+   * @return the list of legal move locations, which is empty for NONE.
+   */
+  List<CubeCoord> getLegalMoves(ITile.State color);
+
+  /**
+   * Writes the ids of every legal move for the given color into the given array, in no particular
+   * order, without allocating.
+   * @param color the color of the player whose moves are wanted.
+   * @param out the array the ids are written to, which must hold at least as many ids as there
+   *            are tiles on the board.
+   * @return the number of ids written, which is 0 for NONE.
+   */
+  int getLegalMoves(ITile.State color, int[] out);
+
+  /**
+   * Returns the number of legal moves for the given color, without listing them.
+   * @param color the color of the player whose moves are counted.
+   * @return the number of legal moves, which is 0 for NONE.
+   */
+  int countLegalMoves(ITile.State color);
+
   /**
    * Returns the currently active player.
    * @return the active player as a color.
@@ -89,6 +179,15 @@ public interface ReadOnlyReversi {
    */
   List<CubeCoord> getEmptyTiles();
 
+  /**
+   * Returns the locations of the frontier, the empty tiles with at least one piece of either color
+   * next to them, in no particular order. Every legal move of either color is on the frontier, so
+   * it can stand in for getEmptyTiles as a list of candidate moves. The model keeps it up to date
+   * as moves are made rather than scanning the board for it.
+   * @return the list of frontier tile locations.
+   */
+  List<CubeCoord> getFrontier();
+
   /**
    * Returns a list of all the corner tile locations.
    * @return The list of corner tiles.
@@ -16,21 +16,36 @@ public class SquareReversi extends AReversi {
    */
   public SquareReversi(int size) {
     super(size);
-    this.fillWithTiles();
     this.startupTiles();
   }
 
+  /**
+   * Constructs a square game of Reversi with the given board and turn state.
+   * @param board the current board
+   * @param whoseTurn which colors turn it is
+   */
+  public SquareReversi(ITile[][] board, ITile.State whoseTurn) {
+    super(board, whoseTurn);
+  }
+
+  // Constructs a copy of the given game for a search.
+  protected SquareReversi(SquareReversi other) {
+    super(other);
+  }
+
   @Override
-  protected ITile[][] createValidBoard(int size) {
-    if (size <= 1 || size % 2 != 0) {
-      throw new IllegalArgumentException("Invalid board size.");
-    }
-    return new ITile[size][size];
+  public ISearchableReversi copyForSearch() {
+    return new SquareReversi(this);
   }
 
   @Override
-  protected ITile[][] createValidBoard(ITile[][] madeBoard) {
-    return madeBoard;
+  protected ByteBoard createValidBoard(int size) {
+    return new ByteBoard(BoardLayout.square(size));
+  }
+
+  @Override
+  protected ByteBoard createValidBoard(ITile[][] madeBoard) {
+    return ByteBoard.from(madeBoard, BoardLayout.square(madeBoard.length));
   }
 
   @Override
@@ -48,75 +63,18 @@ public class SquareReversi extends AReversi {
     return Arrays.asList(1, 1, 1, 0, -1, -1, -1 ,0);
   }
 
-  // fill this game board with empty Tiles
-  private void fillWithTiles() {
-    // loops over all rows and columns
-    for (int r = 0; r < board.length; r++) {
-      for (int c = 0; c < board.length; c++) {
-        this.board[r][c] = new HexTile();
-      }
-    }
-  }
-
   // adds the four tiles at the center of the board needed for a new game.
   private void startupTiles() {
-    int center = (this.board.length / 2) - 1;
-    this.board[center][center].setState(ITile.State.BLACK);
-    this.board[center][center + 1].setState(ITile.State.WHITE);
-    this.board[center + 1][center].setState(ITile.State.WHITE);
-    this.board[center + 1][center + 1].setState(ITile.State.BLACK);
-  }
-
-  @Override
-  public Boolean gameOver() {
-    List<ITile> tiles;
-    // iterate over all tiles
-    for (int r = 0; r < this.board.length; r++) {
-      for (int c = 0; c < this.board.length; c++) {
-        // only take tiles that exist and are empty
-        if (this.getStateAt(new CubeCoord(r, c, this.buffer, true))
-                == ITile.State.NONE) {
-          CubeCoord cube = new CubeCoord(r, c, this.buffer, true);
-          // check the results of a valid white move, and catch if it is an invalid move
-          try {
-            tiles = this.returnResultsOfMove(cube, ITile.State.WHITE);
-            if (tiles.size() > 1) {
-              return false;
-            }
-          } catch (IllegalStateException | IllegalArgumentException e) {
-            // do nothing - exception means there is no valid white move at this tile.
-          }
-          // check the results of a valid black move, and catch if it is an invalid move
-          try {
-            tiles = this.returnResultsOfMove(cube, ITile.State.BLACK);
-            if (tiles.size() > 1) {
-              return false;
-            }
-          } catch (IllegalStateException | IllegalArgumentException e) {
-            // do nothing - exception means there is no valid black move at this tile.
-          }
-        }
-      }
-    }
-    // if no moves found, return true for game over.
-    return true;
+    int center = (this.board.width() / 2) - 1;
+    this.board.set(center, center, ITile.State.BLACK);
+    this.board.set(center, center + 1, ITile.State.WHITE);
+    this.board.set(center + 1, center, ITile.State.WHITE);
+    this.board.set(center + 1, center + 1, ITile.State.BLACK);
   }
 
   @Override
   public int getBoardSize() {
-    return this.board.length;
-  }
-
-  @Override
-  public ITile[][] duplicate() {
-    ITile[][] copy = new ITile[this.board.length][this.board.length];
-    for (int r = 0; r < copy.length; r++) {
-      for (int c = 0; c < copy.length; c++) {
-        CubeCoord location = new CubeCoord(r, c, 1, true);
-        copy[r][c] = new HexTile(this.getStateAt(location));
-      }
-    }
-    return copy;
+    return this.board.width();
   }
 
   @Override
@@ -126,17 +84,12 @@ public class SquareReversi extends AReversi {
 
   @Override
   public List<CubeCoord> getEmptyTiles() {
-    int size = getBuffer();
     List<CubeCoord> validMoves = new ArrayList<>();
-    for (int r = 0; r < board.length; r++) {
-      for (int q = 0; q < board.length; q++) {
-        try {
-          CubeCoord here = new CubeCoord(q, r, size, true);
-          if (this.getStateAt(here) == ITile.State.NONE) {
-            validMoves.add(here);
-          }
-        } catch (IllegalArgumentException | IllegalStateException ignore) {
-          // no effect - move is not valid
+    for (int r = 0; r < this.board.width(); r++) {
+      for (int q = 0; q < this.board.width(); q++) {
+        int id = this.board.id(q, r);
+        if (this.board.get(id) == ITile.State.NONE) {
+          validMoves.add(this.board.layout().coord(id));
         }
       }
     }
@@ -0,0 +1,68 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import controller.ModelStatusListener;
+
+/**
+ * Delivers the start of each turn of a game to the game's subscribers, one turn at a time. A
+ * subscriber told that a turn has begun may move at once, which begins the next turn before the
+ * first has been told to every subscriber. Rather than telling the subscribers about the next
+ * turn from inside that move, which would nest one call inside another for every turn of a game
+ * between two AI players, the next turn waits in a queue until every subscriber has heard about
+ * the current one, and the first announcement delivers the queued turns in a loop (a trampoline).
+ * Every subscriber hears about every turn, in the order the turns began, and the call stack stays
+ * the same depth however long the game. A scheduler is used by one thread at a time.
+ */
+final class TurnScheduler {
+
+  // The Controllers subscribed to messages from the game.
+  private final List<ModelStatusListener> subs;
+
+  // The turns that have begun but not yet been announced to every subscriber.
+  private final Queue<ITile.State> pending;
+
+  // Whether turns are being delivered, further down the call stack.
+  private boolean delivering;
+
+  /**
+   * Constructs a scheduler with no subscribers.
+   */
+  TurnScheduler() {
+    this.subs = new ArrayList<>();
+    this.pending = new ArrayDeque<>();
+    this.delivering = false;
+  }
+
+  // Subscribes the given listener to the start of each turn.
+  void subscribe(ModelStatusListener listener) {
+    this.subs.add(listener);
+  }
+
+  // Announces that the given player's turn has begun. If turns are already being delivered, the
+  // turn is delivered after the ones before it, once this call has returned; otherwise it and
+  // any turns begun while it is delivered are delivered before this call returns.
+  void announce(ITile.State turn) {
+    this.pending.add(turn);
+    if (this.delivering) {
+      return;
+    }
+    this.delivering = true;
+    try {
+      while (!this.pending.isEmpty()) {
+        ITile.State next = this.pending.remove();
+        // indexed rather than iterated, so that a turn change creates no iterator
+        for (int sub = 0; sub < this.subs.size(); sub++) {
+          this.subs.get(sub).turnBegins(next);
+        }
+      }
+    } finally {
+      // a subscriber that failed leaves no turns behind to be delivered by the next announcement
+      this.pending.clear();
+      this.delivering = false;
+    }
+  }
+}
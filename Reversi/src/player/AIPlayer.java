@@ -7,6 +7,8 @@ import model.CubeCoord;
 import model.ITile;
 import model.ReadOnlyReversi;
 import strategy.IStrategy;
+import strategy.IterativeDeepening;
+import strategy.SearchBudget;
 import controller.PlayerActionListener;
 
 /**
@@ -39,6 +41,17 @@ public class AIPlayer implements IReversiPlayer {
     this.subs = new ArrayList<>();
   }
 
+  /**
+   * Constructs an AI Reversi player that searches deeper and deeper for the best move until the
+   * given budget runs out, so that each move is chosen within a bounded time or amount of work.
+   * @param model The game being played.
+   * @param budget How much the AI may spend choosing each move.
+   * @param color The color this AI is playing as.
+   */
+  public AIPlayer(ReadOnlyReversi model, SearchBudget budget, ITile.State color) {
+    this(model, new IterativeDeepening(budget), color);
+  }
+
   @Override
   public void requestMove() {
     this.notifyClicked(this.strat.chooseMove(this.model, this.color));
@@ -5,7 +5,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import model.BitboardHexReversi;
+import model.BitboardSquareReversi;
 import model.CubeCoord;
+import model.ISearchableReversi;
 import model.ITile;
 import model.ReadOnlyReversi;
 
@@ -41,7 +44,7 @@ public abstract class AStrategy implements IStrategy {
   }
 
   /**
-   * Iterates through all open spaces, and finds/returns all viable moves.
+   * Iterates through the model's legal moves, and finds/returns their scores.
    *
    * @param model model to find moves from
    * @param color color that will be executing a move
@@ -49,16 +52,13 @@ public abstract class AStrategy implements IStrategy {
    *         to the score that executing this move would gain, as an Integer.
    */
   protected Map<CubeCoord, Integer> getValidMoves(ReadOnlyReversi model, ITile.State color) {
-    List<CubeCoord> moves = model.getEmptyTiles();
+    List<CubeCoord> moves = model.getLegalMoves(color);
     Map<CubeCoord, Integer> goodMoves = new HashMap<>();
     for (CubeCoord c : moves) {
-      try {
-        int score = model.returnResultsOfMove(c, color).size();
-        if (score > 1) {
-          goodMoves.put(c, score);
-        }
-      } catch (Exception e) {
-        // do nothing - not a legitimate move
+      int flips = model.flipCount(c, color);
+      if (flips > 0) {
+        // the score of a move counts the placed piece along with the flipped ones
+        goodMoves.put(c, flips + 1);
       }
     }
     return goodMoves;
@@ -106,4 +106,18 @@ public abstract class AStrategy implements IStrategy {
     }
     return bestMove;
   }
-}
\ No newline at end of file
+
+  /**
+   * Returns a search copy of the given game's position on a bitboard model, which plays much
+   * faster than the tile models, for strategies that play out many lines of play.
+   * @param model the game being copied.
+   * @return a search copy of the game's board and turn.
+   */
+  protected static ISearchableReversi lightCopy(ReadOnlyReversi model) {
+    ITile.State turn = model.getActiveTurn();
+    if (model.isHex()) {
+      return new BitboardHexReversi(model.duplicate(), turn).copyForSearch();
+    }
+    return new BitboardSquareReversi(model.duplicate(), turn).copyForSearch();
+  }
+}
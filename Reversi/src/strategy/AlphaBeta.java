@@ -0,0 +1,480 @@
+package strategy;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import model.BoardLayout;
+import model.CubeCoord;
+import model.ISearchableReversi;
+import model.ITile;
+import model.ReadOnlyReversi;
+
+/**
+ * Strategy class which looks a fixed number of moves ahead, assuming both players play as well as
+ * possible, and picks the move leading to the best position found (negamax search with
+ * alpha-beta pruning). Positions at the end of each line are scored by an IEvaluator, and
+ * finished games are scored above any evaluation as wins, losses or draws. A forced pass does not
+ * count towards the depth. In the case of a tie, it picks the uppermost-leftmost coordinate.
+ * The search is run on a search copy of the model, so the game itself is never changed, and works
+ * on either board shape. An AlphaBeta keeps the counts of its last search, so one instance should
+ * not search two games at once.
+ */
+public class AlphaBeta extends AStrategy {
+
+  // The score of a won game, before adding the margin of the win, which no evaluation reaches.
+  static final int WIN = 1 << 24;
+
+  // A score beyond every possible score, used as the initial window of the search.
+  static final int INFINITY = Integer.MAX_VALUE / 2;
+
+  // How many nodes are searched between checks of the clock and stop flag, less one.
+  private static final long CLOCK_CHECK = 1023;
+
+  // The number of moves looked ahead.
+  private final int depth;
+
+  // The evaluation of positions at the end of each line.
+  private final IEvaluator evaluator;
+
+  // The table of positions searched, or null if positions are not remembered.
+  private final TranspositionTable table;
+
+  // The orderer of the moves of each position, or null if moves are not sorted.
+  private final MoveOrderer orderer;
+
+  // Where a report of each search is written, or null if searches are not reported.
+  private final Appendable report;
+
+  // Whether every move after the first of a position is first searched with a null window
+  // (principal variation search).
+  private boolean principal;
+
+  // The legal moves found at each ply of the current search.
+  private int[][] moves;
+
+  // The total number of nodes the current search may visit.
+  private long nodeLimit;
+
+  // Whether the current search has a deadline, and the System.nanoTime it must end by.
+  private boolean timed;
+  private long deadline;
+
+  // A flag another thread sets to stop the current search, or null if there is none.
+  private AtomicBoolean stop;
+
+  // Whether the current search ran out of budget.
+  private boolean aborted;
+
+  // The System.nanoTime the current search started at.
+  private long start;
+
+  // The number of positions visited by the last search.
+  private long nodes;
+
+  // The number of positions the last search cut off, and how many were cut off by the first
+  // move tried.
+  private long cutoffs;
+  private long firstCutoffs;
+
+  // The number of null-window searches of the last search that had to be searched again.
+  private long researches;
+
+  // The time the last search took, in nanoseconds.
+  private long nanos;
+
+  // The score of the move picked by the last search.
+  private int lastScore;
+
+  /**
+   * Constructs an AlphaBeta strategy that scores positions with the standard weighted evaluator.
+   * @param depth the number of moves to look ahead.
+   * @throws IllegalArgumentException if the depth is less than 1.
+   */
+  public AlphaBeta(int depth) {
+    this(depth, WeightedEvaluator.standard());
+  }
+
+  /**
+   * Constructs an AlphaBeta strategy that scores positions with the given evaluator.
+   * @param depth the number of moves to look ahead.
+   * @param evaluator the evaluation of positions at the end of each line.
+   * @throws IllegalArgumentException if the depth is less than 1.
+   */
+  public AlphaBeta(int depth, IEvaluator evaluator) {
+    this(depth, evaluator, null);
+  }
+
+  /**
+   * Constructs an AlphaBeta strategy that writes a line about each search it runs, giving the
+   * nodes searched and nodes per second, to the given output.
+   * @param depth the number of moves to look ahead.
+   * @param evaluator the evaluation of positions at the end of each line.
+   * @param report where each search is reported, or null to not report searches.
+   * @throws IllegalArgumentException if the depth is less than 1.
+   */
+  public AlphaBeta(int depth, IEvaluator evaluator, Appendable report) {
+    this(depth, evaluator, null, report);
+  }
+
+  /**
+   * Constructs an AlphaBeta strategy that remembers the positions it searches in the given
+   * table, so that positions reached again, in this search or later ones, are not searched
+   * again, and that reports each search to the given output.
+   * @param depth the number of moves to look ahead.
+   * @param evaluator the evaluation of positions at the end of each line.
+   * @param table the table of positions searched, or null to not use one.
+   * @param report where each search is reported, or null to not report searches.
+   * @throws IllegalArgumentException if the depth is less than 1.
+   */
+  public AlphaBeta(int depth, IEvaluator evaluator, TranspositionTable table,
+                   Appendable report) {
+    this(depth, evaluator, table, null, report);
+  }
+
+  /**
+   * Constructs an AlphaBeta strategy that sorts the moves of each position it searches with the
+   * given orderer, which lets it prune far more of the search without changing its result.
+   * @param depth the number of moves to look ahead.
+   * @param evaluator the evaluation of positions at the end of each line.
+   * @param table the table of positions searched, or null to not use one.
+   * @param orderer the orderer of moves, or null to search moves in the order the model gives.
+   * @param report where each search is reported, or null to not report searches.
+   * @throws IllegalArgumentException if the depth is less than 1.
+   */
+  public AlphaBeta(int depth, IEvaluator evaluator, TranspositionTable table,
+                   MoveOrderer orderer, Appendable report) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("Search depth must be at least 1.");
+    }
+    this.depth = depth;
+    this.evaluator = Objects.requireNonNull(evaluator);
+    this.table = table;
+    this.orderer = orderer;
+    this.report = report;
+  }
+
+  /**
+   * Searches the given game to this strategy's depth and returns the best move found.
+   * @param model the RO model to find moves for
+   * @param color the game-piece color to look for moves for
+   * @return the CubeCoord of the best move found
+   * @throws IllegalStateException if the given color has no legal moves, or it is not that
+   *                               color's turn.
+   */
+  @Override
+  public CubeCoord chooseMove(ReadOnlyReversi model, ITile.State color)
+          throws IllegalStateException {
+    ISearchableReversi search = this.beginSearch(model, color);
+    int best = this.searchRoot(search, color, this.depth, -1);
+    this.endSearch();
+    this.writeReport("alphabeta depth " + this.depth);
+    return search.getLayout().coord(best);
+  }
+
+  // Starts a search of the given game for the given color, with no budget, and returns the
+  // search copy to search on.
+  ISearchableReversi beginSearch(ReadOnlyReversi model, ITile.State color) {
+    if (model.getActiveTurn() != color) {
+      throw new IllegalStateException("Not this player's turn.");
+    }
+    if (!model.hasMoves(color)) {
+      throw new IllegalStateException("No possible moves");
+    }
+    // the position searched from counts as a node
+    this.nodes = 1;
+    this.cutoffs = 0;
+    this.firstCutoffs = 0;
+    this.researches = 0;
+    this.nodeLimit = Long.MAX_VALUE;
+    this.timed = false;
+    this.stop = null;
+    this.aborted = false;
+    this.start = System.nanoTime();
+    if (this.orderer != null) {
+      this.orderer.prepare(model);
+    }
+    return model.copyForSearch();
+  }
+
+  // Limits the rest of the current search to the given total number of nodes and to end by the
+  // given System.nanoTime, if timed. Once either runs out, searchRoot gives up.
+  void setBudget(long nodeLimit, boolean timed, long deadline) {
+    this.nodeLimit = nodeLimit;
+    this.timed = timed;
+    this.deadline = deadline;
+  }
+
+  // Stops the rest of the current search once the given flag is set, which is checked as often
+  // as the clock.
+  void setStop(AtomicBoolean stop) {
+    this.stop = stop;
+  }
+
+  // Sets whether searches try to prove each move after the first of a position worse than the
+  // best so far with a null window, searching it again with the full window only if that fails.
+  // This visits fewer nodes when the moves are well ordered, and gives the same results.
+  void setPrincipalVariation(boolean principal) {
+    this.principal = principal;
+  }
+
+  // Finishes the current search, recording how long it took.
+  void endSearch() {
+    this.nanos = System.nanoTime() - this.start;
+  }
+
+  // Searches every legal move of the given color to the given depth, trying the move with the
+  // given id first if it is one of them, and returns the id of the best move. Returns -1 if the
+  // budget ran out before every move was searched.
+  int searchRoot(ISearchableReversi search, ITile.State color, int depth, int first) {
+    return this.searchRoot(search, color, depth, first, -INFINITY, INFINITY);
+  }
+
+  // Searches the legal moves of the given color as above, within the window (alpha, beta). If
+  // the best score is at most alpha or at least beta, the last score is only a bound on it, and
+  // the move returned need not be the best.
+  int searchRoot(ISearchableReversi search, ITile.State color, int depth, int first, int alpha,
+                 int beta) {
+    int size = search.getLayout().size();
+    // a forced pass takes a ply without using up depth, but two passes in a row end the game
+    if (this.moves == null || this.moves.length < (2 * depth) + 1 || this.moves[0].length < size) {
+      this.moves = new int[(2 * depth) + 1][size];
+    }
+    int[] root = this.moves[0];
+    int count = search.getLegalMoves(color, root);
+    this.order(root, count, 0, first);
+    int bestMove = -1;
+    int bestScore = -INFINITY;
+    for (int i = 0; i < count; i++) {
+      search.makeMove(root[i], color);
+      // the window starts one below the best score so that moves tying it are scored exactly
+      int score = this.searchChild(search, depth - 1, 1, i, Math.max(alpha, bestScore - 1),
+              beta);
+      search.unmakeMove();
+      if (this.aborted) {
+        return -1;
+      }
+      if (score > bestScore) {
+        bestScore = score;
+        bestMove = root[i];
+        if (score >= beta) {
+          break;
+        }
+      } else if (score == bestScore) {
+        BoardLayout layout = search.getLayout();
+        bestMove = layout.id(this.getUpperLeft(layout.coord(root[i]), layout.coord(bestMove)));
+      }
+    }
+    this.lastScore = bestScore;
+    return bestMove;
+  }
+
+  // Returns the score of the current position for the player to move, searched to the given
+  // depth, or a bound on it if the score falls outside the window (alpha, beta). Returns 0 once
+  // the budget has run out.
+  private int negamax(ISearchableReversi search, int depth, int ply, int alpha, int beta) {
+    this.nodes++;
+    if (this.nodes > this.nodeLimit || ((this.nodes & CLOCK_CHECK) == 0 && this.outOfTime())) {
+      this.aborted = true;
+    }
+    if (this.aborted) {
+      return 0;
+    }
+    ITile.State turn = search.getActiveTurn();
+    if (search.gameOver()) {
+      return finalScore(search, turn);
+    }
+    if (depth == 0) {
+      return this.evaluator.evaluate(search, turn);
+    }
+    long hash = 0;
+    int hashMove = -1;
+    int alphaBefore = alpha;
+    if (this.table != null) {
+      hash = search.getHash();
+      long entry = this.table.probe(hash);
+      if (entry != 0) {
+        hashMove = TranspositionTable.moveOf(entry);
+        if (TranspositionTable.depthOf(entry) >= depth) {
+          int score = TranspositionTable.scoreOf(entry);
+          int bound = TranspositionTable.boundOf(entry);
+          if (bound == TranspositionTable.EXACT
+                  || (bound == TranspositionTable.LOWER && score >= beta)
+                  || (bound == TranspositionTable.UPPER && score <= alpha)) {
+            return Math.max(alpha, Math.min(beta, score));
+          }
+        }
+      }
+    }
+    int[] here = this.moves[ply];
+    int count = search.getLegalMoves(turn, here);
+    if (count == 0) {
+      search.makePass();
+      int score = -this.negamax(search, depth, ply + 1, -beta, -alpha);
+      search.unmakePass();
+      return score;
+    }
+    this.order(here, count, ply, hashMove);
+    int bestMove = -1;
+    for (int i = 0; i < count; i++) {
+      search.makeMove(here[i], turn);
+      int score = this.searchChild(search, depth - 1, ply + 1, i, alpha, beta);
+      search.unmakeMove();
+      if (this.aborted) {
+        return 0;
+      }
+      if (score > alpha) {
+        alpha = score;
+        bestMove = here[i];
+        if (alpha >= beta) {
+          this.cutoff(here[i], i, ply, depth);
+          break;
+        }
+      }
+    }
+    if (this.table != null) {
+      int bound = alpha >= beta ? TranspositionTable.LOWER
+              : alpha > alphaBefore ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+      // a shallower depth than searched is always safe to record
+      this.table.store(hash, Math.min(depth, 255), bound, alpha,
+              bestMove >= 0 ? bestMove : hashMove);
+    }
+    return alpha;
+  }
+
+  // Returns the score of the position just reached by the move tried at the given index, for
+  // the player who made it, or a bound on it outside the window (alpha, beta). When searching
+  // principal variations, a move after the first is only searched with the full window if a
+  // null window shows it beats alpha.
+  private int searchChild(ISearchableReversi search, int depth, int ply, int index, int alpha,
+                          int beta) {
+    if (this.principal && index > 0 && alpha + 1 < beta) {
+      int score = -this.negamax(search, depth, ply, -(alpha + 1), -alpha);
+      if (score <= alpha || this.aborted) {
+        return score;
+      }
+      this.researches++;
+    }
+    return -this.negamax(search, depth, ply, -beta, -alpha);
+  }
+
+  // Sorts the given moves found at the given ply, trying the given move first if it is one of
+  // them, which is the best move found the last time the position was searched.
+  private void order(int[] moves, int count, int ply, int first) {
+    if (this.orderer != null) {
+      this.orderer.order(moves, count, ply, first);
+      return;
+    }
+    for (int i = 1; i < count; i++) {
+      if (moves[i] == first) {
+        moves[i] = moves[0];
+        moves[0] = first;
+      }
+    }
+  }
+
+  // Records that the move tried at the given index cut off the search at the given ply.
+  private void cutoff(int move, int index, int ply, int depth) {
+    this.cutoffs++;
+    if (index == 0) {
+      this.firstCutoffs++;
+    }
+    if (this.orderer != null) {
+      this.orderer.recordCutoff(move, ply, depth);
+    }
+  }
+
+  // Returns whether the deadline of the current search has passed or it has been stopped.
+  private boolean outOfTime() {
+    return (this.timed && System.nanoTime() - this.deadline >= 0)
+            || (this.stop != null && this.stop.get());
+  }
+
+  // Returns the score of a finished game for the given player: a win or loss outweighs any
+  // evaluation, and larger margins score further from zero.
+  static int finalScore(ReadOnlyReversi game, ITile.State color) {
+    int margin = game.calcScore(color) - game.calcScore(DiscCountEvaluator.opponent(color));
+    return (Integer.signum(margin) * WIN) + margin;
+  }
+
+  // Writes a line about the last search, described by the given name, to the report, if there
+  // is one.
+  void writeReport(String name) {
+    if (this.report == null) {
+      return;
+    }
+    try {
+      this.report.append(String.format("%s: %d nodes, %.0f nodes/s, score %d, first-move cutoffs"
+              + " %.1f%%", name, this.nodes, this.getNodesPerSecond(), this.lastScore,
+              100 * this.getFirstMoveCutoffRate()));
+      if (this.principal) {
+        this.report.append(String.format(", re-searches %d", this.researches));
+      }
+      if (this.table != null) {
+        this.report.append(String.format(", table hits %.1f%%, collisions %d, fill %.1f%%",
+                100 * this.table.getHitRate(), this.table.getCollisions(),
+                100 * this.table.getFill()));
+      }
+      this.report.append(System.lineSeparator());
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not write the search report.");
+    }
+  }
+
+  /**
+   * Returns the number of positions visited by the last search, including the position searched
+   * from.
+   * @return the number of nodes searched, or 0 if nothing has been searched.
+   */
+  public long getNodes() {
+    return this.nodes;
+  }
+
+  /**
+   * Returns how quickly the last search visited positions.
+   * @return the nodes searched per second, or 0 if nothing has been searched.
+   */
+  public double getNodesPerSecond() {
+    if (this.nanos == 0) {
+      return 0;
+    }
+    return this.getNodes() * 1e9 / this.nanos;
+  }
+
+  /**
+   * Returns the score of the move picked by the last search, from the point of view of the
+   * player it was picked for.
+   * @return the score of the last move picked.
+   */
+  public int getLastScore() {
+    return this.lastScore;
+  }
+
+  /**
+   * Returns the number of positions the last search cut off, by finding a move good enough that
+   * the rest need not be searched.
+   * @return the number of cutoffs.
+   */
+  public long getCutoffs() {
+    return this.cutoffs;
+  }
+
+  /**
+   * Returns the number of moves the last search had to search again with a full window, after
+   * a null window showed they might be better than the best move so far. This is always 0
+   * unless principal variations are searched.
+   * @return the number of re-searches.
+   */
+  public long getResearches() {
+    return this.researches;
+  }
+
+  /**
+   * Returns the fraction of the last search's cutoffs made by the first move tried, which shows
+   * how well the moves were ordered.
+   * @return the first-move cutoff rate, from 0 to 1, or 0 if there were no cutoffs.
+   */
+  public double getFirstMoveCutoffRate() {
+    return this.cutoffs == 0 ? 0 : (double) this.firstCutoffs / this.cutoffs;
+  }
+}
@@ -0,0 +1,65 @@
+package strategy;
+
+import java.util.Objects;
+
+import model.CubeCoord;
+import model.ITile;
+import model.ReadOnlyReversi;
+
+/**
+ * Strategy class which plays the move an OpeningBook gives for the current position, and uses a
+ * delegate strategy once the game has left the book. A book move is only played if it is legal,
+ * so a book for another board, or a hash collision, can never cause an illegal move.
+ */
+public class BookStrategy extends AStrategy {
+
+  // The book of opening moves.
+  private final OpeningBook book;
+
+  // The strategy used for positions not in the book.
+  private final IStrategy delegate;
+
+  // The number of moves answered from the book, and by the delegate.
+  private int bookMoves;
+  private int delegateMoves;
+
+  /**
+   * Constructs a BookStrategy.
+   * @param book the book of opening moves.
+   * @param delegate the strategy used for positions not in the book.
+   */
+  public BookStrategy(OpeningBook book, IStrategy delegate) {
+    this.book = Objects.requireNonNull(book);
+    this.delegate = Objects.requireNonNull(delegate);
+  }
+
+  @Override
+  public CubeCoord chooseMove(ReadOnlyReversi model, ITile.State color)
+          throws IllegalStateException {
+    if (model.getActiveTurn() == color) {
+      int move = this.book.lookup(model);
+      if (move >= 0 && model.isLegalMove(move, color)) {
+        this.bookMoves++;
+        return model.getLayout().coord(move);
+      }
+    }
+    this.delegateMoves++;
+    return this.delegate.chooseMove(model, color);
+  }
+
+  /**
+   * Returns the number of moves this strategy has chosen from the book.
+   * @return the number of book moves.
+   */
+  public int getBookMoves() {
+    return this.bookMoves;
+  }
+
+  /**
+   * Returns the number of moves this strategy has left to the delegate strategy.
+   * @return the number of delegated moves.
+   */
+  public int getDelegateMoves() {
+    return this.delegateMoves;
+  }
+}
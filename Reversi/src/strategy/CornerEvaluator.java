@@ -0,0 +1,58 @@
+package strategy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.BoardLayout;
+import model.CubeCoord;
+import model.ITile;
+import model.ReadOnlyReversi;
+
+/**
+ * Scores a position by how many more corners the player holds than their opponent. A piece on a
+ * corner can never be flipped, so corners are worth holding on either board shape.
+ */
+public class CornerEvaluator implements IEvaluator {
+
+  // The ids of the corner tiles of each layout seen so far.
+  private final Map<BoardLayout, int[]> corners;
+
+  /**
+   * Constructs a CornerEvaluator.
+   */
+  public CornerEvaluator() {
+    this.corners = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public int evaluate(ReadOnlyReversi model, ITile.State color) {
+    int[] ids = this.cornersOf(model);
+    int score = 0;
+    for (int id : ids) {
+      ITile.State state = model.getStateAt(id);
+      if (state == color) {
+        score++;
+      } else if (state != ITile.State.NONE) {
+        score--;
+      }
+    }
+    return score;
+  }
+
+  // Returns the ids of the corner tiles of the given game's board, finding them the first time
+  // a board of its layout is seen.
+  private int[] cornersOf(ReadOnlyReversi model) {
+    BoardLayout layout = model.getLayout();
+    int[] ids = this.corners.get(layout);
+    if (ids == null) {
+      List<CubeCoord> cubes = model.getCorners();
+      ids = new int[cubes.size()];
+      for (int i = 0; i < ids.length; i++) {
+        ids[i] = layout.id(cubes.get(i));
+      }
+      this.corners.put(layout, ids);
+    }
+    return ids;
+  }
+}
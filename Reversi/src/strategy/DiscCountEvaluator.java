@@ -0,0 +1,20 @@
+package strategy;
+
+import model.ITile;
+import model.ReadOnlyReversi;
+
+/**
+ * Scores a position by how many more pieces the player has than their opponent.
+ */
+public class DiscCountEvaluator implements IEvaluator {
+
+  @Override
+  public int evaluate(ReadOnlyReversi model, ITile.State color) {
+    return model.calcScore(color) - model.calcScore(opponent(color));
+  }
+
+  // Returns the opposing color of the given one.
+  static ITile.State opponent(ITile.State color) {
+    return color == ITile.State.WHITE ? ITile.State.BLACK : ITile.State.WHITE;
+  }
+}
@@ -0,0 +1,251 @@
+package strategy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.BoardLayout;
+import model.CubeCoord;
+import model.ISearchableReversi;
+import model.ITile;
+import model.ReadOnlyReversi;
+
+/**
+ * Strategy class which plays perfectly near the end of the game. Once fewer tiles than a
+ * threshold are empty, it searches every line of play to the end of the game and picks the move
+ * with the best final result: either the largest final margin of pieces, or just the best of a
+ * win, draw or loss, which is quicker to find. Above the threshold, it uses a backup strategy.
+ * In the case of a tie, it picks the uppermost-leftmost coordinate.
+ * Moves are searched in the order most likely to cut the search short: far from the end, the
+ * moves leaving the opponent the fewest replies come first (fastest-first); close to the end,
+ * moves into regions of the board with an odd number of empty tiles come first, since the
+ * player who moves last in a region usually gains from it (parity).
+ */
+public class EndgameSolver extends AStrategy {
+
+  // The number of empty tiles at or below which moves are ordered by parity alone, as counting
+  // the opponent's replies costs more than it saves.
+  private static final int PARITY_ONLY = 6;
+
+  // The region of the board each tile is in, for each layout seen so far.
+  private static final Map<BoardLayout, int[]> REGIONS = new ConcurrentHashMap<>();
+
+  // Solve when fewer than this many tiles are empty.
+  private final int threshold;
+
+  // The strategy used above the threshold, or null if there is none.
+  private final IStrategy backup;
+
+  // Whether to find the final margin of pieces, rather than only whether the game is won.
+  private final boolean exact;
+
+  // The moves found at each ply of the current search, and their ordering keys.
+  private int[][] moves;
+  private int[][] keys;
+
+  // The region of each tile of the board being searched.
+  private int[] regions;
+
+  // The number of positions visited by the last solve.
+  private long nodes;
+
+  // The result of the move picked by the last solve.
+  private int lastScore;
+
+  /**
+   * Constructs an EndgameSolver that finds the final margin of pieces, with no backup strategy.
+   * @param threshold solve when fewer than this many tiles are empty.
+   */
+  public EndgameSolver(int threshold) {
+    this(threshold, null, true);
+  }
+
+  /**
+   * Constructs an EndgameSolver with the given backup strategy.
+   * @param threshold solve when fewer than this many tiles are empty.
+   * @param backup the strategy used above the threshold, or null if there is none.
+   * @param exact true to find the final margin of pieces, false to only find whether the game is
+   *              won, drawn or lost.
+   * @throws IllegalArgumentException if the threshold is less than 1.
+   */
+  public EndgameSolver(int threshold, IStrategy backup, boolean exact) {
+    if (threshold < 1) {
+      throw new IllegalArgumentException("Threshold must be at least 1.");
+    }
+    this.threshold = threshold;
+    this.backup = backup;
+    this.exact = exact;
+  }
+
+  @Override
+  public CubeCoord chooseMove(ReadOnlyReversi model, ITile.State color)
+          throws IllegalStateException {
+    BoardLayout layout = model.getLayout();
+    int empty = layout.size() - model.calcScore(ITile.State.BLACK)
+            - model.calcScore(ITile.State.WHITE);
+    if (empty >= this.threshold) {
+      if (this.backup == null) {
+        throw new IllegalStateException("Too many empty tiles to solve.");
+      }
+      return this.backup.chooseMove(model, color);
+    }
+    if (model.getActiveTurn() != color) {
+      throw new IllegalStateException("Not this player's turn.");
+    }
+    if (!model.hasMoves(color)) {
+      throw new IllegalStateException("No possible moves");
+    }
+    ISearchableReversi game = lightCopy(model);
+    this.regions = regionsOf(layout);
+    // a pass takes a ply without filling a tile, but two passes in a row end the game
+    this.moves = new int[(2 * empty) + 2][layout.size()];
+    this.keys = new int[(2 * empty) + 2][layout.size()];
+    int parity = 0;
+    for (int id = 0; id < layout.size(); id++) {
+      if (game.getStateAt(id) == ITile.State.NONE) {
+        parity ^= 1 << this.regions[id];
+      }
+    }
+    int bound = this.exact ? AlphaBeta.INFINITY : 1;
+    this.nodes = 1;
+    int[] root = this.moves[0];
+    int count = this.order(game, color, 0, empty, parity);
+    int bestMove = -1;
+    int bestScore = -bound;
+    for (int i = 0; i < count; i++) {
+      game.makeMove(root[i], color);
+      // the window starts one below the best score so that moves tying it are scored exactly
+      int score = -this.solve(game, 1, empty - 1, parity ^ (1 << this.regions[root[i]]),
+              -bound, -Math.max(-bound, bestScore - 1));
+      game.unmakeMove();
+      if (bestMove < 0 || score > bestScore) {
+        bestScore = score;
+        bestMove = root[i];
+      } else if (score == bestScore) {
+        bestMove = layout.id(this.getUpperLeft(layout.coord(root[i]), layout.coord(bestMove)));
+      }
+    }
+    this.lastScore = bestScore;
+    return layout.coord(bestMove);
+  }
+
+  // Returns the final margin of pieces for the player to move with best play from both sides,
+  // or a bound on it if it falls outside the window (alpha, beta). The parity has a bit set for
+  // each region with an odd number of empty tiles.
+  private int solve(ISearchableReversi game, int ply, int empty, int parity, int alpha,
+                    int beta) {
+    this.nodes++;
+    ITile.State turn = game.getActiveTurn();
+    int count = this.order(game, turn, ply, empty, parity);
+    if (count == 0) {
+      if (game.gameOver()) {
+        ITile.State other = turn == ITile.State.WHITE ? ITile.State.BLACK : ITile.State.WHITE;
+        int margin = game.calcScore(turn) - game.calcScore(other);
+        return Math.max(alpha, Math.min(beta, margin));
+      }
+      game.makePass();
+      int score = -this.solve(game, ply + 1, empty, parity, -beta, -alpha);
+      game.unmakePass();
+      return score;
+    }
+    int[] here = this.moves[ply];
+    for (int i = 0; i < count; i++) {
+      game.makeMove(here[i], turn);
+      int score = -this.solve(game, ply + 1, empty - 1, parity ^ (1 << this.regions[here[i]]),
+              -beta, -alpha);
+      game.unmakeMove();
+      if (score > alpha) {
+        alpha = score;
+        if (alpha >= beta) {
+          break;
+        }
+      }
+    }
+    return alpha;
+  }
+
+  // Finds the given player's legal moves at the given ply and sorts them into the order they
+  // should be searched, returning how many there are.
+  private int order(ISearchableReversi game, ITile.State color, int ply, int empty, int parity) {
+    int[] here = this.moves[ply];
+    int[] key = this.keys[ply];
+    int count = game.getLegalMoves(color, here);
+    if (count < 2) {
+      return count;
+    }
+    ITile.State other = color == ITile.State.WHITE ? ITile.State.BLACK : ITile.State.WHITE;
+    for (int i = 0; i < count; i++) {
+      // moves into odd regions come first among moves leaving the same number of replies
+      int even = ((parity >> this.regions[here[i]]) & 1) ^ 1;
+      if (empty > PARITY_ONLY) {
+        game.makeMove(here[i], color);
+        key[i] = (game.countLegalMoves(other) * 2) + even;
+        game.unmakeMove();
+      } else {
+        key[i] = even;
+      }
+    }
+    // sorts by key by insertion, as there are only ever a few moves
+    for (int i = 1; i < count; i++) {
+      int move = here[i];
+      int k = key[i];
+      int j = i - 1;
+      while (j >= 0 && key[j] > k) {
+        here[j + 1] = here[j];
+        key[j + 1] = key[j];
+        j--;
+      }
+      here[j + 1] = move;
+      key[j + 1] = k;
+    }
+    return count;
+  }
+
+  // Returns the region of each tile of the given layout: the quadrants of a square board, or
+  // the six wedges of a hexagonal board, with the center tile in the first.
+  private static int[] regionsOf(BoardLayout layout) {
+    int[] regions = REGIONS.get(layout);
+    if (regions == null) {
+      regions = new int[layout.size()];
+      for (int id = 0; id < layout.size(); id++) {
+        CubeCoord here = layout.coord(id);
+        if (layout.isHex()) {
+          regions[id] = wedgeOf(here.getQ(), here.getR(), here.getS());
+        } else {
+          int half = layout.width() / 2;
+          regions[id] = (layout.row(id) < half ? 0 : 2) + (layout.col(id) < half ? 0 : 1);
+        }
+      }
+      REGIONS.put(layout, regions);
+    }
+    return regions;
+  }
+
+  // Returns which of the six wedges around the center of a hexagonal board the given cubic
+  // coordinates are in, numbered by the coordinate furthest from zero and its sign.
+  private static int wedgeOf(int q, int r, int s) {
+    if (Math.abs(q) >= Math.abs(r) && Math.abs(q) >= Math.abs(s)) {
+      return q >= 0 ? 0 : 1;
+    } else if (Math.abs(r) >= Math.abs(s)) {
+      return r >= 0 ? 2 : 3;
+    }
+    return s >= 0 ? 4 : 5;
+  }
+
+  /**
+   * Returns the number of positions visited by the last solve.
+   * @return the number of nodes searched, or 0 if nothing has been solved.
+   */
+  public long getNodes() {
+    return this.nodes;
+  }
+
+  /**
+   * Returns the result of the move picked by the last solve, for the player it was picked for.
+   * This is the final margin of pieces, or when not solving exactly, 1 for a win, 0 for a draw
+   * and -1 for a loss.
+   * @return the result of the last move picked.
+   */
+  public int getLastScore() {
+    return this.lastScore;
+  }
+}
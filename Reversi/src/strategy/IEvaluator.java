@@ -0,0 +1,23 @@
+package strategy;
+
+import model.ITile;
+import model.ReadOnlyReversi;
+
+/**
+ * Represents a way of judging how good a position is for one player, used by searching
+ * strategies to score the positions at the end of the lines of play they look at. Evaluators
+ * are asked about positions in the middle of a search, so they should only read the model's
+ * running counts and sets rather than scanning the board.
+ */
+public interface IEvaluator {
+
+  /**
+   * Scores the current position of the given game for the given player. Higher scores are better
+   * for that player, and a position scores the negative for one player of what it scores for the
+   * other.
+   * @param model the game whose position is being scored.
+   * @param color the player the score is for.
+   * @return the score of the position.
+   */
+  int evaluate(ReadOnlyReversi model, ITile.State color);
+}
@@ -0,0 +1,128 @@
+package strategy;
+
+import java.util.Objects;
+
+import model.CubeCoord;
+import model.ISearchableReversi;
+import model.ITile;
+import model.ReadOnlyReversi;
+
+/**
+ * Strategy class which runs alpha-beta searches one move deeper at a time until its budget of
+ * time or nodes runs out, and picks the best move of the deepest search that finished. A search
+ * cut short by the budget is thrown away, and the first search, one move deep, always finishes,
+ * so a move is always returned close to the budget however large the board. Each search tries
+ * the previous search's best move first and sorts the rest with a MoveOrderer, which lets it
+ * prune more.
+ */
+public class IterativeDeepening extends AStrategy {
+
+  // The size of the table used when none is given, in megabytes.
+  static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+  // The search run at each depth.
+  private final AlphaBeta search;
+
+  // How much may be spent on each move.
+  private final SearchBudget budget;
+
+  // The table of positions searched, or null if positions are not remembered.
+  private final TranspositionTable table;
+
+  // The deepest search that finished during the last move chosen.
+  private int completedDepth;
+
+  /**
+   * Constructs an IterativeDeepening strategy with the given budget, that scores positions with
+   * the standard weighted evaluator and remembers them in a table of the default size.
+   * @param budget how much may be spent on each move.
+   */
+  public IterativeDeepening(SearchBudget budget) {
+    this(budget, WeightedEvaluator.standard(), null);
+  }
+
+  /**
+   * Constructs an IterativeDeepening strategy that remembers positions in a table of the default
+   * size, and writes a line about each move it chooses, giving the depth reached, nodes searched
+   * and nodes per second, to the given output.
+   * @param budget how much may be spent on each move.
+   * @param evaluator the evaluation of positions at the end of each line.
+   * @param report where each move is reported, or null to not report moves.
+   */
+  public IterativeDeepening(SearchBudget budget, IEvaluator evaluator, Appendable report) {
+    this(budget, evaluator, new TranspositionTable(DEFAULT_TABLE_MEGABYTES), report);
+  }
+
+  /**
+   * Constructs an IterativeDeepening strategy that remembers positions in the given table, which
+   * is kept from move to move, and reports each move it chooses to the given output.
+   * @param budget how much may be spent on each move.
+   * @param evaluator the evaluation of positions at the end of each line.
+   * @param table the table of positions searched, or null to not use one.
+   * @param report where each move is reported, or null to not report moves.
+   */
+  public IterativeDeepening(SearchBudget budget, IEvaluator evaluator, TranspositionTable table,
+                            Appendable report) {
+    this.budget = Objects.requireNonNull(budget);
+    this.table = table;
+    this.search = new AlphaBeta(1, evaluator, table, new MoveOrderer(), report);
+  }
+
+  @Override
+  public CubeCoord chooseMove(ReadOnlyReversi model, ITile.State color)
+          throws IllegalStateException {
+    long deadline = System.nanoTime() + (this.budget.getMillis() * 1_000_000);
+    ISearchableReversi game = this.search.beginSearch(model, color);
+    // no line of play is longer than the number of empty tiles
+    int empty = game.getLayout().size() - game.calcScore(ITile.State.BLACK)
+            - game.calcScore(ITile.State.WHITE);
+    int best = this.search.searchRoot(game, color, 1, -1);
+    this.completedDepth = 1;
+    this.search.setBudget(this.budget.getNodes(), this.budget.isTimed(), deadline);
+    for (int depth = 2; depth <= empty; depth++) {
+      int found = this.search.searchRoot(game, color, depth, best);
+      if (found < 0) {
+        break;
+      }
+      best = found;
+      this.completedDepth = depth;
+    }
+    this.search.endSearch();
+    this.search.writeReport("iterative deepening " + this.budget + " depth "
+            + this.completedDepth);
+    return game.getLayout().coord(best);
+  }
+
+  /**
+   * Returns the depth of the deepest search that finished while choosing the last move.
+   * @return the depth reached, or 0 if no move has been chosen.
+   */
+  public int getCompletedDepth() {
+    return this.completedDepth;
+  }
+
+  /**
+   * Returns the table of positions searched, whose statistics cover every move chosen since they
+   * were last reset.
+   * @return the table, or null if positions are not remembered.
+   */
+  public TranspositionTable getTable() {
+    return this.table;
+  }
+
+  /**
+   * Returns the number of positions visited while choosing the last move, over every depth.
+   * @return the number of nodes searched.
+   */
+  public long getNodes() {
+    return this.search.getNodes();
+  }
+
+  /**
+   * Returns how quickly positions were visited while choosing the last move.
+   * @return the nodes searched per second.
+   */
+  public double getNodesPerSecond() {
+    return this.search.getNodesPerSecond();
+  }
+}
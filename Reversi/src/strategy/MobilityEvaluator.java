@@ -0,0 +1,17 @@
+package strategy;
+
+import model.ITile;
+import model.ReadOnlyReversi;
+
+/**
+ * Scores a position by how many more legal moves the player has than their opponent. Having
+ * more choices than the opponent tends to lead to better positions later in the game.
+ */
+public class MobilityEvaluator implements IEvaluator {
+
+  @Override
+  public int evaluate(ReadOnlyReversi model, ITile.State color) {
+    return model.countLegalMoves(color)
+            - model.countLegalMoves(DiscCountEvaluator.opponent(color));
+  }
+}
@@ -0,0 +1,397 @@
+package strategy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import model.BoardLayout;
+import model.CubeCoord;
+import model.ISearchableReversi;
+import model.ITile;
+import model.ReadOnlyReversi;
+
+/**
+ * Strategy class which picks moves by Monte Carlo tree search. It plays many games to the end
+ * from the current position, choosing moves at random once past the tree it has built, and grows
+ * the tree by one position per game. Within the tree, each move is chosen by how often games
+ * through it were won, balanced against how rarely it has been tried (UCT). The move picked is
+ * the one tried the most. Unlike alpha-beta, it needs no evaluation function and copes with the
+ * huge number of moves on large boards.
+ * Games are played on a bitboard copy of the position, whatever model is being played. The tree
+ * is kept between moves, so if the position of the next move was already in the tree, the games
+ * played through it are not lost. Games can be played on several threads at once, sharing one
+ * tree; a thread walking through a position counts as a lost game there until its game is done
+ * (a virtual loss), so that the threads spread out over different lines. The extra threads are
+ * started for each move and finished before the move is returned.
+ * The budget is a time or a number of games played per move, where a node budget counts games.
+ */
+public class MonteCarlo extends AStrategy {
+
+  // The move of a pass.
+  private static final int PASS = -1;
+
+  // The weight of trying rarely tried moves against playing moves that have won often.
+  private static final double EXPLORATION = Math.sqrt(2);
+
+  // How much may be spent on each move.
+  private final SearchBudget budget;
+
+  // The number of threads to play games on.
+  private final int threads;
+
+  // The source of randomness, from which each thread's is split.
+  private final SplittableRandom random;
+
+  // Where a report of each move is written, or null if moves are not reported.
+  private final Appendable report;
+
+  // The layout of the board of the tree, and the position the tree grows from, or null if
+  // there is no tree yet.
+  private BoardLayout layout;
+  private Node root;
+
+  // The number of games played through the root from earlier moves when the last move began.
+  private long reused;
+
+  // The number of games played while choosing the last move.
+  private long playouts;
+
+  // The time taken to choose the last move, in nanoseconds.
+  private long nanos;
+
+  /**
+   * Constructs a MonteCarlo strategy with the given budget, playing games on one thread.
+   * @param budget how much may be spent on each move, where a node budget counts games played.
+   */
+  public MonteCarlo(SearchBudget budget) {
+    this(budget, 1, System.nanoTime(), null);
+  }
+
+  /**
+   * Constructs a MonteCarlo strategy playing games on the given number of threads. With one
+   * thread, the same seed always picks the same moves.
+   * @param budget how much may be spent on each move, where a node budget counts games played.
+   * @param threads the number of threads to play games on.
+   * @param seed the seed of the random choices.
+   * @param report where each move is reported, or null to not report moves.
+   * @throws IllegalArgumentException if the number of threads is less than 1.
+   */
+  public MonteCarlo(SearchBudget budget, int threads, long seed, Appendable report) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Must search on at least one thread.");
+    }
+    this.budget = Objects.requireNonNull(budget);
+    this.threads = threads;
+    this.random = new SplittableRandom(seed);
+    this.report = report;
+  }
+
+  @Override
+  public CubeCoord chooseMove(ReadOnlyReversi model, ITile.State color)
+          throws IllegalStateException {
+    if (model.getActiveTurn() != color) {
+      throw new IllegalStateException("Not this player's turn.");
+    }
+    if (!model.hasMoves(color)) {
+      throw new IllegalStateException("No possible moves");
+    }
+    long start = System.nanoTime();
+    long deadline = start + (this.budget.getMillis() * 1_000_000);
+    ISearchableReversi[] games = new ISearchableReversi[this.threads];
+    for (int i = 0; i < this.threads; i++) {
+      games[i] = lightCopy(model);
+    }
+    this.reroot(games[0]);
+    this.reused = this.root.visits;
+    AtomicLong started = new AtomicLong();
+    long played;
+    // the helper threads live only as long as this move, so no strategy holds idle threads
+    ExecutorService helpers = ParallelSearch.startHelpers(this.threads - 1, "reversi-playout");
+    try {
+      List<Future<Long>> running = new ArrayList<>();
+      for (int i = 1; i < this.threads; i++) {
+        ISearchableReversi game = games[i];
+        SplittableRandom rand = this.random.split();
+        running.add(helpers.submit(() -> this.playGames(game, rand, started, deadline)));
+      }
+      played = this.playGames(games[0], this.random, started, deadline);
+      for (Future<Long> helper : running) {
+        try {
+          played += helper.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while searching.");
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("A search thread failed: " + e.getCause());
+        }
+      }
+    } finally {
+      ParallelSearch.stopHelpers(helpers);
+    }
+    this.playouts = played;
+    this.nanos = System.nanoTime() - start;
+    Node best = null;
+    for (int i = 0; i < this.root.childCount; i++) {
+      Node child = this.root.children[i];
+      if (best == null || child.visits > best.visits) {
+        best = child;
+      } else if (child.visits == best.visits) {
+        CubeCoord here = this.layout.coord(child.move);
+        if (this.getUpperLeft(here, this.layout.coord(best.move)) == here) {
+          best = child;
+        }
+      }
+    }
+    this.writeReport(best);
+    return this.layout.coord(best.move);
+  }
+
+  // Makes the root of the tree the position of the given game, keeping the part of the old tree
+  // below that position if it was reached within the last few moves.
+  private void reroot(ISearchableReversi game) {
+    long hash = game.getHash();
+    Node found = null;
+    if (this.root != null && this.layout == game.getLayout()) {
+      // our move, the opponent's move, and a pass by either player
+      found = this.root.find(hash, game.getActiveTurn(), 4);
+    }
+    if (found == null) {
+      found = new Node(null, PASS, flip(game.getActiveTurn()), game);
+    }
+    found.parent = null;
+    this.root = found;
+    this.layout = game.getLayout();
+  }
+
+  // Plays games from the root on the given copy of its position until the budget runs out, and
+  // returns the number played. The count of games started is shared by every thread.
+  private long playGames(ISearchableReversi game, SplittableRandom rand, AtomicLong started,
+                         long deadline) {
+    long played = 0;
+    int[] moves = new int[game.getLayout().size()];
+    // whether each move made since the root was a pass, to undo them in reverse
+    // (every thread plays at least one game, so the root always has a move to pick)
+    boolean[] passes = new boolean[(2 * moves.length) + 2];
+    while (started.getAndIncrement() < this.budget.getNodes()
+            && (played == 0 || !this.budget.isTimed() || System.nanoTime() - deadline < 0)) {
+      int made = 0;
+      Node node;
+      synchronized (this) {
+        node = this.root;
+        while (node.untriedCount == 0 && node.childCount > 0) {
+          node = node.select();
+          node.virtualLosses++;
+          passes[made++] = play(game, node.move);
+        }
+        if (node.untriedCount > 0) {
+          int pick = rand.nextInt(node.untriedCount);
+          int move = node.untried[pick];
+          node.untried[pick] = node.untried[--node.untriedCount];
+          ITile.State mover = game.getActiveTurn();
+          passes[made++] = play(game, move);
+          node = node.addChild(new Node(node, move, mover, game));
+          node.virtualLosses++;
+        }
+      }
+      while (!game.gameOver()) {
+        ITile.State turn = game.getActiveTurn();
+        int count = game.getLegalMoves(turn, moves);
+        passes[made++] = play(game, count == 0 ? PASS : moves[rand.nextInt(count)]);
+      }
+      ITile.State winner = winner(game);
+      while (made > 0) {
+        if (passes[--made]) {
+          game.unmakePass();
+        } else {
+          game.unmakeMove();
+        }
+      }
+      synchronized (this) {
+        for (Node here = node; here != null; here = here.parent) {
+          if (here.parent != null) {
+            here.virtualLosses--;
+          }
+          here.visits++;
+          if (winner == here.mover) {
+            here.wins += 2;
+          } else if (winner == ITile.State.NONE) {
+            here.wins += 1;
+          }
+        }
+      }
+      played++;
+    }
+    return played;
+  }
+
+  // Makes the given move on the given game for the player to move, and returns whether it was
+  // a pass.
+  private static boolean play(ISearchableReversi game, int move) {
+    if (move == PASS) {
+      game.makePass();
+      return true;
+    }
+    game.makeMove(move, game.getActiveTurn());
+    return false;
+  }
+
+  // Returns the winner of the given finished game, or NONE for a draw.
+  private static ITile.State winner(ReadOnlyReversi game) {
+    int margin = game.calcScore(ITile.State.WHITE) - game.calcScore(ITile.State.BLACK);
+    if (margin == 0) {
+      return ITile.State.NONE;
+    }
+    return margin > 0 ? ITile.State.WHITE : ITile.State.BLACK;
+  }
+
+  // Returns the opposing color of the given one.
+  private static ITile.State flip(ITile.State color) {
+    return color == ITile.State.WHITE ? ITile.State.BLACK : ITile.State.WHITE;
+  }
+
+  // Writes a line about the last move chosen to the report, if there is one.
+  private void writeReport(Node best) {
+    if (this.report == null) {
+      return;
+    }
+    try {
+      this.report.append(String.format("monte carlo %d threads %s: %d playouts, %.0f playouts/s,"
+              + " %d reused, best move won %.1f%% of %d%n", this.threads, this.budget,
+              this.playouts, this.getPlayoutsPerSecond(), this.reused,
+              50.0 * best.wins / Math.max(1, best.visits), best.visits));
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not write the search report.");
+    }
+  }
+
+  /**
+   * Returns the number of games played while choosing the last move.
+   * @return the number of playouts.
+   */
+  public long getPlayouts() {
+    return this.playouts;
+  }
+
+  /**
+   * Returns how quickly games were played while choosing the last move, by all the threads
+   * together.
+   * @return the playouts per second, or 0 if no move has been chosen.
+   */
+  public double getPlayoutsPerSecond() {
+    if (this.nanos == 0) {
+      return 0;
+    }
+    return this.playouts * 1e9 / this.nanos;
+  }
+
+  /**
+   * Returns the number of games through the position of the last move that had already been
+   * played while choosing earlier moves.
+   * @return the number of games kept from earlier moves.
+   */
+  public long getReusedPlayouts() {
+    return this.reused;
+  }
+
+  /**
+   * Represents a position in the tree, reached from its parent by one move.
+   */
+  private static final class Node {
+
+    // The position this was reached from, or null for the root.
+    private Node parent;
+
+    // The id of the move reaching this position, or PASS.
+    private final int move;
+
+    // The player who made the move reaching this position.
+    private final ITile.State mover;
+
+    // The hash of this position, and the player to move in it.
+    private final long hash;
+    private final ITile.State turn;
+
+    // The positions reached by the moves tried so far.
+    private Node[] children;
+    private int childCount;
+
+    // The moves not yet tried, in the first untriedCount spaces.
+    private final int[] untried;
+    private int untriedCount;
+
+    // The number of games played through this position, and twice the number won by the mover,
+    // counting a draw as half a win.
+    private long visits;
+    private long wins;
+
+    // The number of games through this position still being played.
+    private int virtualLosses;
+
+    // Builds the position the given game is now in, reached by the given move.
+    private Node(Node parent, int move, ITile.State mover, ISearchableReversi game) {
+      this.parent = parent;
+      this.move = move;
+      this.mover = mover;
+      this.hash = game.getHash();
+      this.turn = game.getActiveTurn();
+      if (game.gameOver()) {
+        this.untried = new int[0];
+      } else {
+        int[] moves = new int[game.getLayout().size()];
+        int count = game.getLegalMoves(this.turn, moves);
+        this.untried = count == 0 ? new int[] {PASS} : Arrays.copyOf(moves, count);
+      }
+      this.untriedCount = this.untried.length;
+      this.children = new Node[this.untried.length];
+    }
+
+    // Adds the given position as reached from this one, and returns it.
+    private Node addChild(Node child) {
+      this.children[this.childCount++] = child;
+      return child;
+    }
+
+    // Returns the child with the best balance of games won and how rarely it has been tried,
+    // counting games still being played through it as lost.
+    private Node select() {
+      double logVisits = Math.log(Math.max(1, this.visits + this.virtualLosses));
+      Node best = null;
+      double bestValue = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < this.childCount; i++) {
+        Node child = this.children[i];
+        long tries = Math.max(1, child.visits + child.virtualLosses);
+        double value = (child.wins / 2.0 / tries) + (EXPLORATION * Math.sqrt(logVisits / tries));
+        if (value > bestValue) {
+          bestValue = value;
+          best = child;
+        }
+      }
+      return best;
+    }
+
+    // Returns the position with the given hash and player to move at most the given number of
+    // moves below this one, or null if there is none.
+    private Node find(long hash, ITile.State turn, int depth) {
+      if (this.hash == hash && this.turn == turn) {
+        return this;
+      }
+      if (depth == 0) {
+        return null;
+      }
+      for (int i = 0; i < this.childCount; i++) {
+        Node found = this.children[i].find(hash, turn, depth - 1);
+        if (found != null) {
+          return found;
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,188 @@
+package strategy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.BoardLayout;
+import model.CubeCoord;
+import model.ReadOnlyReversi;
+
+/**
+ * Sorts the moves of a position into the order a searching strategy should try them, best
+ * first, so that the search cuts off as early as possible. The best move found the last time
+ * the position was searched comes first, if the search knows it. Then come the two most recent
+ * moves to cut off the search at the same ply (killer moves), which are often good again in
+ * sibling positions. The rest are ordered by where their tile is, with corners first, then
+ * other edge tiles, then the middle of the board, and tiles next to a corner last. Moves on the
+ * same kind of tile are ordered by how often and how deeply they have cut off the search before
+ * (their history).
+ * An orderer learns as a search runs, so each thread searching needs its own. The killer moves
+ * are cleared and the history is halved at the start of each search, so that recent searches
+ * count the most.
+ */
+public final class MoveOrderer {
+
+  // The weight of each tier of tile, which outweighs any history.
+  private static final int TIER = 1 << 20;
+
+  // The history at which every history is halved, to keep them below one tier.
+  private static final int HISTORY_LIMIT = TIER / 2;
+
+  // The key of the best move of the last search of a position, and of the killer moves.
+  private static final int HASH_KEY = Integer.MAX_VALUE;
+  private static final int KILLER_KEY = 8 * TIER;
+
+  // The tier of each tile for each layout seen so far.
+  private static final Map<BoardLayout, int[]> TIERS = new ConcurrentHashMap<>();
+
+  // The layout of the board being searched, or null if there has been no search.
+  private BoardLayout layout;
+
+  // The tier of each tile of the board being searched.
+  private int[] tiers;
+
+  // How often and how deep each move has cut off the search, indexed by tile id.
+  private int[] history;
+
+  // The two killer moves of each ply, at (2 * ply) and (2 * ply) + 1, or -1 for none.
+  private int[] killers;
+
+  // The ordering key of each move being sorted.
+  private int[] keys;
+
+  /**
+   * Constructs a MoveOrderer that has not yet seen a search.
+   */
+  public MoveOrderer() {
+    this.killers = new int[0];
+  }
+
+  /**
+   * Readies the orderer for a search of the given game, learning the layout of its board if it
+   * is new to the orderer.
+   * @param model the game about to be searched.
+   */
+  public void prepare(ReadOnlyReversi model) {
+    BoardLayout board = model.getLayout();
+    if (board != this.layout) {
+      this.layout = board;
+      this.tiers = tiersOf(model);
+      this.history = new int[board.size()];
+      this.keys = new int[board.size()];
+    } else {
+      for (int id = 0; id < this.history.length; id++) {
+        this.history[id] /= 2;
+      }
+    }
+    Arrays.fill(this.killers, -1);
+  }
+
+  /**
+   * Sorts the given moves, found at the given ply of the search, best first.
+   * @param moves the ids of the moves, in the first count spaces.
+   * @param count the number of moves.
+   * @param ply the number of moves and passes from the position the search started at.
+   * @param hashMove the best move found the last time this position was searched, or -1.
+   */
+  public void order(int[] moves, int count, int ply, int hashMove) {
+    this.ensurePly(ply);
+    int first = this.killers[2 * ply];
+    int second = this.killers[(2 * ply) + 1];
+    for (int i = 0; i < count; i++) {
+      int move = moves[i];
+      if (move == hashMove) {
+        this.keys[i] = HASH_KEY;
+      } else if (move == first) {
+        this.keys[i] = KILLER_KEY + 1;
+      } else if (move == second) {
+        this.keys[i] = KILLER_KEY;
+      } else {
+        this.keys[i] = (this.tiers[move] * TIER) + this.history[move];
+      }
+    }
+    // sorts by key, highest first, by insertion, as there are only ever a few dozen moves
+    for (int i = 1; i < count; i++) {
+      int move = moves[i];
+      int key = this.keys[i];
+      int j = i - 1;
+      while (j >= 0 && this.keys[j] < key) {
+        moves[j + 1] = moves[j];
+        this.keys[j + 1] = this.keys[j];
+        j--;
+      }
+      moves[j + 1] = move;
+      this.keys[j + 1] = key;
+    }
+  }
+
+  /**
+   * Records that the given move cut off the search at the given ply, making it a killer move of
+   * that ply and adding to its history.
+   * @param move the id of the move.
+   * @param ply the number of moves and passes from the position the search started at.
+   * @param depth the depth the move was searched to, where deeper cutoffs count for more.
+   */
+  public void recordCutoff(int move, int ply, int depth) {
+    this.ensurePly(ply);
+    if (this.killers[2 * ply] != move) {
+      this.killers[(2 * ply) + 1] = this.killers[2 * ply];
+      this.killers[2 * ply] = move;
+    }
+    this.history[move] += depth * depth;
+    if (this.history[move] > HISTORY_LIMIT) {
+      for (int id = 0; id < this.history.length; id++) {
+        this.history[id] /= 2;
+      }
+    }
+  }
+
+  // Makes room for the killer moves of the given ply, which only allocates the first time a
+  // search reaches that ply.
+  private void ensurePly(int ply) {
+    if (2 * ply >= this.killers.length) {
+      int old = this.killers.length;
+      this.killers = Arrays.copyOf(this.killers, 4 * (ply + 1));
+      Arrays.fill(this.killers, old, this.killers.length, -1);
+    }
+  }
+
+  // Returns the tier of each tile of the given game's board: 3 for corners, 2 for other edge
+  // tiles, 1 for the rest, and 0 for tiles next to a corner, which hand the corner over.
+  private static int[] tiersOf(ReadOnlyReversi model) {
+    BoardLayout layout = model.getLayout();
+    int[] tiers = TIERS.get(layout);
+    if (tiers != null) {
+      return tiers;
+    }
+    int[] rows = layout.isHex() ? new int[] {-1, -1, 0, 1, 1, 0}
+            : new int[] {-1, 0, 1, 1, 1, 0, -1, -1};
+    int[] cols = layout.isHex() ? new int[] {0, 1, 1, 0, -1, -1}
+            : new int[] {1, 1, 1, 0, -1, -1, -1, 0};
+    tiers = new int[layout.size()];
+    for (int id = 0; id < layout.size(); id++) {
+      tiers[id] = 1;
+      for (int dir = 0; dir < rows.length; dir++) {
+        if (layout.id(layout.row(id) + rows[dir], layout.col(id) + cols[dir]) < 0) {
+          tiers[id] = 2;
+        }
+      }
+    }
+    List<CubeCoord> corners = model.getCorners();
+    for (CubeCoord corner : corners) {
+      int id = layout.id(corner);
+      for (int dir = 0; dir < rows.length; dir++) {
+        int next = layout.id(layout.row(id) + rows[dir], layout.col(id) + cols[dir]);
+        if (next >= 0) {
+          tiers[next] = 0;
+        }
+      }
+    }
+    for (CubeCoord corner : corners) {
+      tiers[layout.id(corner)] = 3;
+    }
+    TIERS.put(layout, tiers);
+    return tiers;
+  }
+}
@@ -0,0 +1,206 @@
+package strategy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import model.BoardLayout;
+import model.ReadOnlyReversi;
+
+/**
+ * Represents a book of the best move from each position of the opening of a game on one board,
+ * found ahead of time by an OpeningBookBuilder. Positions are keyed by their canonical hash (see
+ * BoardLayout), so a position and all its rotations and reflections share one entry, whose move
+ * is stored as it would be played in the canonical position. Looking up a position finds its
+ * canonical symmetry, searches the sorted hashes by bisection, and moves the stored move back
+ * onto the board, which takes microseconds.
+ * A book is saved as a compact binary file: a header giving the board and the number of plies
+ * the book covers, followed by each entry as an 8-byte hash and a 2-byte tile id, in order of
+ * hash. A book never changes once made, so one book may be shared by any number of players and
+ * threads.
+ */
+public final class OpeningBook {
+
+  // The first four bytes of every book file, "RVBK".
+  private static final int MAGIC = 0x5256424b;
+
+  // The version of the file format.
+  private static final int VERSION = 1;
+
+  // The layout of the board the book is for.
+  private final BoardLayout layout;
+
+  // The number of plies from the start of the game the book covers.
+  private final int plies;
+
+  // The canonical hash of each position, in increasing order.
+  private final long[] hashes;
+
+  // The id of the best move of each position, as played in its canonical position.
+  private final short[] moves;
+
+  /**
+   * Constructs an OpeningBook from the given entries.
+   * @param layout the layout of the board the book is for.
+   * @param plies the number of plies from the start of the game the book covers.
+   * @param entries the id of the best move of each position, as played in its canonical
+   *                position, keyed by its canonical hash.
+   * @throws IllegalArgumentException if a move is not a tile of the board.
+   */
+  public OpeningBook(BoardLayout layout, int plies, Map<Long, Integer> entries) {
+    this.layout = layout;
+    this.plies = plies;
+    this.hashes = new long[entries.size()];
+    this.moves = new short[entries.size()];
+    int i = 0;
+    for (Map.Entry<Long, Integer> entry : new TreeMap<>(entries).entrySet()) {
+      if (entry.getValue() < 0 || entry.getValue() >= layout.size()) {
+        throw new IllegalArgumentException("Invalid book move.");
+      }
+      this.hashes[i] = entry.getKey();
+      this.moves[i] = (short) (int) entry.getValue();
+      i++;
+    }
+  }
+
+  // Constructs an OpeningBook from entries already in order of hash.
+  private OpeningBook(BoardLayout layout, int plies, long[] hashes, short[] moves) {
+    this.layout = layout;
+    this.plies = plies;
+    this.hashes = hashes;
+    this.moves = moves;
+  }
+
+  /**
+   * Returns the book's best move for the player to move in the given game.
+   * @param model the game to find a move for.
+   * @return the id of the move, or -1 if the position is not in the book or the game is on a
+   *         different board.
+   */
+  public int lookup(ReadOnlyReversi model) {
+    if (model.getLayout() != this.layout) {
+      return -1;
+    }
+    int symmetry = this.layout.canonicalSymmetry(model);
+    int index = Arrays.binarySearch(this.hashes, this.layout.hashOf(model, symmetry));
+    if (index < 0) {
+      return -1;
+    }
+    return this.layout.preimage(symmetry, this.moves[index]);
+  }
+
+  /**
+   * Reads a book from the given file.
+   * @param file the file written by write.
+   * @return the book.
+   * @throws IllegalArgumentException if the file cannot be read or is not a book.
+   */
+  public static OpeningBook read(Path file) {
+    try (InputStream in = Files.newInputStream(file)) {
+      return read(in);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Could not read the opening book " + file + ": "
+              + e.getMessage());
+    }
+  }
+
+  /**
+   * Reads a book from the given stream, leaving it open.
+   * @param stream the bytes written by write.
+   * @return the book.
+   * @throws IOException if the stream cannot be read.
+   * @throws IllegalArgumentException if the stream does not hold a book.
+   */
+  public static OpeningBook read(InputStream stream) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      throw new IllegalArgumentException("Not an opening book.");
+    }
+    boolean hex = in.readBoolean();
+    int size = in.readInt();
+    BoardLayout layout = hex ? BoardLayout.hex(size) : BoardLayout.square(size);
+    int plies = in.readInt();
+    int count = in.readInt();
+    if (count < 0) {
+      throw new IllegalArgumentException("Not an opening book.");
+    }
+    long[] hashes = new long[count];
+    short[] moves = new short[count];
+    for (int i = 0; i < count; i++) {
+      hashes[i] = in.readLong();
+      moves[i] = in.readShort();
+      if ((i > 0 && hashes[i] <= hashes[i - 1]) || moves[i] < 0 || moves[i] >= layout.size()) {
+        throw new IllegalArgumentException("Not an opening book.");
+      }
+    }
+    return new OpeningBook(layout, plies, hashes, moves);
+  }
+
+  /**
+   * Writes the book to the given file, replacing anything already there.
+   * @param file the file to write.
+   * @throws IllegalStateException if the file cannot be written.
+   */
+  public void write(Path file) {
+    try (OutputStream out = Files.newOutputStream(file)) {
+      this.write(out);
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not write the opening book " + file + ": "
+              + e.getMessage());
+    }
+  }
+
+  /**
+   * Writes the book to the given stream, leaving it open.
+   * @param stream where the book is written.
+   * @throws IOException if the stream cannot be written.
+   */
+  public void write(OutputStream stream) throws IOException {
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeBoolean(this.layout.isHex());
+    // a hexagonal layout is made from its number of rings, and a square one from its width
+    out.writeInt(this.layout.isHex() ? this.layout.buffer() : this.layout.width());
+    out.writeInt(this.plies);
+    out.writeInt(this.hashes.length);
+    for (int i = 0; i < this.hashes.length; i++) {
+      out.writeLong(this.hashes[i]);
+      out.writeShort(this.moves[i]);
+    }
+    out.flush();
+  }
+
+  /**
+   * Returns the layout of the board the book is for.
+   * @return the layout.
+   */
+  public BoardLayout getLayout() {
+    return this.layout;
+  }
+
+  /**
+   * Returns the number of plies from the start of the game the book covers.
+   * @return the number of plies.
+   */
+  public int getPlies() {
+    return this.plies;
+  }
+
+  /**
+   * Returns the number of positions in the book.
+   * @return the number of entries.
+   */
+  public int size() {
+    return this.hashes.length;
+  }
+}
@@ -0,0 +1,153 @@
+package strategy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import model.BoardLayout;
+import model.ISearchableReversi;
+import model.ITile;
+import model.ReadOnlyReversi;
+
+/**
+ * Builds an OpeningBook by searching every position reachable in the first few plies of a game
+ * with a strong strategy. The opening tree is expanded one ply at a time: every legal move of
+ * every position at one ply leads to a position at the next, and positions that are symmetries
+ * of a position already seen are dropped, so each is searched once. The positions of each ply
+ * are searched in parallel on a work-stealing pool made for each build, where each thread keeps
+ * its own instance of the strategy until the build ends. As every move is expanded, the number
+ * of positions grows exponentially with the number of plies.
+ */
+public final class OpeningBookBuilder {
+
+  // Makes an instance of the strategy used to find the best move of each position.
+  private final Supplier<IStrategy> search;
+
+  // The number of plies from the start of the game the book covers.
+  private final int plies;
+
+  // The number of positions searched at once.
+  private final int threads;
+
+  // The number of positions searched by the last build.
+  private int searched;
+
+  /**
+   * Constructs an OpeningBookBuilder.
+   * @param search makes a new instance of the strategy used to find the best move of each
+   *               position, and may be called from any thread.
+   * @param plies the number of plies from the start of the game the book covers.
+   * @param threads the number of positions searched at once.
+   * @throws IllegalArgumentException if the number of plies or threads is less than 1.
+   */
+  public OpeningBookBuilder(Supplier<IStrategy> search, int plies, int threads) {
+    if (plies < 1) {
+      throw new IllegalArgumentException("A book must cover at least one ply.");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("Must search on at least one thread.");
+    }
+    this.search = Objects.requireNonNull(search);
+    this.plies = plies;
+    this.threads = threads;
+  }
+
+  /**
+   * Builds a book of the positions reachable from the given game in this builder's number of
+   * plies. A ply in which the player to move must pass adds no entry but still counts.
+   * @param start the game whose position the book starts from, usually a new game.
+   * @return the book.
+   * @throws IllegalStateException if a search fails.
+   */
+  public OpeningBook build(ReadOnlyReversi start) {
+    BoardLayout layout = start.getLayout();
+    ThreadLocal<IStrategy> strategies = ThreadLocal.withInitial(this.search);
+    // the pool lives only as long as the build, and its threads' strategies with it
+    ForkJoinPool pool = new ForkJoinPool(this.threads);
+    try {
+      Map<Long, Integer> entries = new HashMap<>();
+      List<ISearchableReversi> level = new ArrayList<>();
+      level.add(AStrategy.lightCopy(start));
+      int[] moves = new int[layout.size()];
+      this.searched = 0;
+      for (int ply = 0; ply < this.plies && !level.isEmpty(); ply++) {
+        // the new positions of this ply, and the symmetry giving each its canonical hash
+        List<ISearchableReversi> fresh = new ArrayList<>();
+        List<Integer> symmetries = new ArrayList<>();
+        List<ISearchableReversi> next = new ArrayList<>();
+        for (ISearchableReversi game : level) {
+          if (game.gameOver()) {
+            continue;
+          }
+          if (!game.hasMoves(game.getActiveTurn())) {
+            ISearchableReversi passed = game.copyForSearch();
+            passed.makePass();
+            next.add(passed);
+            continue;
+          }
+          int symmetry = layout.canonicalSymmetry(game);
+          long hash = layout.hashOf(game, symmetry);
+          if (!entries.containsKey(hash)) {
+            // a placeholder, so that the position is searched only once
+            entries.put(hash, -1);
+            fresh.add(game);
+            symmetries.add(symmetry);
+          }
+        }
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (ISearchableReversi game : fresh) {
+          tasks.add(() -> layout.id(strategies.get().chooseMove(game, game.getActiveTurn())));
+        }
+        List<Future<Integer>> found = pool.invokeAll(tasks);
+        for (int i = 0; i < fresh.size(); i++) {
+          ISearchableReversi game = fresh.get(i);
+          int symmetry = symmetries.get(i);
+          entries.put(layout.hashOf(game, symmetry),
+                  layout.image(symmetry, this.get(found.get(i))));
+          if (ply + 1 < this.plies) {
+            ITile.State turn = game.getActiveTurn();
+            int count = game.getLegalMoves(turn, moves);
+            for (int m = 0; m < count; m++) {
+              ISearchableReversi child = game.copyForSearch();
+              child.makeMove(moves[m], turn);
+              next.add(child);
+            }
+          }
+        }
+        this.searched += fresh.size();
+        level = next;
+      }
+      return new OpeningBook(layout, this.plies, entries);
+    } finally {
+      ParallelSearch.stopHelpers(pool);
+    }
+  }
+
+  // Returns the move found by the given search, once it has finished.
+  private int get(Future<Integer> search) {
+    try {
+      return search.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while building the book.");
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A search failed: " + e.getCause());
+    }
+  }
+
+  /**
+   * Returns the number of positions searched by the last build, which is the number of entries
+   * in the book it built.
+   * @return the number of positions searched.
+   */
+  public int getSearched() {
+    return this.searched;
+  }
+}
@@ -0,0 +1,293 @@
+package strategy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import model.CubeCoord;
+import model.ISearchableReversi;
+import model.ITile;
+import model.ReadOnlyReversi;
+
+/**
+ * Strategy class which runs iterative deepening alpha-beta searches on several threads at once,
+ * all sharing one transposition table (Lazy SMP). Every thread searches the same position on its
+ * own search copy; the threads do not divide the work between them, but each one finds positions
+ * in the table that the others have already searched, which lets them all finish each depth
+ * sooner. Every other thread starts one move deeper, so that the threads are spread over two
+ * depths. The move picked is the best move of the deepest search that finished on any thread.
+ * The searches stop when the budget runs out, or as soon as any thread finishes the maximum
+ * depth. The shared table's statistics are approximate, as the threads update them without
+ * locking. The extra threads are started for each move and finished before the move is
+ * returned, so an unused strategy holds no threads.
+ */
+public class ParallelSearch extends AStrategy {
+
+  // The size of the table used when none is given, in megabytes.
+  static final int DEFAULT_TABLE_MEGABYTES = 64;
+
+  // The search run by each thread, where the first runs on the thread choosing the move.
+  private final AlphaBeta[] searches;
+
+  // How much may be spent on each move.
+  private final SearchBudget budget;
+
+  // The deepest search that will be run.
+  private final int maxDepth;
+
+  // The table shared by every thread, or null if positions are not remembered.
+  private final TranspositionTable table;
+
+  // Where a report of each move is written, or null if moves are not reported.
+  private final Appendable report;
+
+  // The deepest search that finished on each thread, and the best move it found.
+  private final int[] completed;
+  private final int[] bestMoves;
+
+  // The deepest search that finished while choosing the last move.
+  private int completedDepth;
+
+  // The time taken to choose the last move, in nanoseconds.
+  private long nanos;
+
+  /**
+   * Constructs a ParallelSearch strategy using the given number of threads and budget, that
+   * scores positions with the standard weighted evaluator and shares a table of the default
+   * size.
+   * @param threads the number of threads to search on.
+   * @param budget how much may be spent on each move.
+   * @throws IllegalArgumentException if the number of threads is less than 1.
+   */
+  public ParallelSearch(int threads, SearchBudget budget) {
+    this(threads, budget, Integer.MAX_VALUE, WeightedEvaluator.standard(),
+            new TranspositionTable(DEFAULT_TABLE_MEGABYTES), null);
+  }
+
+  /**
+   * Constructs a ParallelSearch strategy that shares the given table between its threads, which
+   * is kept from move to move, and that reports each move it chooses to the given output.
+   * @param threads the number of threads to search on.
+   * @param budget how much may be spent on each move. A node budget is split evenly between the
+   *               threads.
+   * @param maxDepth the deepest search to run, after which the move is picked even if budget
+   *                 remains.
+   * @param evaluator the evaluation of positions at the end of each line.
+   * @param table the table shared between the threads, or null to not use one.
+   * @param report where each move is reported, or null to not report moves.
+   * @throws IllegalArgumentException if the number of threads or the maximum depth is less
+   *         than 1.
+   */
+  public ParallelSearch(int threads, SearchBudget budget, int maxDepth, IEvaluator evaluator,
+                        TranspositionTable table, Appendable report) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Must search on at least one thread.");
+    }
+    if (maxDepth < 1) {
+      throw new IllegalArgumentException("Search depth must be at least 1.");
+    }
+    this.budget = Objects.requireNonNull(budget);
+    this.maxDepth = maxDepth;
+    this.table = table;
+    this.report = report;
+    this.searches = new AlphaBeta[threads];
+    for (int i = 0; i < threads; i++) {
+      this.searches[i] = new AlphaBeta(1, evaluator, table, new MoveOrderer(), null);
+    }
+    this.completed = new int[threads];
+    this.bestMoves = new int[threads];
+  }
+
+  @Override
+  public CubeCoord chooseMove(ReadOnlyReversi model, ITile.State color)
+          throws IllegalStateException {
+    long start = System.nanoTime();
+    long deadline = start + (this.budget.getMillis() * 1_000_000);
+    long nodes = Math.max(1, this.budget.getNodes() / this.searches.length);
+    // no line of play is longer than the number of empty tiles
+    int empty = model.getLayout().size() - model.calcScore(ITile.State.BLACK)
+            - model.calcScore(ITile.State.WHITE);
+    int depthLimit = Math.max(1, Math.min(this.maxDepth, empty));
+    AtomicBoolean stop = new AtomicBoolean();
+    // the copies are made here, as copying may fill in state the model has not yet found
+    ISearchableReversi[] games = new ISearchableReversi[this.searches.length];
+    for (int i = 0; i < this.searches.length; i++) {
+      games[i] = this.searches[i].beginSearch(model, color);
+    }
+    // the helper threads live only as long as this move, so no strategy holds idle threads
+    ExecutorService helpers = startHelpers(this.searches.length - 1, "reversi-search");
+    try {
+      List<Future<?>> running = new ArrayList<>();
+      for (int i = 1; i < this.searches.length; i++) {
+        int thread = i;
+        running.add(helpers.submit(() -> this.deepen(thread, games[thread], color, depthLimit,
+                nodes, deadline, stop)));
+      }
+      this.deepen(0, games[0], color, depthLimit, nodes, deadline, stop);
+      stop.set(true);
+      for (Future<?> helper : running) {
+        try {
+          helper.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while searching.");
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("A search thread failed: " + e.getCause());
+        }
+      }
+    } finally {
+      stop.set(true);
+      stopHelpers(helpers);
+    }
+    this.nanos = System.nanoTime() - start;
+    int picked = 0;
+    for (int i = 1; i < this.searches.length; i++) {
+      if (this.completed[i] > this.completed[picked]) {
+        picked = i;
+      }
+    }
+    this.completedDepth = this.completed[picked];
+    this.writeReport();
+    return games[0].getLayout().coord(this.bestMoves[picked]);
+  }
+
+  // Runs deeper and deeper searches on the given thread's search copy, recording the best move
+  // of each that finishes, until the budget runs out, the searches are stopped or the depth
+  // limit is reached.
+  private void deepen(int thread, ISearchableReversi game, ITile.State color, int depthLimit,
+                      long nodes, long deadline, AtomicBoolean stop) {
+    AlphaBeta search = this.searches[thread];
+    int best = search.searchRoot(game, color, 1, -1);
+    this.completed[thread] = 1;
+    this.bestMoves[thread] = best;
+    // the first search always finishes, so every thread has a move to offer
+    search.setBudget(nodes, this.budget.isTimed(), deadline);
+    search.setStop(stop);
+    // every other thread starts a move deeper, spreading the threads over two depths
+    for (int depth = 2 + (thread % 2); depth <= depthLimit && !stop.get(); depth++) {
+      int found = search.searchRoot(game, color, depth, best);
+      if (found < 0) {
+        break;
+      }
+      best = found;
+      this.completed[thread] = depth;
+      this.bestMoves[thread] = best;
+    }
+    if (this.completed[thread] >= depthLimit) {
+      stop.set(true);
+    }
+    search.endSearch();
+  }
+
+  // Returns a pool of the given number of daemon threads with the given name, or null if the
+  // number is 0.
+  static ExecutorService startHelpers(int count, String name) {
+    if (count == 0) {
+      return null;
+    }
+    return Executors.newFixedThreadPool(count, runnable -> {
+      Thread thread = new Thread(runnable, name);
+      // helper threads never keep the program running
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  // Shuts down the given pool, if there is one, and waits for its threads to finish their work.
+  static void stopHelpers(ExecutorService helpers) {
+    if (helpers == null) {
+      return;
+    }
+    helpers.shutdown();
+    try {
+      // the helpers stop by the end of the budget, or as soon as the searches are stopped
+      helpers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      helpers.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // Writes a line about the last move chosen to the report, if there is one.
+  private void writeReport() {
+    if (this.report == null) {
+      return;
+    }
+    try {
+      this.report.append(String.format("parallel search %d threads %s depth %d: %d nodes, "
+              + "%.0f nodes/s", this.searches.length, this.budget, this.completedDepth,
+              this.getNodes(), this.getNodesPerSecond()));
+      if (this.table != null) {
+        this.report.append(String.format(", table hits %.1f%%, fill %.1f%%",
+                100 * this.table.getHitRate(), 100 * this.table.getFill()));
+      }
+      this.report.append(System.lineSeparator());
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not write the search report.");
+    }
+  }
+
+  /**
+   * Returns the number of threads this strategy searches on.
+   * @return the number of threads.
+   */
+  public int getThreads() {
+    return this.searches.length;
+  }
+
+  /**
+   * Returns the depth of the deepest search that finished on any thread while choosing the last
+   * move.
+   * @return the depth reached, or 0 if no move has been chosen.
+   */
+  public int getCompletedDepth() {
+    return this.completedDepth;
+  }
+
+  /**
+   * Returns the number of positions visited by every thread while choosing the last move.
+   * @return the number of nodes searched.
+   */
+  public long getNodes() {
+    long nodes = 0;
+    for (AlphaBeta search : this.searches) {
+      nodes += search.getNodes();
+    }
+    return nodes;
+  }
+
+  /**
+   * Returns how quickly positions were visited by all the threads together while choosing the
+   * last move.
+   * @return the nodes searched per second, or 0 if no move has been chosen.
+   */
+  public double getNodesPerSecond() {
+    if (this.nanos == 0) {
+      return 0;
+    }
+    return this.getNodes() * 1e9 / this.nanos;
+  }
+
+  /**
+   * Returns the time taken to choose the last move.
+   * @return the time in nanoseconds, or 0 if no move has been chosen.
+   */
+  public long getNanos() {
+    return this.nanos;
+  }
+
+  /**
+   * Returns the table shared by the threads.
+   * @return the table, or null if positions are not remembered.
+   */
+  public TranspositionTable getTable() {
+    return this.table;
+  }
+}
@@ -0,0 +1,185 @@
+package strategy;
+
+import java.util.Objects;
+
+import model.CubeCoord;
+import model.ISearchableReversi;
+import model.ITile;
+import model.ReadOnlyReversi;
+
+/**
+ * Strategy class which runs principal variation searches one move deeper at a time until its
+ * budget runs out, and picks the best move of the deepest search that finished. Within each
+ * search, the first move of every position is searched with the full window, and the rest are
+ * only searched with it if a null window shows they beat the first (principal variation search).
+ * Each search after the first starts with a narrow window around the score of the one before
+ * (an aspiration window). If the score falls outside it, the search is run again with a window
+ * four times as wide on that side, until the score is inside it or the window is unbounded.
+ * Searches give the same moves and scores as an alpha-beta search of the same depth, while
+ * visiting fewer nodes.
+ */
+public class PrincipalVariation extends AStrategy {
+
+  // The distance from the last score to each end of the first aspiration window.
+  static final int ASPIRATION = 16;
+
+  // How many times wider a window is made after the score falls outside it.
+  private static final int WIDEN = 4;
+
+  // The search run at each depth.
+  private final AlphaBeta search;
+
+  // How much may be spent on each move.
+  private final SearchBudget budget;
+
+  // The deepest search that will be run.
+  private final int maxDepth;
+
+  // The table of positions searched, or null if positions are not remembered.
+  private final TranspositionTable table;
+
+  // The deepest search that finished while choosing the last move.
+  private int completedDepth;
+
+  // The number of times the score fell outside the aspiration window while choosing the last
+  // move.
+  private int failures;
+
+  /**
+   * Constructs a PrincipalVariation strategy with the given budget, that scores positions with
+   * the standard weighted evaluator and remembers them in a table of the default size.
+   * @param budget how much may be spent on each move.
+   */
+  public PrincipalVariation(SearchBudget budget) {
+    this(budget, Integer.MAX_VALUE, WeightedEvaluator.standard(),
+            new TranspositionTable(IterativeDeepening.DEFAULT_TABLE_MEGABYTES), null);
+  }
+
+  /**
+   * Constructs a PrincipalVariation strategy that remembers positions in the given table, which
+   * is kept from move to move, and reports each move it chooses to the given output.
+   * @param budget how much may be spent on each move.
+   * @param maxDepth the deepest search to run, after which the move is picked even if budget
+   *                 remains.
+   * @param evaluator the evaluation of positions at the end of each line.
+   * @param table the table of positions searched, or null to not use one.
+   * @param report where each move is reported, or null to not report moves.
+   * @throws IllegalArgumentException if the maximum depth is less than 1.
+   */
+  public PrincipalVariation(SearchBudget budget, int maxDepth, IEvaluator evaluator,
+                            TranspositionTable table, Appendable report) {
+    if (maxDepth < 1) {
+      throw new IllegalArgumentException("Search depth must be at least 1.");
+    }
+    this.budget = Objects.requireNonNull(budget);
+    this.maxDepth = maxDepth;
+    this.table = table;
+    this.search = new AlphaBeta(1, evaluator, table, new MoveOrderer(), report);
+    this.search.setPrincipalVariation(true);
+  }
+
+  @Override
+  public CubeCoord chooseMove(ReadOnlyReversi model, ITile.State color)
+          throws IllegalStateException {
+    long deadline = System.nanoTime() + (this.budget.getMillis() * 1_000_000);
+    ISearchableReversi game = this.search.beginSearch(model, color);
+    // no line of play is longer than the number of empty tiles
+    int empty = game.getLayout().size() - game.calcScore(ITile.State.BLACK)
+            - game.calcScore(ITile.State.WHITE);
+    int depthLimit = Math.max(1, Math.min(this.maxDepth, empty));
+    int best = this.search.searchRoot(game, color, 1, -1);
+    this.completedDepth = 1;
+    this.failures = 0;
+    this.search.setBudget(this.budget.getNodes(), this.budget.isTimed(), deadline);
+    for (int depth = 2; depth <= depthLimit; depth++) {
+      int found = this.aspire(game, color, depth, best);
+      if (found < 0) {
+        break;
+      }
+      best = found;
+      this.completedDepth = depth;
+    }
+    this.search.endSearch();
+    this.search.writeReport("principal variation " + this.budget + " depth "
+            + this.completedDepth + ", aspiration failures " + this.failures);
+    return game.getLayout().coord(best);
+  }
+
+  // Searches to the given depth within windows around the last score, widening the side the
+  // score falls out of until it is inside, and returns the id of the best move, or -1 if the
+  // budget ran out.
+  private int aspire(ISearchableReversi game, ITile.State color, int depth, int first) {
+    int last = this.search.getLastScore();
+    long below = ASPIRATION;
+    long above = ASPIRATION;
+    while (true) {
+      int alpha = (int) Math.max(-AlphaBeta.INFINITY, last - below);
+      int beta = (int) Math.min(AlphaBeta.INFINITY, last + above);
+      int found = this.search.searchRoot(game, color, depth, first, alpha, beta);
+      if (found < 0) {
+        return -1;
+      }
+      int score = this.search.getLastScore();
+      if (score <= alpha && alpha > -AlphaBeta.INFINITY) {
+        below *= WIDEN;
+      } else if (score >= beta && beta < AlphaBeta.INFINITY) {
+        above *= WIDEN;
+        // the move that beat the window is likely the best, so it is tried first next time
+        first = found;
+      } else {
+        return found;
+      }
+      this.failures++;
+    }
+  }
+
+  /**
+   * Returns the depth of the deepest search that finished while choosing the last move.
+   * @return the depth reached, or 0 if no move has been chosen.
+   */
+  public int getCompletedDepth() {
+    return this.completedDepth;
+  }
+
+  /**
+   * Returns the number of times a search had to be run again because its score fell outside
+   * the aspiration window, while choosing the last move.
+   * @return the number of aspiration failures.
+   */
+  public int getAspirationFailures() {
+    return this.failures;
+  }
+
+  /**
+   * Returns the number of moves searched again with a full window after a null window, over
+   * every search run while choosing the last move.
+   * @return the number of re-searches.
+   */
+  public long getResearches() {
+    return this.search.getResearches();
+  }
+
+  /**
+   * Returns the table of positions searched.
+   * @return the table, or null if positions are not remembered.
+   */
+  public TranspositionTable getTable() {
+    return this.table;
+  }
+
+  /**
+   * Returns the number of positions visited while choosing the last move, over every depth.
+   * @return the number of nodes searched.
+   */
+  public long getNodes() {
+    return this.search.getNodes();
+  }
+
+  /**
+   * Returns how quickly positions were visited while choosing the last move.
+   * @return the nodes searched per second.
+   */
+  public double getNodesPerSecond() {
+    return this.search.getNodesPerSecond();
+  }
+}
@@ -0,0 +1,98 @@
+package strategy;
+
+/**
+ * Represents how much a search may spend choosing one move: a wall-clock time, a number of
+ * positions visited, or both, whichever runs out first.
+ */
+public final class SearchBudget {
+
+  // The time allowed, in milliseconds, or 0 for no time limit.
+  private final long millis;
+
+  // The number of nodes allowed, or 0 for no node limit.
+  private final long nodes;
+
+  // Builds a budget from its limits, where 0 means no limit.
+  private SearchBudget(long millis, long nodes) {
+    if (millis < 0 || nodes < 0 || (millis == 0 && nodes == 0)) {
+      throw new IllegalArgumentException("Invalid search budget.");
+    }
+    this.millis = millis;
+    this.nodes = nodes;
+  }
+
+  /**
+   * Returns a budget of the given wall-clock time per move.
+   * @param millis the time allowed, in milliseconds.
+   * @return the budget.
+   * @throws IllegalArgumentException if the time is not positive.
+   */
+  public static SearchBudget ofMillis(long millis) {
+    return new SearchBudget(millis, 0);
+  }
+
+  /**
+   * Returns a budget of the given number of positions visited per move. Unlike a time budget,
+   * this gives the same moves on any machine.
+   * @param nodes the number of nodes allowed.
+   * @return the budget.
+   * @throws IllegalArgumentException if the number of nodes is not positive.
+   */
+  public static SearchBudget ofNodes(long nodes) {
+    return new SearchBudget(0, nodes);
+  }
+
+  /**
+   * Reads a budget from a command-line player specification: a number of milliseconds such as
+   * "500" or "500ms", or a number of nodes such as "100000nodes".
+   * @param spec the budget as text.
+   * @return the budget.
+   * @throws IllegalArgumentException if the text is not a valid budget.
+   */
+  public static SearchBudget parse(String spec) {
+    try {
+      if (spec.endsWith("nodes")) {
+        return ofNodes(Long.parseLong(spec.substring(0, spec.length() - 5)));
+      } else if (spec.endsWith("ms")) {
+        return ofMillis(Long.parseLong(spec.substring(0, spec.length() - 2)));
+      }
+      return ofMillis(Long.parseLong(spec));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid search budget.");
+    }
+  }
+
+  /**
+   * Returns whether this budget limits the time spent.
+   * @return true if there is a time limit.
+   */
+  public boolean isTimed() {
+    return this.millis > 0;
+  }
+
+  /**
+   * Returns the time allowed per move.
+   * @return the time in milliseconds, or 0 if there is no time limit.
+   */
+  public long getMillis() {
+    return this.millis;
+  }
+
+  /**
+   * Returns the number of positions that may be visited per move.
+   * @return the number of nodes, or Long.MAX_VALUE if there is no node limit.
+   */
+  public long getNodes() {
+    return this.nodes == 0 ? Long.MAX_VALUE : this.nodes;
+  }
+
+  @Override
+  public String toString() {
+    if (this.millis == 0) {
+      return this.nodes + "nodes";
+    } else if (this.nodes == 0) {
+      return this.millis + "ms";
+    }
+    return this.millis + "ms/" + this.nodes + "nodes";
+  }
+}
@@ -0,0 +1,253 @@
+package strategy;
+
+import java.util.Arrays;
+
+/**
+ * Represents a fixed-size table of positions already searched, keyed by their Zobrist hash, so a
+ * search reaching the same position through a different order of moves can reuse the result.
+ * The table is stored in two primitive arrays holding a power-of-two number of entries, and
+ * allocates nothing after construction. Each entry packs the depth searched, whether the score
+ * is exact or a bound, the score, and the id of the best move found into one long.
+ * Entries are grouped into buckets of two: the first slot keeps whichever entry was searched
+ * deepest, and the second always takes the newest entry that did not replace the first.
+ * Each slot holds the hash exclusive or'ed with its entry, so a slot whose two longs were
+ * written by different stores never matches a probe.
+ */
+public final class TranspositionTable {
+
+  /**
+   * The bound type of an entry whose score is the exact score of the position.
+   */
+  public static final int EXACT = 1;
+
+  /**
+   * The bound type of an entry whose score is at most the score of the position, found when the
+   * search was cut off by a move at least as good as the window allowed.
+   */
+  public static final int LOWER = 2;
+
+  /**
+   * The bound type of an entry whose score is at least the score of the position, found when no
+   * move reached the bottom of the window.
+   */
+  public static final int UPPER = 3;
+
+  // The number of bytes used by each entry: a long for the checked hash and one for the entry.
+  private static final int ENTRY_BYTES = 16;
+
+  // The hash exclusive or'ed with the entry of each slot, or 0 for an empty slot.
+  private final long[] checks;
+
+  // The entry of each slot, where slots (2 * bucket) and (2 * bucket) + 1 make up a bucket.
+  private final long[] entries;
+
+  // The number of buckets less one, used to find the bucket of a hash.
+  private final int mask;
+
+  // The number of slots holding an entry.
+  private long used;
+
+  // The number of probes, and how many found their position.
+  private long probes;
+  private long hits;
+
+  // The number of probes of a bucket whose slots were both holding other positions.
+  private long collisions;
+
+  // The number of entries stored.
+  private long stores;
+
+  /**
+   * Constructs an empty table using at most the given number of megabytes. The table holds the
+   * largest power of two entries that fit.
+   * @param megabytes the memory the table may use.
+   * @throws IllegalArgumentException if the size is less than 1 megabyte, or too large to hold
+   *         in an array.
+   */
+  public TranspositionTable(int megabytes) {
+    if (megabytes < 1 || megabytes > 16384) {
+      throw new IllegalArgumentException("Invalid table size.");
+    }
+    long slots = Long.highestOneBit(((long) megabytes << 20) / ENTRY_BYTES);
+    this.checks = new long[(int) slots];
+    this.entries = new long[(int) slots];
+    this.mask = (int) (slots / 2) - 1;
+  }
+
+  /**
+   * Looks up the given position.
+   * @param hash the Zobrist hash of the position.
+   * @return the entry stored for the position, or 0 if there is none.
+   */
+  public long probe(long hash) {
+    this.probes++;
+    int slot = this.bucketOf(hash);
+    for (int i = slot; i < slot + 2; i++) {
+      long entry = this.entries[i];
+      if ((this.checks[i] ^ entry) == hash && entry != 0) {
+        this.hits++;
+        return entry;
+      }
+    }
+    if (this.entries[slot] != 0 && this.entries[slot + 1] != 0) {
+      this.collisions++;
+    }
+    return 0;
+  }
+
+  /**
+   * Stores the result of searching the given position. The entry replaces the bucket's deepest
+   * entry if it was searched at least as deep or is for the same position, and the bucket's
+   * newest entry otherwise.
+   * @param hash the Zobrist hash of the position.
+   * @param depth the depth the position was searched to, from 0 to 255.
+   * @param bound EXACT, LOWER or UPPER.
+   * @param score the score found.
+   * @param move the id of the best move found, or -1 if there is none.
+   * @throws IllegalArgumentException if the depth, bound or move is out of range.
+   */
+  public void store(long hash, int depth, int bound, int score, int move) {
+    if (depth < 0 || depth > 255 || bound < EXACT || bound > UPPER || move < -1
+            || move > 0xfffe) {
+      throw new IllegalArgumentException("Invalid table entry.");
+    }
+    long entry = ((long) score << 32) | ((long) (move + 1) << 16) | (depth << 2) | bound;
+    int slot = this.bucketOf(hash);
+    long deepest = this.entries[slot];
+    if (deepest == 0 || depth >= depthOf(deepest) || (this.checks[slot] ^ deepest) == hash) {
+      this.write(slot, hash, entry);
+    } else {
+      this.write(slot + 1, hash, entry);
+    }
+    this.stores++;
+  }
+
+  // Writes the given entry to the given slot.
+  private void write(int slot, long hash, long entry) {
+    if (this.entries[slot] == 0) {
+      this.used++;
+    }
+    this.checks[slot] = hash ^ entry;
+    this.entries[slot] = entry;
+  }
+
+  // Returns the first slot of the bucket of the given hash.
+  private int bucketOf(long hash) {
+    // the low bits of the hash choose the bucket, and all of its bits are checked
+    return ((int) hash & this.mask) * 2;
+  }
+
+  /**
+   * Returns the depth the position of the given entry was searched to.
+   * @param entry an entry returned by probe.
+   * @return the depth.
+   */
+  public static int depthOf(long entry) {
+    return (int) (entry >>> 2) & 0xff;
+  }
+
+  /**
+   * Returns whether the score of the given entry is EXACT, a LOWER bound or an UPPER bound.
+   * @param entry an entry returned by probe.
+   * @return the bound type.
+   */
+  public static int boundOf(long entry) {
+    return (int) entry & 3;
+  }
+
+  /**
+   * Returns the score of the given entry.
+   * @param entry an entry returned by probe.
+   * @return the score.
+   */
+  public static int scoreOf(long entry) {
+    return (int) (entry >> 32);
+  }
+
+  /**
+   * Returns the best move of the given entry.
+   * @param entry an entry returned by probe.
+   * @return the id of the move, or -1 if there is none.
+   */
+  public static int moveOf(long entry) {
+    return ((int) (entry >>> 16) & 0xffff) - 1;
+  }
+
+  /**
+   * Empties the table and resets its statistics.
+   */
+  public void clear() {
+    Arrays.fill(this.checks, 0);
+    Arrays.fill(this.entries, 0);
+    this.used = 0;
+    this.resetStats();
+  }
+
+  /**
+   * Resets the probe, hit, collision and store counts, leaving the entries in place.
+   */
+  public void resetStats() {
+    this.probes = 0;
+    this.hits = 0;
+    this.collisions = 0;
+    this.stores = 0;
+  }
+
+  /**
+   * Returns the number of entries the table can hold.
+   * @return the number of slots.
+   */
+  public int getCapacity() {
+    return this.entries.length;
+  }
+
+  /**
+   * Returns the number of lookups since the statistics were last reset.
+   * @return the number of probes.
+   */
+  public long getProbes() {
+    return this.probes;
+  }
+
+  /**
+   * Returns the number of lookups that found their position since the statistics were last
+   * reset.
+   * @return the number of hits.
+   */
+  public long getHits() {
+    return this.hits;
+  }
+
+  /**
+   * Returns the fraction of lookups that found their position.
+   * @return the hit rate, from 0 to 1, or 0 if there have been no probes.
+   */
+  public double getHitRate() {
+    return this.probes == 0 ? 0 : (double) this.hits / this.probes;
+  }
+
+  /**
+   * Returns the number of lookups that missed because both slots of the bucket held other
+   * positions, since the statistics were last reset.
+   * @return the number of collisions.
+   */
+  public long getCollisions() {
+    return this.collisions;
+  }
+
+  /**
+   * Returns the number of entries stored since the statistics were last reset.
+   * @return the number of stores.
+   */
+  public long getStores() {
+    return this.stores;
+  }
+
+  /**
+   * Returns the fraction of the table's slots holding an entry.
+   * @return the fill, from 0 to 1.
+   */
+  public double getFill() {
+    return (double) this.used / this.entries.length;
+  }
+}
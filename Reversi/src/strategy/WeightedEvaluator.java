@@ -0,0 +1,53 @@
+package strategy;
+
+import java.util.Objects;
+
+import model.ITile;
+import model.ReadOnlyReversi;
+
+/**
+ * Scores a position as a weighted sum of the scores given by several other evaluators, so that
+ * features like disc count, mobility and corner control can be combined.
+ */
+public class WeightedEvaluator implements IEvaluator {
+
+  // The evaluators being combined.
+  private final IEvaluator[] parts;
+
+  // The weight of each evaluator, in the same order.
+  private final int[] weights;
+
+  /**
+   * Constructs an evaluator that sums the scores of the given evaluators, each multiplied by its
+   * weight.
+   * @param parts the evaluators being combined.
+   * @param weights the weight of each evaluator, in the same order.
+   * @throws IllegalArgumentException if there is not exactly one weight for each evaluator.
+   */
+  public WeightedEvaluator(IEvaluator[] parts, int[] weights) {
+    if (Objects.requireNonNull(parts).length != Objects.requireNonNull(weights).length) {
+      throw new IllegalArgumentException("Each evaluator needs exactly one weight.");
+    }
+    this.parts = parts.clone();
+    this.weights = weights.clone();
+  }
+
+  /**
+   * Returns the default combination used by the searching strategies: one point per piece, five
+   * per legal move and twenty-five per corner, each counted against the opponent's.
+   * @return the default evaluator.
+   */
+  public static WeightedEvaluator standard() {
+    return new WeightedEvaluator(new IEvaluator[] {new DiscCountEvaluator(),
+        new MobilityEvaluator(), new CornerEvaluator()}, new int[] {1, 5, 25});
+  }
+
+  @Override
+  public int evaluate(ReadOnlyReversi model, ITile.State color) {
+    int score = 0;
+    for (int part = 0; part < this.parts.length; part++) {
+      score += this.weights[part] * this.parts[part].evaluate(model, color);
+    }
+    return score;
+  }
+}
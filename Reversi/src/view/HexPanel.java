@@ -17,6 +17,7 @@ import java.awt.Dimension;
 import javax.swing.JPanel;
 import javax.swing.event.MouseInputAdapter;
 
+import model.BoardLayout;
 import model.CubeCoord;
 import model.ITile;
 import model.ReadOnlyReversi;
@@ -82,20 +83,19 @@ public class HexPanel extends JPanel {
     int minWidth = Math.min(bounds.height, bounds.width);
     int radius = (minWidth / (size * 2)) / 2;
 
-    for (int r = -size + 1; r < size; r++) {
-      for (int q = -size + 1; q < size; q++) {
-        int s = 0 - r - q;
-        if (Math.abs(s) <= size - 1) {
-          CubeCoord here = new CubeCoord(q, r, s, false);
-          Boolean selected = here.equals(this.clicked) && this.beenClicked;
-          double dsin60 = (2 * radius * Math.sin(Math.toRadians(60.0)));
-          double newq = (2 * radius * (q + 0.5 * r));
-          Polygon added = this.drawHex(bounds, g, newq, r * dsin60, (int) (radius * 0.95),
-                  selected, here);
-          this.hexes.add(added);
-          this.locations.put(added, here);
-        }
-      }
+    // the layout holds one shared coordinate for every tile, so none are created while painting
+    BoardLayout layout = this.model.getLayout();
+    double dsin60 = (2 * radius * Math.sin(Math.toRadians(60.0)));
+    for (int id = 0; id < layout.size(); id++) {
+      CubeCoord here = layout.coord(id);
+      int q = here.getQ();
+      int r = here.getR();
+      Boolean selected = here.equals(this.clicked) && this.beenClicked;
+      double newq = (2 * radius * (q + 0.5 * r));
+      Polygon added = this.drawHex(bounds, g, newq, r * dsin60, (int) (radius * 0.95),
+              selected, here);
+      this.hexes.add(added);
+      this.locations.put(added, here);
     }
   }
 
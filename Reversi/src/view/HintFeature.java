@@ -40,14 +40,14 @@ public class HintFeature implements Painter {
                    boolean selected, CubeCoord here, ITile.State active) {
     this.shape.draw(toDraw, g, x, y, radius, selected, here, active);
     if (selected && this.hintsOn) {
-      String score = "0";
-      try {
-        score = (this.model.returnResultsOfMove(here, active).size() - 1) + "";
-      } catch (IllegalStateException ignore) {
-        // do nothing - invalid move has score of 0
-      } catch (IllegalArgumentException ignore) {
+      int flips = this.model.flipCount(here, active);
+      // no hint is drawn on top of an existing piece
+      if (flips == ReadOnlyReversi.ILLEGAL_MOVE
+              && this.model.getStateAt(here) != ITile.State.NONE) {
         return;
       }
+      // an invalid move has a score of 0
+      String score = Math.max(flips, 0) + "";
       g.setColor(Color.BLACK);
       g.drawString(score, x, y);
     }
@@ -0,0 +1,110 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.CubeCoord;
+import model.HexReversi;
+import model.IReversi;
+import model.ITile;
+import model.SquareReversi;
+
+/**
+ * Measures the per-turn cost of checking whether the game is over, comparing the old
+ * exception-driven scan (which asked returnResultsOfMove about every empty tile and caught the
+ * exceptions thrown for illegal moves) against IReversi.gameOver. Both are timed on every position
+ * of a random game on a size 8 hex board and a 16x16 square board.
+ */
+public final class GameOverBenchmark {
+
+  // The number of times each check is repeated on each position.
+  private static final int REPEATS = 20;
+
+  /**
+   * Runs the benchmark.
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    // the first round only warms up the JIT
+    run("hex 8", () -> new HexReversi(8), false);
+    run("square 16", () -> new SquareReversi(16), false);
+    run("hex 8", () -> new HexReversi(8), true);
+    run("square 16", () -> new SquareReversi(16), true);
+  }
+
+  // Plays a random game on a board made by the given factory, timing both checks every turn.
+  private static void run(String name, GameFactory factory, boolean report) {
+    IReversi game = factory.create();
+    Random rand = new Random(11);
+    long before = 0;
+    long after = 0;
+    int turns = 0;
+    boolean agree = true;
+    while (true) {
+      long start = System.nanoTime();
+      boolean oldResult = false;
+      for (int i = 0; i < REPEATS; i++) {
+        oldResult = exceptionScan(game);
+      }
+      long middle = System.nanoTime();
+      boolean newResult = false;
+      for (int i = 0; i < REPEATS; i++) {
+        newResult = game.gameOver();
+      }
+      long end = System.nanoTime();
+      before += middle - start;
+      after += end - middle;
+      agree &= oldResult == newResult;
+      turns++;
+      if (newResult) {
+        break;
+      }
+      playRandom(game, rand);
+    }
+    if (report) {
+      System.out.printf("%s: %d turns, before %.1f us/turn, after %.1f us/turn, %.1fx faster%s%n",
+              name, turns, before / 1000.0 / turns / REPEATS, after / 1000.0 / turns / REPEATS,
+              (double) before / after, agree ? "" : " (RESULTS DISAGREE)");
+    }
+  }
+
+  // The game-over check as it was done before, by catching the exceptions of illegal moves.
+  private static boolean exceptionScan(IReversi game) {
+    for (CubeCoord cube : game.getEmptyTiles()) {
+      for (ITile.State color : new ITile.State[] {ITile.State.WHITE, ITile.State.BLACK}) {
+        try {
+          if (game.returnResultsOfMove(cube, color).size() > 1) {
+            return false;
+          }
+        } catch (IllegalStateException | IllegalArgumentException e) {
+          // exception means there is no valid move at this tile.
+        }
+      }
+    }
+    return true;
+  }
+
+  // Makes a random legal move for the active player, or passes if there is none.
+  private static void playRandom(IReversi game, Random rand) {
+    ITile.State turn = game.getActiveTurn();
+    List<CubeCoord> legal = new ArrayList<>();
+    for (CubeCoord empty : game.getEmptyTiles()) {
+      if (game.isLegalMove(empty, turn)) {
+        legal.add(empty);
+      }
+    }
+    if (legal.isEmpty()) {
+      game.pass();
+    } else {
+      game.move(legal.get(rand.nextInt(legal.size())), turn);
+    }
+  }
+
+  /**
+   * Creates a fresh game to be played on.
+   */
+  private interface GameFactory {
+    IReversi create();
+  }
+}
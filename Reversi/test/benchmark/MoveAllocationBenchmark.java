@@ -0,0 +1,106 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.CubeCoord;
+import model.HexReversi;
+import model.IReversi;
+import model.ITile;
+import model.SquareReversi;
+
+/**
+ * Measures the bytes allocated by IReversi.move once the JIT has warmed up. A random game is
+ * recorded first, then replayed many times on fresh games; only the move and pass calls of the
+ * final replays are measured. Exits with a non-zero status if any moves allocated memory.
+ */
+public final class MoveAllocationBenchmark {
+
+  // The number of replays run before measuring.
+  private static final int WARMUP = 2000;
+
+  // The number of replays measured.
+  private static final int MEASURED = 200;
+
+  /**
+   * Runs the benchmark on a size 8 hex board and a 16x16 square board.
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    boolean allFree = true;
+    allFree &= run("hex 8", () -> new HexReversi(8), threads);
+    allFree &= run("square 16", () -> new SquareReversi(16), threads);
+    if (!allFree) {
+      System.exit(1);
+    }
+  }
+
+  // Records, replays and measures one game on boards made by the given factory.
+  private static boolean run(String name, GameFactory factory,
+                             com.sun.management.ThreadMXBean threads) {
+    List<CubeCoord> game = record(factory.create(), new Random(7));
+    CubeCoord[] moves = game.toArray(new CubeCoord[0]);
+    for (int i = 0; i < WARMUP; i++) {
+      replay(factory.create(), moves);
+    }
+    long allocated = 0;
+    long moveCount = 0;
+    for (int i = 0; i < MEASURED; i++) {
+      IReversi fresh = factory.create();
+      long before = threads.getCurrentThreadAllocatedBytes();
+      replay(fresh, moves);
+      allocated += threads.getCurrentThreadAllocatedBytes() - before;
+      moveCount += moves.length;
+    }
+    System.out.printf("%s: %d moves per game, %.3f bytes allocated per move%n",
+            name, moves.length, (double) allocated / moveCount);
+    return allocated == 0;
+  }
+
+  // Plays a random game to the end, returning its moves with null standing for a pass.
+  private static List<CubeCoord> record(IReversi game, Random rand) {
+    List<CubeCoord> moves = new ArrayList<>();
+    while (!game.gameOver()) {
+      ITile.State turn = game.getActiveTurn();
+      List<CubeCoord> legal = new ArrayList<>();
+      for (CubeCoord empty : game.getEmptyTiles()) {
+        if (game.isLegalMove(empty, turn)) {
+          legal.add(empty);
+        }
+      }
+      if (legal.isEmpty()) {
+        game.pass();
+        moves.add(null);
+      } else {
+        CubeCoord move = legal.get(rand.nextInt(legal.size()));
+        game.move(move, turn);
+        moves.add(move);
+      }
+    }
+    return moves;
+  }
+
+  // Replays the given moves on the given game.
+  private static void replay(IReversi game, CubeCoord[] moves) {
+    ITile.State turn = game.getActiveTurn();
+    for (CubeCoord move : moves) {
+      if (move == null) {
+        game.pass();
+      } else {
+        game.move(move, turn);
+      }
+      turn = turn == ITile.State.BLACK ? ITile.State.WHITE : ITile.State.BLACK;
+    }
+  }
+
+  /**
+   * Creates a fresh game to be played on.
+   */
+  private interface GameFactory {
+    IReversi create();
+  }
+}
@@ -0,0 +1,55 @@
+package benchmark;
+
+import model.HexReversi;
+import model.IReversi;
+import model.ITile;
+import model.SquareReversi;
+import strategy.AlphaBeta;
+import strategy.HighestScore;
+import strategy.MoveOrderer;
+import strategy.WeightedEvaluator;
+
+/**
+ * Measures what ordering moves saves a fixed-depth alpha-beta search: for fixed positions on
+ * each board shape, the nodes searched, the time taken and the fraction of cutoffs made by the
+ * first move tried, with and without a MoveOrderer. Each search is run twice to warm up the JIT,
+ * and the second run is reported.
+ */
+public final class MoveOrderingBenchmark {
+
+  /**
+   * Runs the benchmark.
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    run("hex 6", opening(new HexReversi(6)), 7);
+    run("square 8", opening(new SquareReversi(8)), 7);
+  }
+
+  // Searches the given position to the given depth with and without ordering.
+  private static void run(String name, IReversi game, int depth) {
+    for (boolean ordered : new boolean[] {false, true}) {
+      AlphaBeta search = null;
+      long nanos = 0;
+      for (int run = 0; run < 2; run++) {
+        search = new AlphaBeta(depth, WeightedEvaluator.standard(), null,
+                ordered ? new MoveOrderer() : null, null);
+        long start = System.nanoTime();
+        search.chooseMove(game, game.getActiveTurn());
+        nanos = System.nanoTime() - start;
+      }
+      System.out.printf("%s depth %d, %s: %d nodes, %.1f ms, first-move cutoffs %.1f%%%n",
+              name, depth, ordered ? "ordered" : "unordered", search.getNodes(), nanos / 1e6,
+              100 * search.getFirstMoveCutoffRate());
+    }
+  }
+
+  // Plays the first few moves of a game greedily, to reach a fixed middle-game position.
+  private static IReversi opening(IReversi game) {
+    for (int turn = 0; turn < 6; turn++) {
+      ITile.State color = game.getActiveTurn();
+      game.move(new HighestScore().chooseMove(game, color), color);
+    }
+    return game;
+  }
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+import model.BitboardHexReversi;
+import model.BitboardSquareReversi;
+import model.IReversi;
+import model.ITile;
+import strategy.AlphaBeta;
+import strategy.BookStrategy;
+import strategy.OpeningBook;
+import strategy.OpeningBookBuilder;
+
+/**
+ * Measures opening books on each board shape: the positions in a book of a fixed number of plies
+ * and the time taken to build it, then the time to choose the first move from the book against
+ * searching for it from scratch with the strategy the book was built with.
+ */
+public final class OpeningBookBenchmark {
+
+  // The number of lookups timed, after as many untimed to warm up the JIT.
+  private static final int LOOKUPS = 100_000;
+
+  /**
+   * Runs the benchmark.
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    run("hex 6", new BitboardHexReversi(6), 6);
+    run("square 8", new BitboardSquareReversi(8), 5);
+  }
+
+  // Builds a book of the given plies for the given game and times moves from it.
+  private static void run(String name, IReversi game, int plies) {
+    long start = System.nanoTime();
+    OpeningBook book = new OpeningBookBuilder(() -> new AlphaBeta(6), plies,
+            Runtime.getRuntime().availableProcessors()).build(game);
+    long build = System.nanoTime() - start;
+    ITile.State turn = game.getActiveTurn();
+    BookStrategy strat = new BookStrategy(book, new AlphaBeta(6));
+    for (int i = 0; i < LOOKUPS; i++) {
+      strat.chooseMove(game, turn);
+    }
+    start = System.nanoTime();
+    for (int i = 0; i < LOOKUPS; i++) {
+      strat.chooseMove(game, turn);
+    }
+    double bookMicros = (System.nanoTime() - start) / 1e3 / LOOKUPS;
+    start = System.nanoTime();
+    new AlphaBeta(6).chooseMove(game, turn);
+    double searchMicros = (System.nanoTime() - start) / 1e3;
+    System.out.printf("%s, %d plies: %d positions, built in %.1f s; first move from book %.2f "
+            + "us, by search %.0f us%n", name, plies, book.size(), build / 1e9, bookMicros,
+            searchMicros);
+  }
+}
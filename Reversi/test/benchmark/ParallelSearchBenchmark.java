@@ -0,0 +1,69 @@
+package benchmark;
+
+import model.HexReversi;
+import model.IReversi;
+import model.ITile;
+import model.SquareReversi;
+import strategy.HighestScore;
+import strategy.ParallelSearch;
+import strategy.SearchBudget;
+import strategy.TranspositionTable;
+import strategy.WeightedEvaluator;
+
+/**
+ * Measures how the parallel search scales with threads: for fixed positions on each board
+ * shape, the time taken to finish a search of a fixed depth and the nodes searched per second
+ * at 1, 2, 4 and 8 threads, along with the speedup of each over one thread. Each search starts
+ * with an empty table, after an untimed search to warm up the JIT.
+ */
+public final class ParallelSearchBenchmark {
+
+  // The numbers of threads measured.
+  private static final int[] THREADS = {1, 2, 4, 8};
+
+  /**
+   * Runs the benchmark.
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    System.out.printf("%d processors available%n", Runtime.getRuntime().availableProcessors());
+    run("hex 6", opening(new HexReversi(6)), 11);
+    run("square 8", opening(new SquareReversi(8)), 10);
+  }
+
+  // Times searches of the given depth on the given position at each number of threads.
+  private static void run(String name, IReversi game, int depth) {
+    double baseTime = 0;
+    double baseRate = 0;
+    for (int threads : THREADS) {
+      search(game, threads, depth);
+      ParallelSearch strat = search(game, threads, depth);
+      double millis = strat.getNanos() / 1e6;
+      double rate = strat.getNodesPerSecond();
+      if (threads == 1) {
+        baseTime = millis;
+        baseRate = rate;
+      }
+      System.out.printf("%s depth %d, %d threads: %.1f ms to depth (%.2fx), %.2f M nodes/s "
+              + "(%.2fx), %d nodes%n", name, depth, threads, millis, baseTime / millis,
+              rate / 1e6, rate / baseRate, strat.getNodes());
+    }
+  }
+
+  // Searches the given position to the given depth on the given number of threads.
+  private static ParallelSearch search(IReversi game, int threads, int depth) {
+    ParallelSearch strat = new ParallelSearch(threads, SearchBudget.ofMillis(600_000), depth,
+            WeightedEvaluator.standard(), new TranspositionTable(64), null);
+    strat.chooseMove(game, game.getActiveTurn());
+    return strat;
+  }
+
+  // Plays the first few moves of a game greedily, to reach a fixed middle-game position.
+  private static IReversi opening(IReversi game) {
+    for (int turn = 0; turn < 6; turn++) {
+      ITile.State color = game.getActiveTurn();
+      game.move(new HighestScore().chooseMove(game, color), color);
+    }
+    return game;
+  }
+}
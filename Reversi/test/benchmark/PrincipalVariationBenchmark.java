@@ -0,0 +1,93 @@
+package benchmark;
+
+import model.BitboardHexReversi;
+import model.BitboardSquareReversi;
+import model.CubeCoord;
+import model.IReversi;
+import model.ITile;
+import strategy.AlphaBeta;
+import strategy.HighestScore;
+import strategy.PrincipalVariation;
+import strategy.SearchBudget;
+import strategy.TranspositionTable;
+import strategy.WeightedEvaluator;
+
+/**
+ * Compares principal variation search with aspiration windows against a plain full-window
+ * alpha-beta search, with no move ordering or table, on a fixed suite of positions: the opening,
+ * early middle game and late middle game of a hexagonal and a square board. For each position it
+ * reports the nodes searched and time taken by each to reach the same depth, and whether they
+ * picked the same move. The principal variation search gets a fresh table for each position, and
+ * its nodes include every shallower search on the way. Each search is run twice to warm up the
+ * JIT, and the second run is reported.
+ */
+public final class PrincipalVariationBenchmark {
+
+  // The number of greedy moves played to reach each position of the suite.
+  private static final int[] PLIES = {0, 8, 20};
+
+  /**
+   * Runs the benchmark.
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    long plainNodes = 0;
+    long pvsNodes = 0;
+    for (int plies : PLIES) {
+      long[] hex = run("hex 6", position(new BitboardHexReversi(6), plies), 9);
+      long[] square = run("square 8", position(new BitboardSquareReversi(8), plies), 9);
+      plainNodes += hex[0] + square[0];
+      pvsNodes += hex[1] + square[1];
+    }
+    System.out.printf("suite: full window %d nodes, principal variation %d nodes (%.2fx)%n",
+            plainNodes, pvsNodes, (double) plainNodes / pvsNodes);
+  }
+
+  // Searches the given position to the given depth both ways, and returns the nodes each took.
+  private static long[] run(String name, IReversi game, int depth) {
+    ITile.State color = game.getActiveTurn();
+    AlphaBeta plain = null;
+    PrincipalVariation pvs = null;
+    CubeCoord plainMove = null;
+    CubeCoord pvsMove = null;
+    long plainNanos = 0;
+    long pvsNanos = 0;
+    for (int run = 0; run < 2; run++) {
+      plain = new AlphaBeta(depth);
+      long start = System.nanoTime();
+      plainMove = plain.chooseMove(game, color);
+      plainNanos = System.nanoTime() - start;
+      pvs = new PrincipalVariation(SearchBudget.ofNodes(Long.MAX_VALUE), depth,
+              WeightedEvaluator.standard(), new TranspositionTable(16), null);
+      start = System.nanoTime();
+      pvsMove = pvs.chooseMove(game, color);
+      pvsNanos = System.nanoTime() - start;
+    }
+    System.out.printf("%s, %d empty, depth %d: full window %d nodes %.1f ms, principal "
+            + "variation %d nodes %.1f ms (%.2fx nodes), %d re-searches, %d aspiration "
+            + "failures, %s move%n", name, empty(game), depth, plain.getNodes(),
+            plainNanos / 1e6, pvs.getNodes(), pvsNanos / 1e6,
+            (double) plain.getNodes() / pvs.getNodes(), pvs.getResearches(),
+            pvs.getAspirationFailures(), plainMove.equals(pvsMove) ? "same" : "different");
+    return new long[] {plain.getNodes(), pvs.getNodes()};
+  }
+
+  // Plays the given number of moves greedily, to reach a fixed position.
+  private static IReversi position(IReversi game, int plies) {
+    for (int turn = 0; turn < plies && !game.gameOver(); turn++) {
+      ITile.State color = game.getActiveTurn();
+      if (game.hasMoves(color)) {
+        game.move(new HighestScore().chooseMove(game, color), color);
+      } else {
+        game.pass();
+      }
+    }
+    return game;
+  }
+
+  // Returns the number of empty tiles of the given game.
+  private static int empty(IReversi game) {
+    return game.getLayout().size() - game.calcScore(ITile.State.BLACK)
+            - game.calcScore(ITile.State.WHITE);
+  }
+}
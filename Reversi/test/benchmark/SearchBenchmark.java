@@ -0,0 +1,134 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+
+import model.BitboardHexReversi;
+import model.BitboardSquareReversi;
+import model.CubeCoord;
+import model.HexReversi;
+import model.IReversi;
+import model.ISearchableReversi;
+import model.ITile;
+import model.ReadOnlyReversi;
+import model.SquareReversi;
+
+/**
+ * Measures tree search on the models by counting every line of play to a fixed depth (perft).
+ * Each model is walked with makeMove and unmakeMove on one search copy, and the tile models are
+ * also walked the old way, by building a new game from a duplicate of the board at every node.
+ * Reports nodes per second and bytes allocated per node, and exits with a non-zero status if a
+ * make/unmake walk allocated memory or the two ways disagree on the node count.
+ */
+public final class SearchBenchmark {
+
+  // The number of nodes walked, untimed, before each measurement to warm up the JIT.
+  private static final long WARMUP = 1_000_000;
+
+  /**
+   * Runs the benchmark.
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    boolean ok = true;
+    ok &= run("hex 6", new HexReversi(6), 9, threads);
+    ok &= run("bitboard hex 6", new BitboardHexReversi(6), 9, threads);
+    ok &= run("square 8", new SquareReversi(8), 8, threads);
+    ok &= run("bitboard square 8", new BitboardSquareReversi(8), 8, threads);
+    ok &= compare("hex 6", new HexReversi(6), 4);
+    ok &= compare("square 8", new SquareReversi(8), 5);
+    if (!ok) {
+      System.exit(1);
+    }
+  }
+
+  // Times make/unmake perft on the given game, after warming up.
+  private static boolean run(String name, IReversi game, int depth,
+                             com.sun.management.ThreadMXBean threads) {
+    ISearchableReversi search = game.copyForSearch();
+    int[][] moves = new int[depth][search.getLayout().size()];
+    for (long warm = 0; warm < WARMUP; ) {
+      warm += perft(search, depth, moves);
+    }
+    long before = threads.getCurrentThreadAllocatedBytes();
+    long start = System.nanoTime();
+    long nodes = perft(search, depth, moves);
+    long time = System.nanoTime() - start;
+    long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+    System.out.printf("%s: perft(%d) = %d, %.2f M nodes/s, %.3f bytes/node%n", name, depth,
+            nodes, nodes * 1000.0 / time, (double) allocated / nodes);
+    return allocated == 0;
+  }
+
+  // Times make/unmake perft against copying the board at every node.
+  private static boolean compare(String name, IReversi game, int depth) {
+    ISearchableReversi search = game.copyForSearch();
+    int[][] moves = new int[depth][search.getLayout().size()];
+    long start = System.nanoTime();
+    long fast = perft(search, depth, moves);
+    long middle = System.nanoTime();
+    long slow = copyPerft(game, depth);
+    long end = System.nanoTime();
+    System.out.printf("%s: perft(%d) make/unmake %.1f ms, copying boards %.1f ms, %.1fx faster%n",
+            name, depth, (middle - start) / 1e6, (end - middle) / 1e6,
+            (double) (end - middle) / (middle - start));
+    return fast == slow;
+  }
+
+  // Counts the lines of play of the given depth, making and undoing moves on one board.
+  private static long perft(ISearchableReversi search, int depth, int[][] moves) {
+    if (depth == 0) {
+      return 1;
+    }
+    if (search.gameOver()) {
+      return 1;
+    }
+    ITile.State turn = search.getActiveTurn();
+    int[] here = moves[depth - 1];
+    int count = search.getLegalMoves(turn, here);
+    if (count == 0) {
+      search.makePass();
+      long nodes = perft(search, depth - 1, moves);
+      search.unmakePass();
+      return nodes;
+    }
+    long nodes = 0;
+    for (int i = 0; i < count; i++) {
+      search.makeMove(here[i], turn);
+      nodes += perft(search, depth - 1, moves);
+      search.unmakeMove();
+    }
+    return nodes;
+  }
+
+  // Counts the same lines of play by building a new game from a copy of the board for each move.
+  private static long copyPerft(ReadOnlyReversi game, int depth) {
+    if (depth == 0) {
+      return 1;
+    }
+    if (game.gameOver()) {
+      return 1;
+    }
+    ITile.State turn = game.getActiveTurn();
+    ITile.State next = turn == ITile.State.WHITE ? ITile.State.BLACK : ITile.State.WHITE;
+    if (!game.hasMoves(turn)) {
+      return copyPerft(copy(game, next), depth - 1);
+    }
+    long nodes = 0;
+    for (CubeCoord move : game.getLegalMoves(turn)) {
+      IReversi child = copy(game, turn);
+      child.move(move, turn);
+      nodes += copyPerft(child, depth - 1);
+    }
+    return nodes;
+  }
+
+  // Builds a new game from a duplicate of the given game's board, with the given color to move.
+  private static IReversi copy(ReadOnlyReversi game, ITile.State turn) {
+    if (game.isHex()) {
+      return new HexReversi(game.duplicate(), turn);
+    }
+    return new SquareReversi(game.duplicate(), turn);
+  }
+}
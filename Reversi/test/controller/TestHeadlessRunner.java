@@ -0,0 +1,91 @@
+package controller;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.BitboardSquareReversi;
+import model.HexReversi;
+import model.ITile;
+import model.SquareReversi;
+import strategy.AlphaBeta;
+import strategy.AvoidAroundCorners;
+import strategy.HighestScore;
+
+/**
+ * Tests playing games between AI players without a view.
+ */
+public class TestHeadlessRunner {
+
+  @Test
+  public void testPlaysGameToTheEnd() {
+    HexReversi game = new HexReversi(5);
+    GameResult result = HeadlessRunner.play(game, new HighestScore(),
+            new AvoidAroundCorners(new HighestScore()));
+    Assert.assertTrue(game.gameOver());
+    Assert.assertEquals(game.calcScore(ITile.State.BLACK), result.getScore(ITile.State.BLACK));
+    Assert.assertEquals(game.calcScore(ITile.State.WHITE), result.getScore(ITile.State.WHITE));
+    // every piece but the starting ones was placed by a move
+    Assert.assertEquals(result.getScore(ITile.State.BLACK) + result.getScore(ITile.State.WHITE)
+            - 6, result.getMoves(ITile.State.BLACK) + result.getMoves(ITile.State.WHITE));
+    Assert.assertTrue(result.getMoveNanos(ITile.State.BLACK) > 0);
+  }
+
+  @Test
+  public void testCountsResultsForFirstStrategy() {
+    HeadlessRunner runner = new HeadlessRunner(() -> new BitboardSquareReversi(6), "alphabeta",
+            new AlphaBeta(3), "highscore", new HighestScore());
+    runner.run(4);
+    runner.run(2);
+    Assert.assertEquals(6, runner.getGames());
+    Assert.assertEquals(6, runner.getWins() + runner.getDraws() + runner.getLosses());
+    Assert.assertTrue(runner.getWins() > runner.getLosses());
+    Assert.assertTrue(runner.getGamesPerSecond() > 0);
+    Assert.assertTrue(runner.getAverageMoveMillis(true) > runner.getAverageMoveMillis(false));
+    String summary = runner.summary();
+    Assert.assertTrue(summary, summary.startsWith("{\"first\":\"alphabeta\","
+            + "\"second\":\"highscore\",\"games\":6,\"wins\":" + runner.getWins() + ","));
+    Assert.assertTrue(summary, summary.endsWith("}"));
+  }
+
+  @Test
+  public void testSwapsColors() {
+    // the same greedy strategy on both sides plays the same game each time
+    HeadlessRunner runner = new HeadlessRunner(() -> new SquareReversi(6), "a",
+            new HighestScore(), "b", new HighestScore());
+    runner.run(2);
+    Assert.assertEquals(runner.getWins(), runner.getLosses());
+  }
+
+  @Test
+  public void testStrategyThatGivesUpPasses() {
+    // with no backup, avoiding the tiles next to corners eventually leaves it no move to choose
+    HexReversi game = new HexReversi(5);
+    GameResult result = HeadlessRunner.play(game, new HighestScore(), new AvoidAroundCorners());
+    Assert.assertEquals(game.calcScore(ITile.State.WHITE), result.getScore(ITile.State.WHITE));
+    Assert.assertTrue(result.getMoves(ITile.State.BLACK) > 0);
+  }
+
+  @Test
+  public void testOpeningsFollowTheirSeed() {
+    SquareReversi one = new SquareReversi(8);
+    SquareReversi same = new SquareReversi(8);
+    HeadlessRunner.playOpening(one, 4, 7);
+    HeadlessRunner.playOpening(same, 4, 7);
+    Assert.assertEquals(one.getHash(), same.getHash());
+    Assert.assertEquals(8, one.calcScore(ITile.State.BLACK) + one.calcScore(ITile.State.WHITE));
+    // the openings of a few seeds are not all the same
+    boolean differs = false;
+    for (long seed = 0; seed < 5; seed++) {
+      SquareReversi other = new SquareReversi(8);
+      HeadlessRunner.playOpening(other, 4, seed);
+      differs |= other.getHash() != one.getHash();
+    }
+    Assert.assertTrue(differs);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeGames() {
+    new HeadlessRunner(() -> new SquareReversi(4), "a", new HighestScore(), "b",
+            new HighestScore()).run(-1);
+  }
+}
@@ -0,0 +1,123 @@
+package controller;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.BitboardHexReversi;
+import model.SquareReversi;
+import strategy.AlphaBeta;
+import strategy.HighestScore;
+
+/**
+ * Tests the sequential probability ratio test between two strategies.
+ */
+public class TestSprtMatch {
+
+  @Test
+  public void testStrongerCandidateAcceptedEarly() {
+    SprtMatch match = new SprtMatch(() -> new BitboardHexReversi(4), HighestScore::new,
+            () -> new AlphaBeta(3), 0, 50, 0.05, 0.05, 1000, 2);
+    Assert.assertEquals(SprtMatch.Verdict.STRONGER, match.run());
+    Assert.assertEquals(SprtMatch.Verdict.STRONGER, match.getVerdict());
+    Assert.assertTrue(match.getLlr() >= match.getUpperBound());
+    Assert.assertTrue(match.getGames() < 100);
+    Assert.assertTrue(match.getWins() > match.getLosses());
+    double[] interval = match.getEloInterval();
+    Assert.assertTrue(interval[0] < match.getElo() && match.getElo() < interval[1]);
+    Assert.assertTrue(interval[0] > 0);
+  }
+
+  @Test
+  public void testWeakerCandidateRejected() {
+    SprtMatch match = new SprtMatch(() -> new BitboardHexReversi(4), () -> new AlphaBeta(3),
+            HighestScore::new, 0, 50, 0.05, 0.05, 1000, 2);
+    Assert.assertEquals(SprtMatch.Verdict.NOT_STRONGER, match.run());
+    Assert.assertTrue(match.getLlr() <= match.getLowerBound());
+    Assert.assertTrue(match.getElo() < 0);
+  }
+
+  @Test
+  public void testGamesDoNotOutliveMatches() {
+    int before = TestTournament.countPoolThreads();
+    for (int i = 0; i < 5; i++) {
+      new SprtMatch(() -> new BitboardHexReversi(4), HighestScore::new, () -> new AlphaBeta(3),
+              0, 50, 0.05, 0.05, 1000, 4).run();
+    }
+    // a pool left running by each match would leave up to 20 more threads, some still playing
+    Assert.assertTrue(TestTournament.countPoolThreads() <= before + 4);
+  }
+
+  @Test
+  public void testGameLimit() {
+    SprtMatch match = new SprtMatch(() -> new SquareReversi(4), HighestScore::new,
+            HighestScore::new, 0, 50, 0.05, 0.05, 3, 1);
+    Assert.assertEquals(SprtMatch.Verdict.UNDECIDED, match.run());
+    Assert.assertEquals(3, match.getGames());
+    Assert.assertTrue(match.summary(), match.summary().startsWith(
+            "{\"verdict\":\"UNDECIDED\",\"games\":3,"));
+  }
+
+  @Test
+  public void testShortRunsDoNotDecide() {
+    double upper = Math.log(0.95 / 0.05);
+    // seven straight wins are little evidence: about 7 * ln(0.5714 / 0.5) with no draws
+    Assert.assertEquals(0.94, SprtMatch.llr(7, 0, 0, 0, 50), 0.01);
+    Assert.assertTrue(SprtMatch.llr(7, 0, 0, 0, 50) < upper);
+    Assert.assertTrue(SprtMatch.llr(0, 16, 0, 0, 50) > -upper);
+    Assert.assertTrue(SprtMatch.llr(0, 0, 7, 0, 50) > -upper);
+    // but a long one does
+    Assert.assertTrue(SprtMatch.llr(30, 0, 0, 0, 50) > upper);
+    Assert.assertTrue(SprtMatch.llr(0, 60, 0, 0, 50) < -upper);
+  }
+
+  @Test
+  public void testEvenResultsFavorNoDifference() {
+    Assert.assertTrue(SprtMatch.llr(20, 10, 20, 0, 50) < 0);
+    Assert.assertTrue(SprtMatch.llr(30, 10, 10, 0, 50) > 0);
+    Assert.assertEquals(0, SprtMatch.llr(0, 0, 0, 0, 50), 1e-12);
+  }
+
+  @Test
+  public void testBounds() {
+    SprtMatch match = new SprtMatch(() -> new SquareReversi(4), HighestScore::new,
+            HighestScore::new, 0, 10, 0.05, 0.1, 10, 1);
+    Assert.assertEquals(Math.log(0.1 / 0.95), match.getLowerBound(), 1e-12);
+    Assert.assertEquals(Math.log(0.9 / 0.05), match.getUpperBound(), 1e-12);
+    // with no games played, the estimate is even
+    Assert.assertEquals(0, match.getElo(), 1e-9);
+    Assert.assertEquals(0, match.getGames());
+  }
+
+  @Test
+  public void testOpeningsVaryTheGames() {
+    // without openings, a strategy against itself plays one game over and over
+    SprtMatch fixed = new SprtMatch(() -> new SquareReversi(6), HighestScore::new,
+            HighestScore::new, 0, 50, 0.05, 0.05, 20, 1, 0, 0);
+    fixed.run();
+    Assert.assertTrue(fixed.getDraws() == fixed.getGames() || fixed.getDraws() == 0);
+    SprtMatch opened = new SprtMatch(() -> new SquareReversi(6), HighestScore::new,
+            HighestScore::new, 0, 50, 0.05, 0.05, 20, 1);
+    opened.run();
+    Assert.assertEquals(20, opened.getGames());
+    Assert.assertEquals(SprtMatch.Verdict.UNDECIDED, opened.getVerdict());
+    Assert.assertTrue(opened.getWins() > 0 && opened.getLosses() > 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeOpening() {
+    new SprtMatch(() -> new SquareReversi(4), HighestScore::new, HighestScore::new, 0, 10, 0.05,
+            0.05, 10, 1, -1, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadHypotheses() {
+    new SprtMatch(() -> new SquareReversi(4), HighestScore::new, HighestScore::new, 10, 0, 0.05,
+            0.05, 10, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadErrorRates() {
+    new SprtMatch(() -> new SquareReversi(4), HighestScore::new, HighestScore::new, 0, 10, 0.5,
+            0.05, 10, 1);
+  }
+}
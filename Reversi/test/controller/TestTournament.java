@@ -0,0 +1,145 @@
+package controller;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.BitboardHexReversi;
+import model.SquareReversi;
+import strategy.AlphaBeta;
+import strategy.AvoidAroundCorners;
+import strategy.HighestScore;
+
+/**
+ * Tests playing tournaments between strategies on several threads.
+ */
+public class TestTournament {
+
+  // Returns a tournament on a small hexagonal board with three strategies registered.
+  private Tournament threeWay(int games, int threads) {
+    Tournament tournament = new Tournament(() -> new BitboardHexReversi(4), games, threads);
+    tournament.register("highscore", HighestScore::new);
+    tournament.register("combo", () -> new AvoidAroundCorners(new HighestScore()));
+    tournament.register("alphabeta", () -> new AlphaBeta(3));
+    return tournament;
+  }
+
+  @Test
+  public void testRoundRobin() {
+    Tournament tournament = this.threeWay(6, 3);
+    List<PairingResult> results = tournament.roundRobin();
+    Assert.assertEquals(3, results.size());
+    Assert.assertEquals("highscore", results.get(0).getFirst());
+    Assert.assertEquals("combo", results.get(0).getSecond());
+    Assert.assertEquals("combo", results.get(2).getFirst());
+    Assert.assertEquals("alphabeta", results.get(2).getSecond());
+    for (PairingResult result : results) {
+      Assert.assertEquals(6, result.getGames());
+    }
+    Assert.assertEquals(18, tournament.getGames());
+    Assert.assertTrue(tournament.getGamesPerSecond() > 0);
+    Assert.assertEquals(tournament.getGamesPerSecond() / 3,
+            tournament.getGamesPerSecondPerCore(), 1e-9);
+    // looking ahead beats greedy play
+    Assert.assertTrue(results.get(1).getScore() < 0.5);
+  }
+
+  @Test
+  public void testGauntlet() {
+    List<PairingResult> results = this.threeWay(4, 2).gauntlet("alphabeta");
+    Assert.assertEquals(2, results.size());
+    Assert.assertEquals("alphabeta", results.get(0).getFirst());
+    Assert.assertEquals("highscore", results.get(0).getSecond());
+    Assert.assertEquals("combo", results.get(1).getSecond());
+  }
+
+  @Test
+  public void testSameResultsOnAnyNumberOfThreads() {
+    // every game gets new strategies and a new board, so the threads cannot affect the results
+    List<PairingResult> one = this.threeWay(4, 1).roundRobin();
+    List<PairingResult> four = this.threeWay(4, 4).roundRobin();
+    for (int i = 0; i < one.size(); i++) {
+      Assert.assertEquals(one.get(i).toString(), four.get(i).toString());
+    }
+  }
+
+  @Test
+  public void testColorsAlternate() {
+    // a greedy strategy against itself plays the same game with colors swapped
+    Tournament tournament = new Tournament(() -> new SquareReversi(6), 2, 2);
+    tournament.register("a", HighestScore::new);
+    tournament.register("b", HighestScore::new);
+    PairingResult result = tournament.roundRobin().get(0);
+    Assert.assertEquals(result.getWins(), result.getLosses());
+    Assert.assertEquals(0, result.getAverageMargin(), 1e-9);
+  }
+
+  @Test
+  public void testThreadsDoNotOutliveTournaments() {
+    int before = countPoolThreads();
+    for (int i = 0; i < 10; i++) {
+      this.threeWay(1, 4).gauntlet("highscore");
+    }
+    // a pool left running by each tournament would leave up to 40 more threads
+    Assert.assertTrue(countPoolThreads() <= before + 4);
+  }
+
+  // Returns the number of live threads belonging to pools made for one use.
+  static int countPoolThreads() {
+    int count = 0;
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (thread.isAlive() && thread.getName().matches("ForkJoinPool-\\d+-worker-\\d+")) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Test
+  public void testSummary() {
+    Tournament tournament = this.threeWay(2, 2);
+    String summary = tournament.summary(tournament.gauntlet("combo"));
+    Assert.assertTrue(summary, summary.startsWith("{\"games\":4,\"threads\":2,"));
+    Assert.assertTrue(summary, summary.contains("\"pairings\":[{\"first\":\"combo\","
+            + "\"second\":\"highscore\",\"games\":2,"));
+  }
+
+  @Test
+  public void testOpeningsVaryTheGames() {
+    // two strategies that always choose the same moves play only two games without openings
+    Tournament fixed = new Tournament(() -> new SquareReversi(6), 10, 2, 0, 0);
+    fixed.register("highscore", HighestScore::new);
+    fixed.register("combo", () -> new AvoidAroundCorners(new HighestScore()));
+    PairingResult same = fixed.roundRobin().get(0);
+    Assert.assertTrue(same.getWins() % 5 == 0 && same.getLosses() % 5 == 0);
+    Tournament opened = new Tournament(() -> new SquareReversi(6), 10, 2);
+    opened.register("highscore", HighestScore::new);
+    opened.register("combo", () -> new AvoidAroundCorners(new HighestScore()));
+    PairingResult varied = opened.roundRobin().get(0);
+    Assert.assertEquals(10, varied.getGames());
+    Assert.assertNotEquals(same.toString(), varied.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeOpening() {
+    new Tournament(() -> new SquareReversi(4), 2, 1, -1, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateName() {
+    this.threeWay(2, 1).register("combo", HighestScore::new);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownChallenger() {
+    this.threeWay(2, 1).gauntlet("mcts");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testTooFewStrategies() {
+    Tournament tournament = new Tournament(() -> new SquareReversi(4), 2, 1);
+    tournament.register("a", HighestScore::new);
+    tournament.roundRobin();
+  }
+}
@@ -0,0 +1,297 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Tests the bitboard square model against the same cases as the square model, and against
+ * the square model itself over random games.
+ */
+public class TestBitboardSquareModel {
+  ITile.State b = ITile.State.BLACK;
+  ITile.State w = ITile.State.WHITE;
+  ITile.State n = ITile.State.NONE;
+
+
+  @Test
+  public void testMultipleMoves() {
+    IReversi game = new BitboardSquareReversi(8);
+    game.move(new CubeCoord(4, 5, 1, false), w);
+    Assert.assertEquals(w, game.getStateAt(new CubeCoord(4, 5, 1, false)));
+    Assert.assertEquals(w, game.getStateAt(new CubeCoord(4, 4, 1, false)));
+    Assert.assertEquals(w, game.getStateAt(new CubeCoord(4, 3, 1, false)));
+    Assert.assertEquals(w, game.getStateAt(new CubeCoord(3, 4, 1, false)));
+    game.move(new CubeCoord(5, 5, 1, false), b);
+    Assert.assertEquals(b, game.getStateAt(new CubeCoord(5, 5, 1, false)));
+    Assert.assertEquals(b, game.getStateAt(new CubeCoord(4, 4, 1, false)));
+    Assert.assertEquals(b, game.getStateAt(new CubeCoord(3, 3, 1, false)));
+  }
+
+  @Test
+  public void testDoubleCapture() {
+    IReversi game = new BitboardSquareReversi(4);
+    game.move(new CubeCoord(2, 3, 1, false), w);
+    game.move(new CubeCoord(3, 1, -1, false), b);
+    game.move(new CubeCoord(2, 0, 1, false), w);
+    Assert.assertEquals(w, game.getStateAt(new CubeCoord(1, 2, 3, false)));
+    Assert.assertEquals(w, game.getStateAt(new CubeCoord(2, 2, 3, false)));
+    game.move(new CubeCoord(1, 3, -1, false), b);
+    Assert.assertEquals(b, game.getStateAt(new CubeCoord(1, 2, 3, false)));
+    Assert.assertEquals(b, game.getStateAt(new CubeCoord(2, 2, 3, false)));
+  }
+
+  @Test
+  public void testReturnResultsWorksBasic() {
+    IReversi game = new BitboardSquareReversi(4);
+    Assert.assertEquals(n, game.getStateAt(new CubeCoord(0, 1, 1, false)));
+    Assert.assertEquals(b, game.getStateAt(new CubeCoord(1, 1, 1, false)));
+    Assert.assertEquals(w, game.getStateAt(new CubeCoord(2, 1, 2, false)));
+    List<ITile> res1 = game.returnResultsOfMove(new CubeCoord(0, 1, 2, false), w);
+    Assert.assertEquals(2, res1.size());
+    Assert.assertEquals(b, res1.get(0).getState());
+    Assert.assertEquals(n, res1.get(1).getState());
+  }
+
+  @Test
+  public void testReturnResultsCantModifyGame() {
+    IReversi game = new BitboardSquareReversi(4);
+    Assert.assertEquals(n, game.getStateAt(new CubeCoord(0, 1, 1, false)));
+    Assert.assertEquals(b, game.getStateAt(new CubeCoord(1, 1, 1, false)));
+    Assert.assertEquals(w, game.getStateAt(new CubeCoord(2, 1, 2, false)));
+    Assert.assertEquals(2, game.calcScore(b));
+    Assert.assertEquals(2, game.calcScore(w));
+    List<ITile> res1 = game.returnResultsOfMove(new CubeCoord(0, 1, 2, false), w);
+    res1.get(0).setState(b);
+    res1.get(1).setState(n);
+    Assert.assertEquals(b, game.getStateAt(new CubeCoord(1, 1, -1, false)));
+    Assert.assertEquals(w, game.getStateAt(new CubeCoord(2, 1, -1, false)));
+    Assert.assertEquals(2, game.calcScore(b));
+    Assert.assertEquals(2, game.calcScore(w));
+  }
+
+  @Test
+  public void testCalcScoreWorks() {
+    IReversi game = new BitboardSquareReversi(4);
+    Assert.assertEquals(2, game.calcScore(b));
+    Assert.assertEquals(2, game.calcScore(w));
+    game.move(new CubeCoord(0, 1, -1, false), w);
+    Assert.assertEquals(1, game.calcScore(b));
+    Assert.assertEquals(4, game.calcScore(w));
+  }
+
+  @Test
+  public void testGameOver() {
+    IReversi game = new BitboardSquareReversi(4);
+    game.move(new CubeCoord(2, 3, 0, false), w);
+    game.pass();
+    Assert.assertThrows(IllegalStateException.class, () -> {
+      game.pass();
+    });
+    Assert.assertThrows(IllegalArgumentException.class, () -> {
+      game.move(new CubeCoord(3, 1, 0, false), b);
+    });
+  }
+
+  @Test
+  public void testSize2NotWinnable() {
+    IReversi game = new BitboardSquareReversi(2);
+    Assert.assertTrue(game.gameOver());
+  }
+
+  @Test
+  public void testMoveNotYourTurn() {
+    IReversi game = new BitboardSquareReversi(4);
+    game.pass();
+    game.move(new CubeCoord(1, 3, 2, false), b);
+    Assert.assertThrows(IllegalArgumentException.class, () -> {
+      game.move(new CubeCoord(3, 1, -2, false), b);
+    });
+  }
+
+  @Test
+  public void testGetBoardSize() {
+    IReversi game = new BitboardSquareReversi(4);
+    ReadOnlyReversi roGame = new BitboardSquareReversi(100);
+    Assert.assertEquals(game.getBoardSize(), 4);
+    Assert.assertEquals(roGame.getBoardSize(), 100);
+  }
+
+  @Test
+  public void testDuplicate() {
+    ReadOnlyReversi roGame = new BitboardSquareReversi(4);
+    ITile[][] dupe = roGame.duplicate();
+    List<ITile.State> none = List.of(ITile.State.NONE, ITile.State.NONE, ITile.State.NONE,
+            ITile.State.NONE);
+    List<ITile.State> row1 = List.of(ITile.State.NONE, ITile.State.BLACK, ITile.State.WHITE,
+            ITile.State.NONE);
+    List<ITile.State> row2 = List.of(ITile.State.NONE, ITile.State.WHITE, ITile.State.BLACK,
+            ITile.State.NONE);
+    List<List<ITile.State>> game = Arrays.asList(none, row1, row2, none);
+    for (int row = 0; row < roGame.getBoardSize(); row ++) {
+      for (int col = 0; col < roGame.getBoardSize(); col++) {
+        Assert.assertEquals(dupe[row][col].getState(), game.get(row).get(col));
+      }
+    }
+  }
+
+  @Test
+  public void testLegalStartingMoves() {
+    IReversi game = new BitboardSquareReversi(4);
+    CubeCoord m1 = new CubeCoord(0, 1, 1, false);
+    CubeCoord m2 = new CubeCoord(1, 0, -1, false);
+    CubeCoord m3 = new CubeCoord(3, 2, -1, false);
+    CubeCoord m4 = new CubeCoord(2, 3, -2, false);
+    Assert.assertTrue(game.isLegalMove(m1, w));
+    Assert.assertTrue(game.isLegalMove(m2, w));
+    Assert.assertTrue(game.isLegalMove(m3, w));
+    Assert.assertTrue(game.isLegalMove(m4, w));
+
+    CubeCoord bm1 = new CubeCoord(2, 0, -1, false);
+    CubeCoord bm2 = new CubeCoord(3, 1, 1, false);
+    CubeCoord bm3 = new CubeCoord(0, 2, -1, false);
+    CubeCoord bm4 = new CubeCoord(1, 3, -2, false);
+    Assert.assertTrue(game.isLegalMove(bm1, b));
+    Assert.assertTrue(game.isLegalMove(bm2, b));
+    Assert.assertTrue(game.isLegalMove(bm3, b));
+    Assert.assertTrue(game.isLegalMove(bm4, b));
+  }
+
+  @Test
+  public void testIllegalMoves() {
+    IReversi game = new BitboardSquareReversi(4);
+    CubeCoord m1 = new CubeCoord(0, 0, 0, false);
+    CubeCoord m2 = new CubeCoord(3, 0, 0, false);
+    CubeCoord m3 = new CubeCoord(0, 3, 0, false);
+    CubeCoord m4 = new CubeCoord(3, 3, 0, false);
+    Assert.assertFalse(game.isLegalMove(m1, w));
+    Assert.assertFalse(game.isLegalMove(m1, b));
+    Assert.assertFalse(game.isLegalMove(m2, w));
+    Assert.assertFalse(game.isLegalMove(m2, b));
+    Assert.assertFalse(game.isLegalMove(m3, w));
+    Assert.assertFalse(game.isLegalMove(m3, b));
+    Assert.assertFalse(game.isLegalMove(m4, w));
+    Assert.assertFalse(game.isLegalMove(m4, b));
+  }
+
+  @Test
+  public void testHasLegalMovesFullGamePlay() {
+    IReversi game = new BitboardSquareReversi(4);
+    Assert.assertTrue(game.hasMoves(b));
+    Assert.assertTrue(game.hasMoves(w));
+    game.move(new CubeCoord(2, 3, 1, false), w);
+    game.move(new CubeCoord(3, 1, -1, false), b);
+    game.move(new CubeCoord(2, 0, 1, false), w);
+    Assert.assertTrue(game.hasMoves(b));
+    Assert.assertTrue(game.hasMoves(w));
+    game.move(new CubeCoord(1, 3, -1, false), b);
+    game.move(new CubeCoord(0, 1, -1, false), w);
+    game.move(new CubeCoord(1, 0, -1, false), b);
+    game.move(new CubeCoord(0, 0, -1, false), w);
+    game.move(new CubeCoord(3, 3, 0, false), b);
+    game.move(new CubeCoord(0, 3, -1, false), w);
+    game.move(new CubeCoord(0, 2, -1, false), b);
+    Assert.assertFalse(game.hasMoves(w));
+    game.pass();
+    game.move(new CubeCoord(3, 0, -1, false), b);
+    game.move(new CubeCoord(3, 2, -1, false), w);
+    Assert.assertFalse(game.hasMoves(w));
+    Assert.assertFalse(game.hasMoves(b));
+    Assert.assertTrue(game.gameOver());
+    Assert.assertEquals(9, game.calcScore(b));
+    Assert.assertEquals(7, game.calcScore(w));
+  }
+
+  @Test
+  public void testIllegalStartingSizes() {
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new BitboardSquareReversi(1));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new BitboardSquareReversi(5));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new BitboardSquareReversi(11));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new BitboardSquareReversi(-2));
+  }
+
+  @Test
+  public void testConstructFromBoard() {
+    IReversi tiles = new SquareReversi(8);
+    tiles.move(tiles.getLegalMoves(w).get(0), w);
+    IReversi bits = new BitboardSquareReversi(tiles.duplicate(), b);
+    this.assertSameGame(tiles, bits);
+    Assert.assertEquals(b, bits.getActiveTurn());
+    Assert.assertEquals(tiles.getHash(), bits.getHash());
+  }
+
+  @Test
+  public void testMatchesSquareModelSingleWord() {
+    this.playRandomGames(8, 20);
+    this.playRandomGames(6, 20);
+  }
+
+  @Test
+  public void testMatchesSquareModelMultipleWords() {
+    this.playRandomGames(10, 10);
+    this.playRandomGames(16, 5);
+  }
+
+  // plays random games on both models at once, checking that they always agree.
+  private void playRandomGames(int size, int games) {
+    Random rand = new Random(size);
+    for (int game = 0; game < games; game++) {
+      IReversi bits = new BitboardSquareReversi(size);
+      IReversi tiles = new SquareReversi(size);
+      while (!tiles.gameOver()) {
+        this.assertSameGame(tiles, bits);
+        List<CubeCoord> empty = tiles.getEmptyTiles();
+        Assert.assertEquals(empty, bits.getEmptyTiles());
+        ITile.State turn = tiles.getActiveTurn();
+        Assert.assertEquals(turn, bits.getActiveTurn());
+        Assert.assertEquals(tiles.hasMoves(turn), bits.hasMoves(turn));
+        Assert.assertEquals(new HashSet<>(tiles.getLegalMoves(turn)),
+                new HashSet<>(bits.getLegalMoves(turn)));
+        Assert.assertEquals(tiles.countLegalMoves(turn), bits.countLegalMoves(turn));
+        Assert.assertEquals(new HashSet<>(tiles.getFrontier()), new HashSet<>(bits.getFrontier()));
+        if (!tiles.hasMoves(turn)) {
+          tiles.pass();
+          bits.pass();
+          continue;
+        }
+        CubeCoord move = empty.get(rand.nextInt(empty.size()));
+        while (!tiles.isLegalMove(move, turn)) {
+          move = empty.get(rand.nextInt(empty.size()));
+        }
+        Assert.assertEquals(tiles.returnResultsOfMove(move, turn).size(),
+                bits.returnResultsOfMove(move, turn).size());
+        Assert.assertEquals(tiles.flipCount(move, turn), bits.flipCount(move, turn));
+        tiles.move(move, turn);
+        bits.move(move, turn);
+      }
+      this.assertSameGame(tiles, bits);
+      Assert.assertTrue(bits.gameOver());
+    }
+  }
+
+  // asserts that both games have the same pieces and agree on every possible move.
+  private void assertSameGame(IReversi expected, IReversi actual) {
+    for (int r = 0; r < expected.getBoardSize(); r++) {
+      for (int q = 0; q < expected.getBoardSize(); q++) {
+        CubeCoord here = new CubeCoord(q, r, 0, false);
+        Assert.assertEquals(expected.getStateAt(here), actual.getStateAt(here));
+        if (expected.getStateAt(here) == n) {
+          Assert.assertEquals(expected.isLegalMove(here, b), actual.isLegalMove(here, b));
+          Assert.assertEquals(expected.isLegalMove(here, w), actual.isLegalMove(here, w));
+        }
+      }
+    }
+    Assert.assertEquals(expected.calcScore(b), actual.calcScore(b));
+    Assert.assertEquals(expected.calcScore(w), actual.calcScore(w));
+    Assert.assertEquals(expected.calcScore(n), actual.calcScore(n));
+  }
+}
@@ -0,0 +1,154 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests the shared board layouts that give every tile a dense id and a single CubeCoord.
+ */
+public class TestBoardLayout {
+  ITile.State b = ITile.State.BLACK;
+  ITile.State w = ITile.State.WHITE;
+
+  @Test
+  public void testLayoutsAreShared() {
+    Assert.assertSame(BoardLayout.hex(5), BoardLayout.hex(5));
+    Assert.assertSame(BoardLayout.square(8), BoardLayout.square(8));
+    Assert.assertNotSame(BoardLayout.hex(4), BoardLayout.hex(5));
+    Assert.assertSame(new HexReversi(5).getLayout(), new HexReversi(5).getLayout());
+    Assert.assertSame(new SquareReversi(6).getLayout(), new BitboardSquareReversi(6).getLayout());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testHexTooSmall() {
+    BoardLayout.hex(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSquareOdd() {
+    BoardLayout.square(5);
+  }
+
+  @Test
+  public void testIdsAndCoordsRoundTrip() {
+    for (BoardLayout layout : new BoardLayout[] {BoardLayout.hex(2), BoardLayout.hex(6),
+        BoardLayout.square(4), BoardLayout.square(10)}) {
+      for (int id = 0; id < layout.size(); id++) {
+        CubeCoord here = layout.coord(id);
+        Assert.assertEquals(id, layout.id(here));
+        Assert.assertEquals(id, layout.id(layout.row(id), layout.col(id)));
+        // a coordinate built by hand maps to the same id
+        Assert.assertEquals(id, layout.id(new CubeCoord(here.getQ(), here.getR(), here.getS(),
+                false)));
+      }
+    }
+    Assert.assertEquals(91, BoardLayout.hex(6).size());
+    Assert.assertEquals(100, BoardLayout.square(10).size());
+    Assert.assertEquals(-1, BoardLayout.hex(3).id(new CubeCoord(3, 0, -3, false)));
+  }
+
+  @Test
+  public void testModelsHandOutSharedCoords() {
+    HexReversi game = new HexReversi(4);
+    BoardLayout layout = game.getLayout();
+    List<CubeCoord> empty = game.getEmptyTiles();
+    for (CubeCoord cube : empty) {
+      Assert.assertSame(layout.coord(layout.id(cube)), cube);
+    }
+    for (CubeCoord cube : game.getLegalMoves(w)) {
+      Assert.assertSame(layout.coord(layout.id(cube)), cube);
+    }
+  }
+
+  @Test
+  public void testIdMethodsMatchCoordMethods() {
+    for (IReversi game : new IReversi[] {new HexReversi(4), new SquareReversi(6),
+        new BitboardHexReversi(4), new BitboardSquareReversi(6)}) {
+      BoardLayout layout = game.getLayout();
+      game.move(game.getLegalMoves(w).get(0), w);
+      for (int id = 0; id < layout.size(); id++) {
+        CubeCoord here = layout.coord(id);
+        Assert.assertEquals(game.getStateAt(here), game.getStateAt(id));
+        Assert.assertEquals(game.flipCount(here, b), game.flipCount(id, b));
+        Assert.assertEquals(game.isLegalMove(here, w), game.isLegalMove(id, w));
+      }
+      int[] ids = new int[layout.size()];
+      int count = game.getLegalMoves(b, ids);
+      Assert.assertEquals(game.countLegalMoves(b), count);
+      for (int i = 0; i < count; i++) {
+        Assert.assertTrue(game.isLegalMove(layout.coord(ids[i]), b));
+      }
+      Assert.assertEquals(ReadOnlyReversi.ILLEGAL_MOVE, game.flipCount(-1, b));
+      Assert.assertEquals(ReadOnlyReversi.ILLEGAL_MOVE, game.flipCount(layout.size(), b));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStateOfMissingId() {
+    new HexReversi(3).getStateAt(19);
+  }
+
+  @Test
+  public void testEqualCoordsHashEqually() {
+    CubeCoord one = new CubeCoord(2, -1, -1, false);
+    CubeCoord two = new CubeCoord(1, 4, 3, true);
+    Assert.assertEquals(one, two);
+    Assert.assertEquals(one.hashCode(), two.hashCode());
+  }
+
+  @Test
+  public void testSymmetriesMoveTilesOntoTiles() {
+    for (BoardLayout layout : new BoardLayout[] {BoardLayout.hex(2), BoardLayout.hex(6),
+        BoardLayout.square(4), BoardLayout.square(8)}) {
+      Assert.assertEquals(layout.isHex() ? 12 : 8, layout.symmetries());
+      for (int sym = 0; sym < layout.symmetries(); sym++) {
+        boolean[] hit = new boolean[layout.size()];
+        for (int id = 0; id < layout.size(); id++) {
+          int image = layout.image(sym, id);
+          Assert.assertFalse(hit[image]);
+          hit[image] = true;
+          Assert.assertEquals(id, layout.preimage(sym, image));
+          if (sym == 0) {
+            Assert.assertEquals(id, image);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSymmetricGamesShareCanonicalHash() {
+    for (IReversi start : new IReversi[] {new HexReversi(5), new SquareReversi(8)}) {
+      BoardLayout layout = start.getLayout();
+      int matched = 0;
+      for (int sym = 1; sym < layout.symmetries(); sym++) {
+        // only symmetries that leave the starting position unchanged give a game to mirror
+        if (layout.hashOf(start, sym) != start.getHash()) {
+          continue;
+        }
+        matched++;
+        ISearchableReversi game = start.copyForSearch();
+        ISearchableReversi mirror = start.copyForSearch();
+        int[] moves = new int[layout.size()];
+        for (int ply = 0; ply < 12 && !game.gameOver(); ply++) {
+          ITile.State turn = game.getActiveTurn();
+          int count = game.getLegalMoves(turn, moves);
+          if (count == 0) {
+            game.makePass();
+            mirror.makePass();
+          } else {
+            int move = moves[(ply * 7) % count];
+            game.makeMove(move, turn);
+            mirror.makeMove(layout.image(sym, move), turn);
+          }
+          Assert.assertEquals(layout.hashOf(game, sym), mirror.getHash());
+          Assert.assertEquals(layout.hashOf(game, layout.canonicalSymmetry(game)),
+                  layout.hashOf(mirror, layout.canonicalSymmetry(mirror)));
+        }
+      }
+      Assert.assertTrue(matched > 0);
+    }
+  }
+}
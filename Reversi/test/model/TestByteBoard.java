@@ -0,0 +1,73 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the byte-per-tile board representation used by the models.
+ */
+public class TestByteBoard {
+  ITile.State b = ITile.State.BLACK;
+  ITile.State w = ITile.State.WHITE;
+  ITile.State n = ITile.State.NONE;
+
+  @Test
+  public void testHexIdsSkipBuffer() {
+    ByteBoard board = new ByteBoard(BoardLayout.hex(3));
+    // a size 3 hex board has 19 tiles
+    Assert.assertEquals(19, board.size());
+    Assert.assertEquals(-1, board.id(0, 0));
+    Assert.assertEquals(-1, board.id(0, 1));
+    Assert.assertEquals(0, board.id(0, 2));
+    Assert.assertEquals(18, board.id(4, 2));
+    Assert.assertEquals(-1, board.id(4, 3));
+    Assert.assertEquals(-1, board.id(-1, 2));
+    for (int id = 0; id < board.size(); id++) {
+      Assert.assertEquals(id, board.id(board.row(id), board.col(id)));
+      Assert.assertEquals(n, board.get(id));
+    }
+  }
+
+  @Test
+  public void testSquareIdsAreRowMajor() {
+    ByteBoard board = new ByteBoard(BoardLayout.square(4));
+    Assert.assertEquals(16, board.size());
+    Assert.assertEquals(6, board.id(1, 2));
+    Assert.assertEquals(-1, board.id(4, 0));
+  }
+
+  @Test
+  public void testViewsReadAndWriteBoard() {
+    ByteBoard board = new ByteBoard(BoardLayout.square(4));
+    ITile tile = board.tile(board.id(2, 3));
+    board.set(2, 3, b);
+    Assert.assertEquals(b, tile.getState());
+    tile.setState(w);
+    Assert.assertEquals(w, board.get(2, 3));
+    tile.setState(n);
+    Assert.assertEquals(n, board.get(2, 3));
+  }
+
+  @Test
+  public void testCopyIsDetached() {
+    ByteBoard board = new ByteBoard(BoardLayout.hex(3));
+    board.set(2, 2, b);
+    ByteBoard copy = board.copy();
+    copy.set(2, 2, w);
+    Assert.assertEquals(b, board.get(2, 2));
+    Assert.assertEquals(w, copy.get(2, 2));
+  }
+
+  @Test
+  public void testToArrayAndBack() {
+    ByteBoard board = new ByteBoard(BoardLayout.hex(3));
+    board.set(1, 2, w);
+    ITile[][] tiles = board.toArray();
+    Assert.assertNull(tiles[0][0]);
+    Assert.assertEquals(w, tiles[1][2].getState());
+    ByteBoard rebuilt = ByteBoard.from(tiles, BoardLayout.hex(3));
+    for (int id = 0; id < board.size(); id++) {
+      Assert.assertEquals(board.get(id), rebuilt.get(id));
+    }
+  }
+}
@@ -0,0 +1,238 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests that the state the models keep up to date move by move agrees with the same state
+ * computed from scratch, across random games on both board shapes.
+ */
+public class TestIncrementalState {
+  ITile.State b = ITile.State.BLACK;
+  ITile.State w = ITile.State.WHITE;
+  ITile.State n = ITile.State.NONE;
+
+  @Test
+  public void testScoresMatchFullCount() {
+    for (AReversi game : this.randomGames()) {
+      game.setCountChecks(true);
+      this.playOut(game, new Random(3), () -> {
+        game.calcScore(b);
+        game.calcScore(w);
+        game.calcScore(n);
+      });
+      Assert.assertEquals(game.board.size(),
+              game.calcScore(b) + game.calcScore(w) + game.calcScore(n));
+    }
+  }
+
+  @Test
+  public void testScoresOfConstructedBoard() {
+    HexReversi original = new HexReversi(4);
+    original.move(new CubeCoord(-1, -1, 2, false), w);
+    HexReversi copy = new HexReversi(original.duplicate(), b);
+    copy.setCountChecks(true);
+    Assert.assertEquals(original.calcScore(w), copy.calcScore(w));
+    Assert.assertEquals(original.calcScore(b), copy.calcScore(b));
+    Assert.assertEquals(original.calcScore(n), copy.calcScore(n));
+  }
+
+  @Test
+  public void testViewWritesKeepCountsUpToDate() {
+    SquareReversi game = new SquareReversi(4);
+    game.setCountChecks(true);
+    // tiles written through a view of the board itself keep the counts up to date
+    game.board.tile(0).setState(b);
+    Assert.assertEquals(3, game.calcScore(b));
+  }
+
+  @Test
+  public void testLegalMovesMatchFullSearch() {
+    for (AReversi game : this.randomGames()) {
+      this.playOut(game, new Random(5), () -> {
+        this.assertLegalMoves(game, b);
+        this.assertLegalMoves(game, w);
+      });
+    }
+  }
+
+  @Test
+  public void testLegalMovesOfConstructedBoard() {
+    HexReversi original = new HexReversi(4);
+    original.move(new CubeCoord(-1, -1, 2, false), w);
+    HexReversi copy = new HexReversi(original.duplicate(), b);
+    this.assertLegalMoves(copy, b);
+    this.assertLegalMoves(copy, w);
+    Assert.assertEquals(new HashSet<>(original.getLegalMoves(b)),
+            new HashSet<>(copy.getLegalMoves(b)));
+  }
+
+  @Test
+  public void testNoLegalMovesForNone() {
+    SquareReversi game = new SquareReversi(4);
+    Assert.assertTrue(game.getLegalMoves(n).isEmpty());
+    Assert.assertEquals(0, game.countLegalMoves(n));
+    Assert.assertEquals(4, game.countLegalMoves(w));
+  }
+
+  @Test
+  public void testFrontierMatchesFullScan() {
+    for (AReversi game : this.randomGames()) {
+      this.playOut(game, new Random(9), () -> this.assertFrontier(game));
+    }
+  }
+
+  @Test
+  public void testFrontierOfStartingBoard() {
+    // the 12 tiles around the starting square, and the empty center and 12 tiles around the
+    // starting hex ring
+    Assert.assertEquals(12, new SquareReversi(8).getFrontier().size());
+    Assert.assertEquals(13, new HexReversi(6).getFrontier().size());
+    this.assertFrontier(new HexReversi(new HexReversi(4).duplicate(), w));
+  }
+
+  @Test
+  public void testHashMatchesRecomputation() {
+    List<IReversi> games = new ArrayList<>(this.randomGames());
+    games.add(new BitboardHexReversi(5));
+    games.add(new BitboardSquareReversi(10));
+    for (IReversi game : games) {
+      for (int seed = 0; seed < 5; seed++) {
+        IReversi fresh = this.freshCopy(game);
+        BoardLayout layout = fresh.getLayout();
+        this.playOut(fresh, new Random(seed),
+            () -> Assert.assertEquals(layout.hashOf(fresh), fresh.getHash()));
+      }
+    }
+  }
+
+  @Test
+  public void testHashThroughSearchMoves() {
+    for (IReversi game : new IReversi[] {new HexReversi(5), new BitboardSquareReversi(8)}) {
+      ISearchableReversi search = game.copyForSearch();
+      BoardLayout layout = search.getLayout();
+      long start = search.getHash();
+      int[] moves = new int[layout.size()];
+      Random rand = new Random(1);
+      List<Boolean> passes = new ArrayList<>();
+      while (!search.gameOver()) {
+        int count = search.getLegalMoves(search.getActiveTurn(), moves);
+        passes.add(count == 0);
+        if (count == 0) {
+          search.makePass();
+        } else {
+          search.makeMove(moves[rand.nextInt(count)], search.getActiveTurn());
+        }
+        Assert.assertEquals(layout.hashOf(search), search.getHash());
+      }
+      for (int ply = passes.size() - 1; ply >= 0; ply--) {
+        if (passes.get(ply)) {
+          search.unmakePass();
+        } else {
+          search.unmakeMove();
+        }
+        Assert.assertEquals(layout.hashOf(search), search.getHash());
+      }
+      Assert.assertEquals(start, search.getHash());
+    }
+  }
+
+  @Test
+  public void testHashIdentifiesPositions() {
+    // the same position reached by different games hashes the same, and the turn matters
+    HexReversi one = new HexReversi(4);
+    BitboardHexReversi two = new BitboardHexReversi(4);
+    Assert.assertEquals(one.getHash(), two.getHash());
+    one.move(new CubeCoord(-1, -1, 2, false), w);
+    two.move(new CubeCoord(-1, -1, 2, false), w);
+    Assert.assertEquals(one.getHash(), two.getHash());
+    HexReversi rebuilt = new HexReversi(one.duplicate(), b);
+    Assert.assertEquals(one.getHash(), rebuilt.getHash());
+    HexReversi otherTurn = new HexReversi(one.duplicate(), w);
+    Assert.assertNotEquals(one.getHash(), otherTurn.getHash());
+    one.pass();
+    Assert.assertEquals(otherTurn.getHash(), one.getHash());
+  }
+
+  // Returns a fresh game of the same model, shape and size as the given one.
+  private IReversi freshCopy(IReversi game) {
+    int size = game.getBoardSize();
+    if (game instanceof ABitboardReversi) {
+      return game.isHex() ? new BitboardHexReversi(size) : new BitboardSquareReversi(size);
+    }
+    return game.isHex() ? new HexReversi(size) : new SquareReversi(size);
+  }
+
+  // Checks the game's frontier against a scan of every empty tile's neighbors.
+  private void assertFrontier(AReversi game) {
+    Set<CubeCoord> expected = new HashSet<>();
+    for (CubeCoord empty : game.getEmptyTiles()) {
+      int r = empty.getAsRow(game.getBuffer());
+      int c = empty.getAsCol(game.getBuffer());
+      for (int dir = 0; dir < game.rneighbors.size(); dir++) {
+        int nr = r + game.rneighbors.get(dir);
+        int nc = c + game.cneighbors.get(dir);
+        if (game.validTile(nr, nc) && game.board.get(nr, nc) != n) {
+          expected.add(empty);
+        }
+      }
+    }
+    List<CubeCoord> actual = game.getFrontier();
+    Assert.assertEquals(expected.size(), actual.size());
+    Assert.assertEquals(expected, new HashSet<>(actual));
+    // every legal move is on the frontier
+    Assert.assertTrue(expected.containsAll(game.getLegalMoves(b)));
+    Assert.assertTrue(expected.containsAll(game.getLegalMoves(w)));
+  }
+
+  // Checks the game's legal moves for the given color against a search of every empty tile.
+  private void assertLegalMoves(IReversi game, ITile.State color) {
+    Set<CubeCoord> expected = new HashSet<>();
+    for (CubeCoord empty : game.getEmptyTiles()) {
+      if (game.flipCount(empty, color) > 0) {
+        expected.add(empty);
+      }
+    }
+    List<CubeCoord> actual = game.getLegalMoves(color);
+    Assert.assertEquals(expected.size(), actual.size());
+    Assert.assertEquals(expected, new HashSet<>(actual));
+    Assert.assertEquals(expected.size(), game.countLegalMoves(color));
+    Assert.assertEquals(!expected.isEmpty(), game.hasMoves(color));
+  }
+
+  // Returns fresh games of several shapes and sizes.
+  private List<AReversi> randomGames() {
+    List<AReversi> games = new ArrayList<>();
+    games.add(new HexReversi(3));
+    games.add(new HexReversi(6));
+    games.add(new SquareReversi(4));
+    games.add(new SquareReversi(8));
+    return games;
+  }
+
+  // Plays random legal moves until the game is over, running the check before every turn.
+  private void playOut(IReversi game, Random rand, Runnable check) {
+    check.run();
+    while (!game.gameOver()) {
+      ITile.State turn = game.getActiveTurn();
+      List<CubeCoord> legal = new ArrayList<>();
+      for (CubeCoord empty : game.getEmptyTiles()) {
+        if (game.isLegalMove(empty, turn)) {
+          legal.add(empty);
+        }
+      }
+      if (legal.isEmpty()) {
+        game.pass();
+      } else {
+        game.move(legal.get(rand.nextInt(legal.size())), turn);
+      }
+      check.run();
+    }
+  }
+}
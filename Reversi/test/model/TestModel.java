@@ -260,6 +260,28 @@ public class TestModel {
     Assert.assertEquals(game.calcScore(w), 5);
   }
 
+  @Test
+  public void testFlipCount() {
+    IReversi game = new HexReversi(5);
+    Assert.assertEquals(1, game.flipCount(new CubeCoord(2, -1, -1, false), w));
+    game.move(new CubeCoord(2, -1, -1, false), w);
+    game.move(new CubeCoord(1, 1, -2, false), b);
+    CubeCoord doubleCapture = new CubeCoord(-1, 2, -1, false);
+    Assert.assertEquals(game.returnResultsOfMove(doubleCapture, w).size() - 1,
+            game.flipCount(doubleCapture, w));
+    Assert.assertEquals(2, game.flipCount(doubleCapture, w));
+    // occupied, off the board, not touching any piece, and touching but not sandwiching
+    Assert.assertEquals(ReadOnlyReversi.ILLEGAL_MOVE,
+            game.flipCount(new CubeCoord(0, 1, -1, false), w));
+    Assert.assertEquals(ReadOnlyReversi.ILLEGAL_MOVE,
+            game.flipCount(new CubeCoord(5, 0, -5, false), w));
+    Assert.assertEquals(ReadOnlyReversi.ILLEGAL_MOVE,
+            game.flipCount(new CubeCoord(4, -4, 0, false), w));
+    Assert.assertEquals(ReadOnlyReversi.ILLEGAL_MOVE,
+            game.flipCount(new CubeCoord(0, 0, 0, false), n));
+    Assert.assertFalse(game.isLegalMove(new CubeCoord(0, 1, -1, false), w));
+  }
+
   @Test
   public void testGetStateSetState() {
     ITile state1 = new HexTile(ITile.State.BLACK);
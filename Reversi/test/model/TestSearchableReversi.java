@@ -0,0 +1,160 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests making and undoing moves on search copies of every model, checking that undoing puts
+ * back everything the models keep up to date.
+ */
+public class TestSearchableReversi {
+  ITile.State b = ITile.State.BLACK;
+  ITile.State w = ITile.State.WHITE;
+  ITile.State n = ITile.State.NONE;
+
+  @Test
+  public void testUndoRestoresEveryPosition() {
+    for (IReversi game : this.games()) {
+      for (int seed = 0; seed < 3; seed++) {
+        ISearchableReversi search = game.copyForSearch();
+        Random rand = new Random(seed);
+        List<List<Object>> seen = new ArrayList<>();
+        List<Boolean> passes = new ArrayList<>();
+        int[] moves = new int[search.getLayout().size()];
+        // walks forwards to the end of a random game, remembering every position
+        while (!search.gameOver()) {
+          seen.add(this.snapshot(search));
+          ITile.State turn = search.getActiveTurn();
+          int count = search.getLegalMoves(turn, moves);
+          if (count == 0) {
+            search.makePass();
+            passes.add(true);
+          } else {
+            search.makeMove(moves[rand.nextInt(count)], turn);
+            passes.add(false);
+          }
+          Assert.assertEquals(seen.size(), search.getSearchDepth());
+        }
+        // then walks back, checking that every position is exactly as it was
+        for (int ply = seen.size() - 1; ply >= 0; ply--) {
+          if (passes.get(ply)) {
+            search.unmakePass();
+          } else {
+            search.unmakeMove();
+          }
+          Assert.assertEquals(seen.get(ply), this.snapshot(search));
+        }
+        Assert.assertEquals(0, search.getSearchDepth());
+      }
+    }
+  }
+
+  @Test
+  public void testCopyIsDetached() {
+    for (IReversi game : this.games()) {
+      List<Object> before = this.snapshot(game);
+      ISearchableReversi search = game.copyForSearch();
+      Assert.assertEquals(before, this.snapshot(search));
+      int[] moves = new int[search.getLayout().size()];
+      search.getLegalMoves(w, moves);
+      search.makeMove(moves[0], w);
+      Assert.assertEquals(before, this.snapshot(game));
+      Assert.assertNotEquals(before, this.snapshot(search));
+    }
+  }
+
+  @Test
+  public void testCopyOfGameInProgress() {
+    HexReversi game = new HexReversi(4);
+    game.move(new CubeCoord(-1, -1, 2, false), w);
+    ISearchableReversi search = game.copyForSearch();
+    Assert.assertEquals(this.snapshot(game), this.snapshot(search));
+    Assert.assertEquals(b, search.getActiveTurn());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNothingToUndo() {
+    new SquareReversi(4).copyForSearch().unmakeMove();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testUndoPassAfterMove() {
+    ISearchableReversi search = new BitboardSquareReversi(4).copyForSearch();
+    int[] moves = new int[16];
+    search.getLegalMoves(w, moves);
+    search.makeMove(moves[0], w);
+    search.unmakePass();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testUndoMoveAfterPass() {
+    ISearchableReversi search = new HexReversi(3).copyForSearch();
+    search.makePass();
+    search.unmakeMove();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testTwoPassesInARow() {
+    ISearchableReversi search = new BitboardHexReversi(3).copyForSearch();
+    search.makePass();
+    search.makePass();
+  }
+
+  @Test
+  public void testIllegalMakeMoves() {
+    for (IReversi game : this.games()) {
+      ISearchableReversi search = game.copyForSearch();
+      BoardLayout layout = search.getLayout();
+      int[] moves = new int[layout.size()];
+      search.getLegalMoves(w, moves);
+      this.assertRejected(search, moves[0], b);
+      this.assertRejected(search, moves[0], n);
+      this.assertRejected(search, -1, w);
+      this.assertRejected(search, layout.size(), w);
+      // an occupied tile, and an empty tile that flips nothing
+      for (int id = 0; id < layout.size(); id++) {
+        if (!search.isLegalMove(id, w)) {
+          this.assertRejected(search, id, w);
+        }
+      }
+      Assert.assertEquals(0, search.getSearchDepth());
+    }
+  }
+
+  // Asserts that the given move is rejected without changing the game.
+  private void assertRejected(ISearchableReversi search, int id, ITile.State color) {
+    List<Object> before = this.snapshot(search);
+    try {
+      search.makeMove(id, color);
+      Assert.fail("Expected the move to be rejected.");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals(before, this.snapshot(search));
+    }
+  }
+
+  // Returns everything a search can observe about the game.
+  private List<Object> snapshot(ReadOnlyReversi game) {
+    BoardLayout layout = game.getLayout();
+    ITile.State[] states = new ITile.State[layout.size()];
+    for (int id = 0; id < layout.size(); id++) {
+      states[id] = game.getStateAt(id);
+    }
+    return Arrays.asList(Arrays.asList(states), game.getActiveTurn(), game.calcScore(b),
+            game.calcScore(w), new HashSet<>(game.getLegalMoves(b)),
+            new HashSet<>(game.getLegalMoves(w)), new HashSet<>(game.getFrontier()),
+            game.gameOver());
+  }
+
+  // Returns fresh games of every model, shape and several sizes.
+  private List<IReversi> games() {
+    return Arrays.asList(new HexReversi(3), new HexReversi(6), new SquareReversi(4),
+            new SquareReversi(8), new BitboardHexReversi(4), new BitboardHexReversi(6),
+            new BitboardSquareReversi(8), new BitboardSquareReversi(10));
+  }
+}
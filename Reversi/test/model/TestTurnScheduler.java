@@ -0,0 +1,121 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import controller.ModelStatusListener;
+import controller.PlayerActionListener;
+import player.AIPlayer;
+import strategy.HighestScore;
+
+/**
+ * Tests that the start of each turn reaches every subscriber in order, without the call stack
+ * growing as a game between two AI players goes on.
+ */
+public class TestTurnScheduler {
+
+  // Plays one color of a game with an AI player, recording each turn it hears about and how
+  // deep the call stack was when it heard.
+  private static class Seat implements ModelStatusListener, PlayerActionListener {
+    private final IReversi game;
+    private final AIPlayer player;
+    private final List<String> heard = new ArrayList<>();
+    private int deepestStack = 0;
+
+    Seat(IReversi game, ITile.State color) {
+      this.game = game;
+      this.player = new AIPlayer(game, new HighestScore(), color);
+      this.player.subscribe(this);
+      game.subscribe(this);
+    }
+
+    @Override
+    public void turnBegins(ITile.State whoseTurn) {
+      this.heard.add(whoseTurn.toString());
+      this.deepestStack = Math.max(this.deepestStack,
+              Thread.currentThread().getStackTrace().length);
+      if (this.game.gameOver() || whoseTurn != this.player.getColor()) {
+        return;
+      }
+      if (this.game.hasMoves(whoseTurn)) {
+        this.player.requestMove();
+      } else {
+        this.receivePass();
+      }
+    }
+
+    @Override
+    public void receiveMove(CubeCoord loc) {
+      this.game.move(loc, this.player.getColor());
+    }
+
+    @Override
+    public void receivePass() {
+      this.game.pass();
+    }
+  }
+
+  @Test
+  public void testWholeGameAtConstantStackDepth() {
+    for (IReversi game : new IReversi[] {new SquareReversi(16), new BitboardHexReversi(8),
+        new HexReversi(8), new BitboardSquareReversi(8)}) {
+      Seat black = new Seat(game, ITile.State.BLACK);
+      Seat white = new Seat(game, ITile.State.WHITE);
+      int base = Thread.currentThread().getStackTrace().length;
+      game.startGame();
+      Assert.assertTrue(game.gameOver());
+      // a recursive turn loop would be hundreds of calls deep by the end of the game
+      Assert.assertTrue(black.deepestStack < base + 10);
+      Assert.assertTrue(white.deepestStack < base + 10);
+      // both players hear about every turn, the last of which ends the game
+      Assert.assertEquals(black.heard, white.heard);
+      Assert.assertTrue(black.heard.size() > 40);
+    }
+  }
+
+  @Test
+  public void testEverySubscriberHearsEachTurnBeforeTheNext() {
+    SquareReversi game = new SquareReversi(4);
+    List<String> log = new ArrayList<>();
+    // the first subscriber moves as soon as its turn begins, beginning the next turn
+    game.subscribe(whoseTurn -> {
+      log.add("first " + whoseTurn);
+      if (log.size() == 1) {
+        game.move(game.getLegalMoves(whoseTurn).get(0), whoseTurn);
+      }
+    });
+    game.subscribe(whoseTurn -> log.add("second " + whoseTurn));
+    ITile.State first = game.getActiveTurn();
+    ITile.State second = first == ITile.State.WHITE ? ITile.State.BLACK : ITile.State.WHITE;
+    game.startGame();
+    Assert.assertEquals(List.of("first " + first, "second " + first, "first " + second,
+            "second " + second), log);
+  }
+
+  @Test
+  public void testFailedSubscriberLeavesNoTurnsBehind() {
+    SquareReversi game = new SquareReversi(4);
+    List<String> log = new ArrayList<>();
+    game.subscribe(whoseTurn -> {
+      log.add(whoseTurn.toString());
+      if (log.size() == 1) {
+        game.move(game.getLegalMoves(whoseTurn).get(0), whoseTurn);
+        throw new IllegalStateException("failed");
+      }
+    });
+    ITile.State first = game.getActiveTurn();
+    try {
+      game.startGame();
+      Assert.fail("the subscriber's exception should have been thrown");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("failed", e.getMessage());
+    }
+    // the turn begun before the failure is dropped, and later turns are delivered as usual
+    game.notifyTurnChange();
+    Assert.assertEquals(List.of(first.toString(), game.getActiveTurn().toString()), log);
+    Assert.assertNotEquals(first, game.getActiveTurn());
+  }
+}
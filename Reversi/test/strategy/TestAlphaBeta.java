@@ -0,0 +1,189 @@
+package strategy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import model.BitboardHexReversi;
+import model.BitboardSquareReversi;
+import model.CubeCoord;
+import model.HexReversi;
+import model.HexTile;
+import model.IReversi;
+import model.ISearchableReversi;
+import model.ITile;
+import model.SquareReversi;
+
+/**
+ * Tests the alpha-beta searching strategy and the evaluators it scores positions with.
+ */
+public class TestAlphaBeta {
+  ITile.State b = ITile.State.BLACK;
+  ITile.State w = ITile.State.WHITE;
+
+  @Test
+  public void testEvaluatorsOnStartingBoard() {
+    for (IReversi game : this.games()) {
+      Assert.assertEquals(0, new DiscCountEvaluator().evaluate(game, w));
+      Assert.assertEquals(0, new MobilityEvaluator().evaluate(game, w));
+      Assert.assertEquals(0, new CornerEvaluator().evaluate(game, b));
+      Assert.assertEquals(0, WeightedEvaluator.standard().evaluate(game, b));
+    }
+  }
+
+  @Test
+  public void testEvaluatorsAfterAMove() {
+    SquareReversi game = new SquareReversi(8);
+    game.move(game.getLegalMoves(w).get(0), w);
+    // white has placed one piece and flipped one
+    Assert.assertEquals(3, new DiscCountEvaluator().evaluate(game, w));
+    Assert.assertEquals(-3, new DiscCountEvaluator().evaluate(game, b));
+    int mobility = game.countLegalMoves(w) - game.countLegalMoves(b);
+    Assert.assertEquals(mobility, new MobilityEvaluator().evaluate(game, w));
+    Assert.assertEquals(3 + (5 * mobility), WeightedEvaluator.standard().evaluate(game, w));
+  }
+
+  @Test
+  public void testCornerEvaluator() {
+    ITile.State n = ITile.State.NONE;
+    ITile.State[][] tiles = {
+        {w, n, n, b},
+        {n, w, b, n},
+        {n, b, w, n},
+        {b, n, n, n}};
+    SquareReversi game = new SquareReversi(this.board(tiles), w);
+    Assert.assertEquals(-1, new CornerEvaluator().evaluate(game, w));
+    Assert.assertEquals(1, new CornerEvaluator().evaluate(game, b));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMismatchedWeights() {
+    new WeightedEvaluator(new IEvaluator[] {new DiscCountEvaluator()}, new int[] {1, 2});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDepthTooSmall() {
+    new AlphaBeta(0);
+  }
+
+  @Test
+  public void testDepthOneIsGreedy() {
+    for (IReversi game : this.games()) {
+      // plays a few moves so that the moves score differently
+      for (int turn = 0; turn < 4 && !game.gameOver(); turn++) {
+        ITile.State color = game.getActiveTurn();
+        CubeCoord greedy = new HighestScore().chooseMove(game, color);
+        Assert.assertEquals(greedy,
+                new AlphaBeta(1, new DiscCountEvaluator()).chooseMove(game, color));
+        game.move(greedy, color);
+      }
+    }
+  }
+
+  @Test
+  public void testScoresMatchMinimax() {
+    for (IReversi game : this.games()) {
+      for (int turn = 0; turn < 3 && !game.gameOver(); turn++) {
+        ITile.State color = game.getActiveTurn();
+        IEvaluator eval = WeightedEvaluator.standard();
+        AlphaBeta search = new AlphaBeta(3, eval);
+        CubeCoord picked = search.chooseMove(game, color);
+        ISearchableReversi copy = game.copyForSearch();
+        int best = Integer.MIN_VALUE;
+        int[] moves = new int[copy.getLayout().size()];
+        int count = copy.getLegalMoves(color, moves);
+        for (int i = 0; i < count; i++) {
+          copy.makeMove(moves[i], color);
+          best = Math.max(best, -this.minimax(copy, 2, eval));
+          copy.unmakeMove();
+        }
+        Assert.assertEquals(best, search.getLastScore());
+        // the picked move is one of the moves with the best score
+        copy.makeMove(copy.getLayout().id(picked), color);
+        Assert.assertEquals(best, -this.minimax(copy, 2, eval));
+        copy.unmakeMove();
+        game.move(picked, color);
+      }
+    }
+  }
+
+  @Test
+  public void testSearchIsReported() {
+    StringBuilder log = new StringBuilder();
+    AlphaBeta search = new AlphaBeta(3, WeightedEvaluator.standard(), log);
+    Assert.assertEquals(0, search.getNodes());
+    HexReversi game = new HexReversi(5);
+    search.chooseMove(game, w);
+    Assert.assertTrue(search.getNodes() > 6);
+    Assert.assertTrue(search.getNodesPerSecond() > 0);
+    Assert.assertTrue(log.toString().startsWith("alphabeta depth 3: " + search.getNodes()
+            + " nodes"));
+    // the game itself was not touched by the search
+    Assert.assertEquals(w, game.getActiveTurn());
+    Assert.assertEquals(3, game.calcScore(w));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNotPlayersTurn() {
+    new AlphaBeta(2).chooseMove(new SquareReversi(6), b);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNoMoves() {
+    HexReversi game = new HexReversi(3);
+    game.pass();
+    game.move(game.getLegalMoves(b).get(0), b);
+    // plays on until someone to move has no moves
+    while (game.hasMoves(game.getActiveTurn())) {
+      ITile.State color = game.getActiveTurn();
+      game.move(new HighestScore().chooseMove(game, color), color);
+    }
+    new AlphaBeta(2).chooseMove(game, game.getActiveTurn());
+  }
+
+  // Scores the position for the player to move by plain minimax, with no pruning, with the same
+  // rules as AlphaBeta for passes and finished games.
+  private int minimax(ISearchableReversi game, int depth, IEvaluator eval) {
+    ITile.State turn = game.getActiveTurn();
+    if (game.gameOver()) {
+      return AlphaBeta.finalScore(game, turn);
+    }
+    if (depth == 0) {
+      return eval.evaluate(game, turn);
+    }
+    int[] moves = new int[game.getLayout().size()];
+    int count = game.getLegalMoves(turn, moves);
+    if (count == 0) {
+      game.makePass();
+      int score = -this.minimax(game, depth, eval);
+      game.unmakePass();
+      return score;
+    }
+    int best = Integer.MIN_VALUE;
+    for (int i = 0; i < count; i++) {
+      game.makeMove(moves[i], turn);
+      best = Math.max(best, -this.minimax(game, depth - 1, eval));
+      game.unmakeMove();
+    }
+    return best;
+  }
+
+  // Returns a board of tiles with the given states.
+  private ITile[][] board(ITile.State[][] states) {
+    ITile[][] tiles = new ITile[states.length][states.length];
+    for (int r = 0; r < states.length; r++) {
+      for (int c = 0; c < states.length; c++) {
+        tiles[r][c] = new HexTile(states[r][c]);
+      }
+    }
+    return tiles;
+  }
+
+  // Returns fresh games of every model and shape.
+  private List<IReversi> games() {
+    return Arrays.asList(new HexReversi(4), new SquareReversi(6), new BitboardHexReversi(5),
+            new BitboardSquareReversi(8));
+  }
+}
@@ -0,0 +1,119 @@
+package strategy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import model.BitboardSquareReversi;
+import model.CubeCoord;
+import model.HexReversi;
+import model.IReversi;
+import model.ISearchableReversi;
+import model.ITile;
+import model.SquareReversi;
+
+/**
+ * Tests the exact endgame solver.
+ */
+public class TestEndgameSolver {
+  ITile.State w = ITile.State.WHITE;
+
+  @Test
+  public void testSolvesExactly() {
+    for (int seed = 0; seed < 4; seed++) {
+      for (IReversi game : new IReversi[] {new HexReversi(4), new SquareReversi(6),
+          new BitboardSquareReversi(6)}) {
+        if (!this.playRandomlyUntil(game, 9, seed)) {
+          continue;
+        }
+        ITile.State color = game.getActiveTurn();
+        EndgameSolver solver = new EndgameSolver(10);
+        CubeCoord picked = solver.chooseMove(game, color);
+        ISearchableReversi copy = game.copyForSearch();
+        Assert.assertEquals(this.minimax(copy), solver.getLastScore());
+        // the picked move reaches the best result
+        copy.makeMove(copy.getLayout().id(picked), color);
+        Assert.assertEquals(solver.getLastScore(), -this.minimax(copy));
+        Assert.assertTrue(solver.getNodes() > 1);
+      }
+    }
+  }
+
+  @Test
+  public void testWinLossDrawMatchesExact() {
+    for (int seed = 0; seed < 6; seed++) {
+      IReversi game = new HexReversi(4);
+      if (!this.playRandomlyUntil(game, 10, seed)) {
+        continue;
+      }
+      ITile.State color = game.getActiveTurn();
+      EndgameSolver exact = new EndgameSolver(11);
+      EndgameSolver wld = new EndgameSolver(11, null, false);
+      exact.chooseMove(game, color);
+      wld.chooseMove(game, color);
+      Assert.assertEquals(Integer.signum(exact.getLastScore()), wld.getLastScore());
+    }
+  }
+
+  @Test
+  public void testBackupAboveThreshold() {
+    IReversi game = new SquareReversi(8);
+    EndgameSolver solver = new EndgameSolver(12, new HighestScore(), true);
+    Assert.assertEquals(new HighestScore().chooseMove(game, w), solver.chooseMove(game, w));
+    Assert.assertEquals(0, solver.getNodes());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNoBackup() {
+    new EndgameSolver(12).chooseMove(new SquareReversi(8), w);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThresholdTooSmall() {
+    new EndgameSolver(0);
+  }
+
+  // Plays random moves until fewer than the given number of tiles are empty, returning false if
+  // the game ended first or the player to move has to pass.
+  private boolean playRandomlyUntil(IReversi game, int empty, int seed) {
+    Random rand = new Random(seed);
+    int size = game.getLayout().size();
+    while (!game.gameOver()
+            && size - game.calcScore(ITile.State.BLACK) - game.calcScore(w) >= empty) {
+      ITile.State color = game.getActiveTurn();
+      if (!game.hasMoves(color)) {
+        game.pass();
+        continue;
+      }
+      List<CubeCoord> moves = game.getLegalMoves(color);
+      game.move(moves.get(rand.nextInt(moves.size())), color);
+    }
+    return !game.gameOver() && game.hasMoves(game.getActiveTurn());
+  }
+
+  // Returns the final margin of pieces for the player to move with best play, by plain minimax.
+  private int minimax(ISearchableReversi game) {
+    ITile.State turn = game.getActiveTurn();
+    if (game.gameOver()) {
+      ITile.State other = turn == w ? ITile.State.BLACK : w;
+      return game.calcScore(turn) - game.calcScore(other);
+    }
+    int[] moves = new int[game.getLayout().size()];
+    int count = game.getLegalMoves(turn, moves);
+    if (count == 0) {
+      game.makePass();
+      int score = -this.minimax(game);
+      game.unmakePass();
+      return score;
+    }
+    int best = Integer.MIN_VALUE;
+    for (int i = 0; i < count; i++) {
+      game.makeMove(moves[i], turn);
+      best = Math.max(best, -this.minimax(game));
+      game.unmakeMove();
+    }
+    return best;
+  }
+}
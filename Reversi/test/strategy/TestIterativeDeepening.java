@@ -0,0 +1,105 @@
+package strategy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.BitboardSquareReversi;
+import model.CubeCoord;
+import model.HexReversi;
+import model.IReversi;
+import model.ITile;
+import model.SquareReversi;
+
+/**
+ * Tests the iterative deepening strategy and the budgets it searches within.
+ */
+public class TestIterativeDeepening {
+  ITile.State b = ITile.State.BLACK;
+  ITile.State w = ITile.State.WHITE;
+
+  @Test
+  public void testParseBudgets() {
+    Assert.assertEquals(500, SearchBudget.parse("500").getMillis());
+    Assert.assertEquals(250, SearchBudget.parse("250ms").getMillis());
+    Assert.assertTrue(SearchBudget.parse("250ms").isTimed());
+    Assert.assertEquals(Long.MAX_VALUE, SearchBudget.parse("250ms").getNodes());
+    Assert.assertEquals(1000, SearchBudget.parse("1000nodes").getNodes());
+    Assert.assertFalse(SearchBudget.parse("1000nodes").isTimed());
+    Assert.assertEquals("1000nodes", SearchBudget.ofNodes(1000).toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseNonsense() {
+    SearchBudget.parse("fast");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoBudget() {
+    SearchBudget.ofMillis(0);
+  }
+
+  @Test
+  public void testNodeBudgetIsKept() {
+    IterativeDeepening strat = new IterativeDeepening(SearchBudget.ofNodes(20_000));
+    SquareReversi game = new SquareReversi(8);
+    strat.chooseMove(game, w);
+    Assert.assertTrue(strat.getNodes() <= 20_001);
+    Assert.assertTrue(strat.getCompletedDepth() > 1);
+  }
+
+  @Test
+  public void testPicksMoveOfDeepestFinishedSearch() {
+    for (IReversi game : new IReversi[] {new HexReversi(5), new BitboardSquareReversi(8)}) {
+      for (int turn = 0; turn < 3; turn++) {
+        ITile.State color = game.getActiveTurn();
+        // without a table, each search gives the same result as a search of that depth alone
+        IterativeDeepening strat = new IterativeDeepening(SearchBudget.ofNodes(5_000),
+                WeightedEvaluator.standard(), null, null);
+        CubeCoord picked = strat.chooseMove(game, color);
+        Assert.assertEquals(new AlphaBeta(strat.getCompletedDepth()).chooseMove(game, color),
+                picked);
+        game.move(picked, color);
+      }
+    }
+  }
+
+  @Test
+  public void testTinyBudgetStillMoves() {
+    IterativeDeepening strat = new IterativeDeepening(SearchBudget.ofNodes(1));
+    HexReversi game = new HexReversi(6);
+    CubeCoord picked = strat.chooseMove(game, w);
+    Assert.assertEquals(1, strat.getCompletedDepth());
+    Assert.assertTrue(game.isLegalMove(picked, w));
+  }
+
+  @Test
+  public void testTimeBudgetIsKept() {
+    IterativeDeepening strat = new IterativeDeepening(SearchBudget.ofMillis(50));
+    HexReversi game = new HexReversi(6);
+    long start = System.nanoTime();
+    CubeCoord picked = strat.chooseMove(game, w);
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    Assert.assertTrue(game.isLegalMove(picked, w));
+    // allows generously for a slow or busy machine
+    Assert.assertTrue(millis < 1000);
+  }
+
+  @Test
+  public void testStopsAtEndOfGame() {
+    IterativeDeepening strat = new IterativeDeepening(SearchBudget.ofNodes(100_000_000));
+    strat.chooseMove(new SquareReversi(4), w);
+    // the whole game is searched, which is no more moves than there are empty tiles
+    Assert.assertEquals(12, strat.getCompletedDepth());
+    Assert.assertTrue(strat.getNodes() < 100_000_000);
+  }
+
+  @Test
+  public void testReport() {
+    StringBuilder log = new StringBuilder();
+    IterativeDeepening strat = new IterativeDeepening(SearchBudget.ofNodes(3_000),
+            WeightedEvaluator.standard(), log);
+    strat.chooseMove(new SquareReversi(6), w);
+    Assert.assertTrue(log.toString().startsWith("iterative deepening 3000nodes depth "
+            + strat.getCompletedDepth() + ": " + strat.getNodes() + " nodes"));
+  }
+}
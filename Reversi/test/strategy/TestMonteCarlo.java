@@ -0,0 +1,107 @@
+package strategy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.BitboardHexReversi;
+import model.CubeCoord;
+import model.HexReversi;
+import model.IReversi;
+import model.ITile;
+import model.SquareReversi;
+
+/**
+ * Tests the Monte Carlo tree search strategy.
+ */
+public class TestMonteCarlo {
+  ITile.State b = ITile.State.BLACK;
+  ITile.State w = ITile.State.WHITE;
+
+  @Test
+  public void testPicksLegalMoves() {
+    for (IReversi game : new IReversi[] {new HexReversi(5), new SquareReversi(8),
+        new BitboardHexReversi(8)}) {
+      MonteCarlo strat = new MonteCarlo(SearchBudget.ofNodes(300), 1, 1, null);
+      for (int turn = 0; turn < 4; turn++) {
+        ITile.State color = game.getActiveTurn();
+        CubeCoord picked = strat.chooseMove(game, color);
+        Assert.assertTrue(game.isLegalMove(picked, color));
+        Assert.assertEquals(300, strat.getPlayouts());
+        game.move(picked, color);
+      }
+    }
+  }
+
+  @Test
+  public void testSameSeedSameMoves() {
+    MonteCarlo one = new MonteCarlo(SearchBudget.ofNodes(500), 1, 42, null);
+    MonteCarlo two = new MonteCarlo(SearchBudget.ofNodes(500), 1, 42, null);
+    IReversi game = new HexReversi(4);
+    for (int turn = 0; turn < 6 && !game.gameOver(); turn++) {
+      ITile.State color = game.getActiveTurn();
+      if (!game.hasMoves(color)) {
+        game.pass();
+        continue;
+      }
+      CubeCoord picked = one.chooseMove(game, color);
+      Assert.assertEquals(picked, two.chooseMove(game, color));
+      game.move(picked, color);
+    }
+  }
+
+  @Test
+  public void testTreeIsReused() {
+    MonteCarlo strat = new MonteCarlo(SearchBudget.ofNodes(2_000), 1, 7, null);
+    IReversi game = new SquareReversi(6);
+    game.move(strat.chooseMove(game, w), w);
+    Assert.assertEquals(0, strat.getReusedPlayouts());
+    game.move(new HighestScore().chooseMove(game, b), b);
+    strat.chooseMove(game, w);
+    Assert.assertTrue(strat.getReusedPlayouts() > 0);
+    // a different game starts a new tree
+    strat.chooseMove(new HexReversi(4), w);
+    Assert.assertEquals(0, strat.getReusedPlayouts());
+  }
+
+  @Test
+  public void testThreadsShareBudget() {
+    StringBuilder log = new StringBuilder();
+    MonteCarlo strat = new MonteCarlo(SearchBudget.ofNodes(1_000), 4, 3, log);
+    HexReversi game = new HexReversi(6);
+    Assert.assertTrue(game.isLegalMove(strat.chooseMove(game, w), w));
+    Assert.assertEquals(1_000, strat.getPlayouts());
+    Assert.assertTrue(strat.getPlayoutsPerSecond() > 0);
+    Assert.assertTrue(log.toString().startsWith("monte carlo 4 threads 1000nodes: 1000 playouts"));
+  }
+
+  @Test
+  public void testThreadsDoNotOutliveMoves() {
+    HexReversi game = new HexReversi(4);
+    for (int i = 0; i < 30; i++) {
+      new MonteCarlo(SearchBudget.ofNodes(50), 4, i, null).chooseMove(game, w);
+    }
+    // a leaking pool per strategy would leave 90 threads; at most the last move's may linger
+    Assert.assertTrue(TestParallelSearch.countThreads("reversi-playout") <= 3);
+  }
+
+  @Test
+  public void testTimeBudget() {
+    MonteCarlo strat = new MonteCarlo(SearchBudget.ofMillis(50));
+    HexReversi game = new HexReversi(8);
+    long start = System.nanoTime();
+    Assert.assertTrue(game.isLegalMove(strat.chooseMove(game, w), w));
+    // allows generously for a slow or busy machine
+    Assert.assertTrue(System.nanoTime() - start < 1_000_000_000L);
+    Assert.assertTrue(strat.getPlayouts() > 0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNotPlayersTurn() {
+    new MonteCarlo(SearchBudget.ofNodes(10)).chooseMove(new HexReversi(3), b);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoThreads() {
+    new MonteCarlo(SearchBudget.ofNodes(10), 0, 0, null);
+  }
+}
@@ -0,0 +1,90 @@
+package strategy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.BoardLayout;
+import model.HexReversi;
+import model.IReversi;
+import model.ITile;
+import model.SquareReversi;
+
+/**
+ * Tests the move orderer and the searches that use it.
+ */
+public class TestMoveOrderer {
+  ITile.State w = ITile.State.WHITE;
+
+  @Test
+  public void testTilesOrderedByKind() {
+    SquareReversi game = new SquareReversi(8);
+    BoardLayout layout = game.getLayout();
+    MoveOrderer orderer = new MoveOrderer();
+    orderer.prepare(game);
+    int middle = layout.id(3, 2);
+    int nextToCorner = layout.id(1, 1);
+    int edge = layout.id(0, 3);
+    int corner = layout.id(7, 7);
+    int[] moves = {middle, nextToCorner, edge, corner};
+    orderer.order(moves, 4, 0, -1);
+    Assert.assertArrayEquals(new int[] {corner, edge, middle, nextToCorner}, moves);
+    // the best move found before comes first, wherever it is
+    orderer.order(moves, 4, 0, nextToCorner);
+    Assert.assertEquals(nextToCorner, moves[0]);
+  }
+
+  @Test
+  public void testHexCornersAndEdges() {
+    HexReversi game = new HexReversi(4);
+    BoardLayout layout = game.getLayout();
+    MoveOrderer orderer = new MoveOrderer();
+    orderer.prepare(game);
+    int corner = layout.id(game.getCorners().get(0));
+    int center = layout.id(3, 3);
+    int[] moves = {center, corner};
+    orderer.order(moves, 2, 0, -1);
+    Assert.assertEquals(corner, moves[0]);
+  }
+
+  @Test
+  public void testKillersAndHistory() {
+    SquareReversi game = new SquareReversi(8);
+    BoardLayout layout = game.getLayout();
+    MoveOrderer orderer = new MoveOrderer();
+    orderer.prepare(game);
+    int a = layout.id(2, 2);
+    int b = layout.id(2, 3);
+    int c = layout.id(2, 4);
+    int corner = layout.id(0, 0);
+    orderer.recordCutoff(b, 3, 2);
+    orderer.recordCutoff(c, 3, 1);
+    int[] moves = {a, corner, b, c};
+    // the killers of ply 3 come first, most recent first
+    orderer.order(moves, 4, 3, -1);
+    Assert.assertArrayEquals(new int[] {c, b, corner, a}, moves);
+    // at another ply, only the history counts, and only between tiles of the same kind
+    orderer.order(moves, 4, 5, -1);
+    Assert.assertArrayEquals(new int[] {corner, b, c, a}, moves);
+    // a new search forgets the killers
+    orderer.prepare(game);
+    orderer.order(moves, 4, 3, -1);
+    Assert.assertEquals(corner, moves[0]);
+  }
+
+  @Test
+  public void testOrderingKeepsResultsAndPrunesMore() {
+    for (IReversi game : new IReversi[] {new HexReversi(5), new SquareReversi(8)}) {
+      AlphaBeta plain = new AlphaBeta(5, WeightedEvaluator.standard());
+      AlphaBeta ordered = new AlphaBeta(5, WeightedEvaluator.standard(), null,
+              new MoveOrderer(), null);
+      for (int turn = 0; turn < 3; turn++) {
+        ITile.State color = game.getActiveTurn();
+        Assert.assertEquals(plain.chooseMove(game, color), ordered.chooseMove(game, color));
+        Assert.assertEquals(plain.getLastScore(), ordered.getLastScore());
+        Assert.assertTrue(ordered.getCutoffs() > 0);
+        Assert.assertTrue(ordered.getFirstMoveCutoffRate() > 0.5);
+        game.move(plain.chooseMove(game, color), color);
+      }
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package strategy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.BitboardHexReversi;
+import model.BoardLayout;
+import model.CubeCoord;
+import model.HexReversi;
+import model.IReversi;
+import model.ISearchableReversi;
+import model.ITile;
+import model.SquareReversi;
+
+/**
+ * Tests building, saving and playing from opening books.
+ */
+public class TestOpeningBook {
+
+  // Builds a book of the given game's first plies with a shallow search.
+  private OpeningBook build(IReversi game, int plies) {
+    return new OpeningBookBuilder(() -> new AlphaBeta(3), plies, 2).build(game);
+  }
+
+  // Asserts that the given move is the given search's move, or a symmetry of it that leaves
+  // the game's position unchanged.
+  private void assertSameUpToSymmetry(IReversi game, int expected, int actual) {
+    BoardLayout layout = game.getLayout();
+    for (int sym = 0; sym < layout.symmetries(); sym++) {
+      if (layout.hashOf(game, sym) == game.getHash() && layout.image(sym, expected) == actual) {
+        return;
+      }
+    }
+    Assert.fail("book move " + actual + " is not a symmetry of " + expected);
+  }
+
+  @Test
+  public void testBookGivesSearchedMoves() {
+    for (IReversi game : new IReversi[] {new HexReversi(4), new SquareReversi(6)}) {
+      OpeningBook book = this.build(game, 3);
+      Assert.assertTrue(book.size() > 3);
+      Assert.assertEquals(3, book.getPlies());
+      for (int ply = 0; ply < 3; ply++) {
+        ITile.State turn = game.getActiveTurn();
+        CubeCoord searched = new AlphaBeta(3).chooseMove(game, turn);
+        int move = book.lookup(game);
+        this.assertSameUpToSymmetry(game, game.getLayout().id(searched), move);
+        game.move(game.getLayout().coord(move), turn);
+      }
+      // past the plies the book covers
+      Assert.assertEquals(-1, book.lookup(game));
+    }
+  }
+
+  @Test
+  public void testSymmetricPositionsShareEntries() {
+    SquareReversi start = new SquareReversi(6);
+    BoardLayout layout = start.getLayout();
+    OpeningBook book = this.build(start, 2);
+    int[] moves = new int[layout.size()];
+    for (int sym = 0; sym < layout.symmetries(); sym++) {
+      ISearchableReversi game = start.copyForSearch();
+      ITile.State turn = game.getActiveTurn();
+      game.getLegalMoves(turn, moves);
+      // the first move played on the board as it is and as moved by the symmetry
+      int move = layout.image(sym, moves[0]);
+      if (!game.isLegalMove(move, turn)) {
+        continue;
+      }
+      game.makeMove(move, turn);
+      ISearchableReversi original = start.copyForSearch();
+      original.makeMove(moves[0], turn);
+      Assert.assertEquals(layout.image(sym, book.lookup(original)), book.lookup(game));
+    }
+  }
+
+  @Test
+  public void testRoundTripsThroughBytes() throws IOException {
+    HexReversi game = new HexReversi(4);
+    OpeningBook book = this.build(game, 3);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    book.write(bytes);
+    // a header of 21 bytes and 10 bytes per entry
+    Assert.assertEquals(21 + (10 * book.size()), bytes.size());
+    OpeningBook read = OpeningBook.read(new ByteArrayInputStream(bytes.toByteArray()));
+    Assert.assertEquals(book.size(), read.size());
+    Assert.assertEquals(book.getPlies(), read.getPlies());
+    Assert.assertSame(book.getLayout(), read.getLayout());
+    Assert.assertEquals(book.lookup(game), read.lookup(game));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testReadNonsense() throws IOException {
+    OpeningBook.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+  }
+
+  @Test
+  public void testOtherBoardIsOutOfBook() {
+    OpeningBook book = this.build(new HexReversi(4), 1);
+    Assert.assertEquals(-1, book.lookup(new HexReversi(5)));
+    Assert.assertEquals(-1, book.lookup(new SquareReversi(4)));
+    // the bitboard model shares the layout, and so the book
+    Assert.assertTrue(book.lookup(new BitboardHexReversi(4)) >= 0);
+  }
+
+  @Test
+  public void testStrategyFallsBackOutOfBook() {
+    HexReversi game = new HexReversi(4);
+    BookStrategy strat = new BookStrategy(this.build(game, 2), new HighestScore());
+    for (int ply = 0; ply < 4; ply++) {
+      ITile.State turn = game.getActiveTurn();
+      game.move(strat.chooseMove(game, turn), turn);
+    }
+    Assert.assertEquals(2, strat.getBookMoves());
+    Assert.assertEquals(2, strat.getDelegateMoves());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMove() {
+    new OpeningBook(BoardLayout.hex(4), 1, Map.of(1L, 99));
+  }
+
+  @Test
+  public void testThreadsDoNotOutliveBuilds() {
+    int before = countPoolThreads();
+    for (int i = 0; i < 10; i++) {
+      new OpeningBookBuilder(HighestScore::new, 2, 4).build(new HexReversi(4));
+    }
+    // a pool left running by each build would leave up to 40 more threads
+    Assert.assertTrue(countPoolThreads() <= before + 4);
+  }
+
+  // Returns the number of live threads belonging to pools made for one use.
+  private static int countPoolThreads() {
+    int count = 0;
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (thread.isAlive() && thread.getName().matches("ForkJoinPool-\\d+-worker-\\d+")) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoPlies() {
+    new OpeningBookBuilder(HighestScore::new, 0, 1);
+  }
+}
@@ -0,0 +1,100 @@
+package strategy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.BitboardSquareReversi;
+import model.CubeCoord;
+import model.HexReversi;
+import model.IReversi;
+import model.ITile;
+import model.SquareReversi;
+
+/**
+ * Tests the parallel searching strategy.
+ */
+public class TestParallelSearch {
+  ITile.State w = ITile.State.WHITE;
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoThreads() {
+    new ParallelSearch(0, SearchBudget.ofMillis(100));
+  }
+
+  @Test
+  public void testOneThreadMatchesAlphaBeta() {
+    for (IReversi game : new IReversi[] {new HexReversi(4), new SquareReversi(6)}) {
+      ParallelSearch strat = new ParallelSearch(1, SearchBudget.ofNodes(Long.MAX_VALUE), 3,
+              WeightedEvaluator.standard(), null, null);
+      CubeCoord picked = strat.chooseMove(game, w);
+      Assert.assertEquals(3, strat.getCompletedDepth());
+      Assert.assertEquals(new AlphaBeta(3).chooseMove(game, w), picked);
+    }
+  }
+
+  @Test
+  public void testThreadsReachDepth() {
+    for (IReversi game : new IReversi[] {new HexReversi(5), new BitboardSquareReversi(8)}) {
+      ParallelSearch strat = new ParallelSearch(4, SearchBudget.ofMillis(60_000), 4,
+              WeightedEvaluator.standard(), new TranspositionTable(4), null);
+      Assert.assertEquals(4, strat.getThreads());
+      CubeCoord picked = strat.chooseMove(game, w);
+      Assert.assertTrue(game.isLegalMove(picked, w));
+      Assert.assertEquals(4, strat.getCompletedDepth());
+      Assert.assertTrue(strat.getNodes() > 0);
+      Assert.assertTrue(strat.getNodesPerSecond() > 0);
+      Assert.assertTrue(strat.getTable().getStores() > 0);
+    }
+  }
+
+  @Test
+  public void testPlaysWholeGame() {
+    StringBuilder log = new StringBuilder();
+    ParallelSearch strat = new ParallelSearch(3, SearchBudget.ofNodes(3_000), 64,
+            WeightedEvaluator.standard(), new TranspositionTable(1), log);
+    IReversi game = new HexReversi(3);
+    int moves = 0;
+    while (!game.gameOver()) {
+      ITile.State color = game.getActiveTurn();
+      if (game.hasMoves(color)) {
+        game.move(strat.chooseMove(game, color), color);
+        moves++;
+      } else {
+        game.pass();
+      }
+    }
+    Assert.assertEquals(moves, log.toString().split(System.lineSeparator()).length);
+    Assert.assertTrue(log.toString().startsWith("parallel search 3 threads 3000nodes depth "));
+  }
+
+  @Test
+  public void testTimeBudgetIsKept() {
+    ParallelSearch strat = new ParallelSearch(2, SearchBudget.ofMillis(50));
+    HexReversi game = new HexReversi(6);
+    CubeCoord picked = strat.chooseMove(game, w);
+    Assert.assertTrue(game.isLegalMove(picked, w));
+    // allows generously for a slow or busy machine
+    Assert.assertTrue(strat.getNanos() < 1_000_000_000L);
+  }
+
+  @Test
+  public void testThreadsDoNotOutliveMoves() {
+    HexReversi game = new HexReversi(4);
+    for (int i = 0; i < 30; i++) {
+      new ParallelSearch(4, SearchBudget.ofNodes(200)).chooseMove(game, w);
+    }
+    // a leaking pool per strategy would leave 90 threads; at most the last move's may linger
+    Assert.assertTrue(countThreads("reversi-search") <= 3);
+  }
+
+  // Returns the number of live threads with the given name.
+  static int countThreads(String name) {
+    int count = 0;
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (thread.isAlive() && thread.getName().equals(name)) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
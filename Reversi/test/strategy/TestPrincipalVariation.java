@@ -0,0 +1,76 @@
+package strategy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.BitboardHexReversi;
+import model.CubeCoord;
+import model.HexReversi;
+import model.IReversi;
+import model.ITile;
+import model.SquareReversi;
+
+/**
+ * Tests the principal variation search strategy.
+ */
+public class TestPrincipalVariation {
+  ITile.State w = ITile.State.WHITE;
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoDepth() {
+    new PrincipalVariation(SearchBudget.ofNodes(1000), 0, WeightedEvaluator.standard(), null,
+            null);
+  }
+
+  @Test
+  public void testSameResultAsAlphaBeta() {
+    for (IReversi game : new IReversi[] {new HexReversi(5), new SquareReversi(8),
+        new BitboardHexReversi(6)}) {
+      for (int turn = 0; turn < 4; turn++) {
+        ITile.State color = game.getActiveTurn();
+        // without a table, each search gives the same result as a search of that depth alone
+        PrincipalVariation strat = new PrincipalVariation(SearchBudget.ofNodes(1_000_000), 5,
+                WeightedEvaluator.standard(), null, null);
+        AlphaBeta plain = new AlphaBeta(5);
+        CubeCoord picked = strat.chooseMove(game, color);
+        Assert.assertEquals(5, strat.getCompletedDepth());
+        Assert.assertEquals(plain.chooseMove(game, color), picked);
+        game.move(picked, color);
+      }
+    }
+  }
+
+  @Test
+  public void testResearchesAndAspirationFailures() {
+    SquareReversi game = new SquareReversi(8);
+    long researches = 0;
+    int failures = 0;
+    PrincipalVariation strat = new PrincipalVariation(SearchBudget.ofNodes(50_000));
+    for (int turn = 0; turn < 10; turn++) {
+      ITile.State color = game.getActiveTurn();
+      game.move(strat.chooseMove(game, color), color);
+      researches += strat.getResearches();
+      failures += strat.getAspirationFailures();
+    }
+    Assert.assertTrue(researches > 0);
+    Assert.assertTrue(failures > 0);
+  }
+
+  @Test
+  public void testNodeBudgetIsKept() {
+    PrincipalVariation strat = new PrincipalVariation(SearchBudget.ofNodes(20_000));
+    strat.chooseMove(new SquareReversi(8), w);
+    Assert.assertTrue(strat.getNodes() <= 20_001);
+    Assert.assertTrue(strat.getCompletedDepth() > 1);
+  }
+
+  @Test
+  public void testReport() {
+    StringBuilder report = new StringBuilder();
+    new PrincipalVariation(SearchBudget.ofNodes(5_000), 3, WeightedEvaluator.standard(),
+            new TranspositionTable(1), report).chooseMove(new HexReversi(4), w);
+    Assert.assertTrue(report.toString(),
+            report.toString().startsWith("principal variation 5000nodes depth 3, aspiration"));
+    Assert.assertTrue(report.toString().contains("re-searches"));
+  }
+}
@@ -0,0 +1,116 @@
+package strategy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.BitboardSquareReversi;
+import model.HexReversi;
+import model.IReversi;
+import model.ITile;
+import model.SquareReversi;
+
+/**
+ * Tests the transposition table and searches that use it.
+ */
+public class TestTranspositionTable {
+  ITile.State w = ITile.State.WHITE;
+
+  // The number of slots in a one megabyte table, and a hash in the same bucket as another.
+  private static final int SLOTS = 65536;
+  private static final long SAME_BUCKET = 1L << 40;
+
+  @Test
+  public void testSizeIsPowerOfTwo() {
+    Assert.assertEquals(SLOTS, new TranspositionTable(1).getCapacity());
+    Assert.assertEquals(2 * SLOTS, new TranspositionTable(3).getCapacity());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooSmall() {
+    new TranspositionTable(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBound() {
+    new TranspositionTable(1).store(5, 1, 0, 0, 0);
+  }
+
+  @Test
+  public void testEntriesRoundTrip() {
+    TranspositionTable table = new TranspositionTable(1);
+    table.store(12345, 7, TranspositionTable.LOWER, -AlphaBeta.WIN - 3, 90);
+    table.store(67890, 0, TranspositionTable.UPPER, 42, -1);
+    long entry = table.probe(12345);
+    Assert.assertEquals(7, TranspositionTable.depthOf(entry));
+    Assert.assertEquals(TranspositionTable.LOWER, TranspositionTable.boundOf(entry));
+    Assert.assertEquals(-AlphaBeta.WIN - 3, TranspositionTable.scoreOf(entry));
+    Assert.assertEquals(90, TranspositionTable.moveOf(entry));
+    entry = table.probe(67890);
+    Assert.assertEquals(0, TranspositionTable.depthOf(entry));
+    Assert.assertEquals(TranspositionTable.UPPER, TranspositionTable.boundOf(entry));
+    Assert.assertEquals(42, TranspositionTable.scoreOf(entry));
+    Assert.assertEquals(-1, TranspositionTable.moveOf(entry));
+    Assert.assertEquals(0, table.probe(12346));
+    Assert.assertEquals(3, table.getProbes());
+    Assert.assertEquals(2, table.getHits());
+    Assert.assertEquals(2.0 / 3, table.getHitRate(), 1e-9);
+    Assert.assertEquals(2.0 / SLOTS, table.getFill(), 1e-12);
+  }
+
+  @Test
+  public void testReplacement() {
+    TranspositionTable table = new TranspositionTable(1);
+    long deep = 99;
+    long shallow = deep + SAME_BUCKET;
+    long newer = deep + (2 * SAME_BUCKET);
+    table.store(deep, 6, TranspositionTable.EXACT, 1, 0);
+    table.store(shallow, 2, TranspositionTable.EXACT, 2, 0);
+    Assert.assertEquals(1, TranspositionTable.scoreOf(table.probe(deep)));
+    Assert.assertEquals(2, TranspositionTable.scoreOf(table.probe(shallow)));
+    // a shallower entry takes the always-replace slot, keeping the deep one
+    table.store(newer, 3, TranspositionTable.EXACT, 3, 0);
+    Assert.assertEquals(1, TranspositionTable.scoreOf(table.probe(deep)));
+    Assert.assertEquals(3, TranspositionTable.scoreOf(table.probe(newer)));
+    Assert.assertEquals(0, table.probe(shallow));
+    Assert.assertEquals(1, table.getCollisions());
+    // a deeper entry takes the depth-preferred slot
+    table.store(shallow, 8, TranspositionTable.EXACT, 4, 0);
+    Assert.assertEquals(4, TranspositionTable.scoreOf(table.probe(shallow)));
+    Assert.assertEquals(0, table.probe(deep));
+    // the same position replaces its deep entry even with a shallower search
+    table.store(shallow, 1, TranspositionTable.UPPER, 5, 0);
+    Assert.assertEquals(5, TranspositionTable.scoreOf(table.probe(shallow)));
+    Assert.assertEquals(2.0 / SLOTS, table.getFill(), 1e-12);
+    Assert.assertEquals(5, table.getStores());
+    table.clear();
+    Assert.assertEquals(0, table.probe(shallow));
+    Assert.assertEquals(0, table.getFill(), 0);
+    Assert.assertEquals(1, table.getProbes());
+  }
+
+  @Test
+  public void testSolvesGameTheSameWithTable() {
+    SquareReversi game = new SquareReversi(4);
+    AlphaBeta plain = new AlphaBeta(12, new DiscCountEvaluator());
+    TranspositionTable table = new TranspositionTable(1);
+    AlphaBeta remembering = new AlphaBeta(12, new DiscCountEvaluator(), table, null);
+    Assert.assertEquals(plain.chooseMove(game, w), remembering.chooseMove(game, w));
+    Assert.assertEquals(plain.getLastScore(), remembering.getLastScore());
+    Assert.assertTrue(remembering.getNodes() < plain.getNodes());
+    Assert.assertTrue(table.getHits() > 0);
+    Assert.assertTrue(table.getFill() > 0);
+  }
+
+  @Test
+  public void testDeepSearchesUseTable() {
+    for (IReversi game : new IReversi[] {new HexReversi(5), new BitboardSquareReversi(8)}) {
+      TranspositionTable table = new TranspositionTable(2);
+      IterativeDeepening strat = new IterativeDeepening(SearchBudget.ofNodes(50_000),
+              WeightedEvaluator.standard(), table, null);
+      Assert.assertTrue(game.isLegalMove(strat.chooseMove(game, w), w));
+      Assert.assertSame(table, strat.getTable());
+      Assert.assertTrue(table.getHits() > 0);
+      Assert.assertTrue(table.getStores() > 0);
+    }
+  }
+}